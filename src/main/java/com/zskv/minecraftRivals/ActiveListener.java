@@ -0,0 +1,49 @@
+package com.zskv.minecraftRivals;
+
+import org.bukkit.Bukkit;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+
+/**
+ * Keeps a listener registered only while its game or phase is running
+ * Bukkit calls every registered handler for each event of its type, so an
+ * idle game's handlers would otherwise run on every click just to return
+ * Main thread only
+ */
+public class ActiveListener {
+
+    private final MinecraftRivals plugin;
+    private final Listener listener;
+    private boolean registered;
+
+    public ActiveListener(MinecraftRivals plugin, Listener listener) {
+        this.plugin = plugin;
+        this.listener = listener;
+    }
+
+    /**
+     * Starts receiving events, does nothing if already registered
+     */
+    public void register() {
+        if (registered) {
+            return;
+        }
+        Bukkit.getPluginManager().registerEvents(listener, plugin);
+        registered = true;
+    }
+
+    /**
+     * Stops receiving events, does nothing if not registered
+     */
+    public void unregister() {
+        if (!registered) {
+            return;
+        }
+        HandlerList.unregisterAll(listener);
+        registered = false;
+    }
+
+    public boolean isRegistered() {
+        return registered;
+    }
+}
@@ -0,0 +1,241 @@
+package com.zskv.minecraftRivals;
+
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.zip.CRC32;
+
+/**
+ * Periodically saves running minigames and event phases, so a restart or
+ * crash does not void a round
+ * Sections are copied into a small binary checkpoint on the main thread and
+ * written by a background thread to a temp file that replaces the old one,
+ * so the file on disk is always a complete checkpoint
+ * On startup each section is handed its saved state when it registers
+ */
+public class CheckpointStore {
+
+    /**
+     * Something whose state is saved in the checkpoint
+     */
+    public interface Section {
+
+        /**
+         * Writes the current state, on the main thread
+         * @return false if there is nothing to resume, e.g. no game is running
+         */
+        boolean write(DataOutputStream out) throws IOException;
+
+        /**
+         * Picks up the state saved before the restart, on the main thread
+         */
+        void resume(DataInputStream in) throws IOException;
+    }
+
+    private static final int MAGIC = 0x4D435243; // "MCRC"
+    private static final int VERSION = 1;
+
+    private final MinecraftRivals plugin;
+    private final File file;
+    private final File tempFile;
+
+    private final Map<String, Section> sections = new LinkedHashMap<>();
+    // Saved state not yet picked up by its section
+    private final Map<String, byte[]> saved = new HashMap<>();
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "MCR-Checkpoint");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private BukkitTask task;
+    private boolean stopped;
+
+    public CheckpointStore(MinecraftRivals plugin) {
+        this.plugin = plugin;
+        this.file = new File(plugin.getDataFolder(), "checkpoint.bin");
+        this.tempFile = new File(plugin.getDataFolder(), "checkpoint.bin.tmp");
+    }
+
+    /**
+     * Reads the checkpoint left by the last run
+     */
+    public void load() {
+        saved.clear();
+        if (!file.exists()) {
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file.toPath())))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                plugin.getLogger().warning("Ignoring " + file.getName() + ", it is not a checkpoint of this version");
+                return;
+            }
+            long savedAt = in.readLong();
+            int count = in.readInt();
+            Map<String, byte[]> sections = new LinkedHashMap<>();
+            for (int i = 0; i < count; i++) {
+                String key = in.readUTF();
+                byte[] data = new byte[in.readInt()];
+                in.readFully(data);
+                sections.put(key, data);
+            }
+            if (in.readInt() != checksum(sections)) {
+                plugin.getLogger().warning("Ignoring " + file.getName() + ", it is damaged");
+                return;
+            }
+
+            saved.putAll(sections);
+            if (!saved.isEmpty()) {
+                plugin.getLogger().info("Resuming " + String.join(", ", saved.keySet()) + " from a checkpoint taken "
+                    + (System.currentTimeMillis() - savedAt) / 1000 + "s ago");
+            }
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to read " + file.getName() + ", nothing will be resumed", e);
+        }
+    }
+
+    /**
+     * Adds a section to every checkpoint, and resumes it if the last run saved it
+     * @param key Unique name of the section
+     * @param section The section
+     */
+    public void register(String key, Section section) {
+        sections.put(key, section);
+
+        byte[] data = saved.remove(key);
+        if (data == null) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(data))) {
+            section.resume(in);
+        } catch (IOException | RuntimeException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to resume " + key + " from the checkpoint", e);
+        }
+    }
+
+    /**
+     * Starts saving every checkpoint.interval-seconds
+     */
+    public void start() {
+        long interval = plugin.getSettings().checkpointIntervalSeconds() * 20L;
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::save, interval, interval);
+    }
+
+    /**
+     * Takes a checkpoint now, e.g. right after a game started or ended
+     * The state is copied here, the file is written in the background
+     */
+    public void save() {
+        if (stopped) {
+            return;
+        }
+        byte[] checkpoint = capture();
+        if (checkpoint != null) {
+            writer.execute(() -> write(checkpoint));
+        }
+    }
+
+    /**
+     * Takes a last checkpoint and waits for it to be written
+     * Call before minigames are torn down on shutdown, so they resume on the next start
+     */
+    public void stop() {
+        if (stopped) {
+            return;
+        }
+        stopped = true;
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+
+        byte[] checkpoint = capture();
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Checkpoint writer did not finish in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (checkpoint != null) {
+            write(checkpoint);
+        }
+    }
+
+    private byte[] capture() {
+        Map<String, byte[]> data = new LinkedHashMap<>();
+        for (Map.Entry<String, Section> entry : sections.entrySet()) {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (DataOutputStream out = new DataOutputStream(bytes)) {
+                if (entry.getValue().write(out)) {
+                    out.flush();
+                    data.put(entry.getKey(), bytes.toByteArray());
+                }
+            } catch (IOException | RuntimeException e) {
+                plugin.getLogger().log(Level.WARNING, "Failed to checkpoint " + entry.getKey(), e);
+            }
+        }
+        // Sections that have not registered yet keep their old state
+        data.putAll(saved);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeLong(System.currentTimeMillis());
+            out.writeInt(data.size());
+            for (Map.Entry<String, byte[]> entry : data.entrySet()) {
+                out.writeUTF(entry.getKey());
+                out.writeInt(entry.getValue().length);
+                out.write(entry.getValue());
+            }
+            out.writeInt(checksum(data));
+        } catch (IOException e) {
+            return null;
+        }
+        return bytes.toByteArray();
+    }
+
+    private void write(byte[] checkpoint) {
+        try {
+            Files.createDirectories(file.getParentFile().toPath());
+            Files.write(tempFile.toPath(), checkpoint);
+            try {
+                Files.move(tempFile.toPath(), file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to write the checkpoint: " + e.getMessage());
+        }
+    }
+
+    private static int checksum(Map<String, byte[]> sections) {
+        CRC32 crc = new CRC32();
+        for (Map.Entry<String, byte[]> entry : sections.entrySet()) {
+            crc.update(entry.getKey().getBytes(StandardCharsets.UTF_8));
+            crc.update(entry.getValue());
+        }
+        return (int) crc.getValue();
+    }
+}
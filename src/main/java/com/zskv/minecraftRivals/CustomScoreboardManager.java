@@ -2,300 +2,397 @@ package com.zskv.minecraftRivals;
 
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
-import net.kyori.adventure.text.format.TextColor;
-import net.kyori.adventure.text.format.TextDecoration;
 import org.bukkit.Bukkit;
-import org.bukkit.ChatColor;
 import org.bukkit.entity.Player;
 import org.bukkit.scheduler.BukkitRunnable;
-import org.bukkit.scoreboard.DisplaySlot;
+import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.scoreboard.Objective;
-import org.bukkit.scoreboard.Score;
 import org.bukkit.scoreboard.Scoreboard;
-import org.bukkit.scoreboard.Team;
 
-import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Manages the sidebar scoreboard display for all players
  * Shows team information and standings
+ * Every player gets their own sidebar so the teammates section is personal
+ * The lines shown come from the active layout in config.yml (see {@link SidebarLayout})
  */
 public class CustomScoreboardManager {
 
     private final MinecraftRivals plugin;
-    private BukkitRunnable updateTask;
     
-    // Custom font key for pixel_uppercase
-    private static final net.kyori.adventure.key.Key PIXEL_FONT = net.kyori.adventure.key.Key.key("minecraft", "pixel_uppercase");
+    private static final Component TITLE = PixelText.text("mc rivals", NamedTextColor.AQUA);
+    
+    // Used when config.yml has no layout with the requested name
+    private static final List<String> DEFAULT_LAYOUT = List.of(
+        "game", "blank", "text:&7leaderboard:", "leaderboard", "blank", "teammates", "blank", "your-points");
+    
+    // Lines that never change, built once
+    private static final Component TEAMMATES_HEADER = PixelText.text("teammates:", NamedTextColor.GRAY);
+    private static final Component NO_TEAMMATES = PixelText.text("  none", NamedTextColor.GRAY);
+    private static final Component NO_TEAM = PixelText.text("teammates: ", NamedTextColor.GRAY)
+        .append(PixelText.text("none", NamedTextColor.RED));
+    private static final Component TEAMMATE_ICON = Component.text("  👤 ");
+
+    // Sidebar per online player (read by the HUD workers), plus released sidebars waiting to be reused
+    private final Map<UUID, ViewerSidebar> sidebars = new ConcurrentHashMap<>();
+    private final Deque<ViewerSidebar> pool = new ArrayDeque<>();
+
+    // Leaderboard lines shared by every sidebar
+    private final StandingsCache standings;
+
+    // Line providers by id, and layouts compiled from config.yml by name
+    private final Map<String, SidebarLayout.Line> lineProviders = new HashMap<>();
+    private final Map<String, SidebarLayout> layouts = new HashMap<>();
+
+    // Tab list column copied onto every viewer's board, null name if none is shown
+    private String playerListName;
+    private Component playerListTitle;
+    private final Map<String, Integer> playerListScores = new HashMap<>();
+    private String activeLayout = "default";
+    
+    // Redraws per-second lines (timers) while the active layout has any
+    private BukkitTask secondTask;
 
     public CustomScoreboardManager(MinecraftRivals plugin) {
         this.plugin = plugin;
+        this.standings = new StandingsCache(plugin, PixelText.PIXEL_FONT);
+        registerDefaultLines();
+        plugin.getTeamPointsIndex().getLeaderboard().addListener(this::onRankChange);
     }
 
+    /**
+     * Attaches sidebars to everyone online
+     * Redraws after that are driven by {@link HudRefresher}
+     */
     public void startUpdating() {
-        int updateInterval = plugin.getConfig().getInt("scoreboard.update-interval", 20);
+        // Older versions drew the sidebar on the main scoreboard, which is saved with the world
+        Objective legacySidebar = plugin.getScoreboard().getObjective("sidebar");
+        if (legacySidebar != null) {
+            legacySidebar.unregister();
+        }
+
+        standings.update();
+
+        // Players already online (e.g. after a reload) need a sidebar too
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            attach(player);
+        }
         
-        updateTask = new BukkitRunnable() {
+        secondTask = new BukkitRunnable() {
             @Override
             public void run() {
-                updateAllScoreboards();
+                SidebarLayout layout = getActiveLayout();
+                if (layout.hasPerSecondLines()) {
+                    layout.tickSecond();
+                    plugin.getHudRefresher().markSidebarsDirty();
+                }
             }
-        };
+        }.runTaskTimer(plugin, 20L, 20L);
         
-        updateTask.runTaskTimer(plugin, 0L, updateInterval);
-        plugin.getLogger().info("Scoreboard manager started with update interval: " + updateInterval + " ticks");
+        plugin.getLogger().info("Scoreboard manager started");
     }
 
     public void stopUpdating() {
-        if (updateTask != null) {
-            updateTask.cancel();
+        if (secondTask != null) {
+            secondTask.cancel();
+            secondTask = null;
         }
+        
+        // Hand everyone back the main scoreboard
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            if (sidebars.containsKey(player.getUniqueId())) {
+                player.setScoreboard(plugin.getScoreboard());
+            }
+        }
+        sidebars.clear();
+        pool.clear();
     }
 
-    private void updateAllScoreboards() {
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            updatePlayerScoreboard(player);
+    public StandingsCache getStandings() {
+        return standings;
+    }
+
+    /**
+     * Announces a team overtaking another one, e.g. "Red overtook Blue for 2nd"
+     * @param change The rank change from the leaderboard
+     */
+    private void onRankChange(Leaderboard.RankChange change) {
+        if (!plugin.getSettings().announceOvertakes()) {
+            return;
         }
+
+        // Moving down means the best team that passed it took its old rank
+        String winner = change.movedUp() ? change.team() : change.passed().get(0);
+        String loser = change.movedUp() ? change.passed().get(0) : change.team();
+        int rank = Math.min(change.oldRank(), change.newRank());
+
+        Component message = teamName(winner)
+            .append(Component.text(" overtook ", NamedTextColor.GRAY))
+            .append(teamName(loser))
+            .append(Component.text(" for " + ordinal(rank) + "!", NamedTextColor.GRAY));
+        Bukkit.broadcast(message);
     }
 
-    public void updatePlayerScoreboard(Player player) {
-        Scoreboard scoreboard = plugin.getScoreboard();
-        
-        // Get or create the sidebar objective with Adventure API
-        Objective objective = scoreboard.getObjective("sidebar");
-        if (objective == null) {
-            Component title = Component.text("mc rivals", NamedTextColor.AQUA)
-                .font(PIXEL_FONT);
-            
-            objective = scoreboard.registerNewObjective("sidebar", "dummy", title);
-            objective.setDisplaySlot(DisplaySlot.SIDEBAR);
+    private Component teamName(String name) {
+        TeamRegistry.TeamInfo team = plugin.getTeamRegistry().get(name);
+        return team != null ? team.displayName() : Component.text(name, NamedTextColor.WHITE);
+    }
+
+    private static String ordinal(int rank) {
+        if (rank % 100 >= 11 && rank % 100 <= 13) {
+            return rank + "th";
+        }
+        return switch (rank % 10) {
+            case 1 -> rank + "st";
+            case 2 -> rank + "nd";
+            case 3 -> rank + "rd";
+            default -> rank + "th";
+        };
+    }
+
+    /**
+     * Recalculates team totals once for all viewers
+     * @return true if the standings changed
+     */
+    public boolean updateStandings() {
+        long version = standings.getVersion();
+        standings.update();
+        invalidateLine("your-points");
+        if (standings.getVersion() != version) {
+            invalidateLine("leaderboard");
+            return true;
         }
+        return false;
+    }
 
-        // Clear existing scores
-        for (String entry : scoreboard.getEntries()) {
-            if (objective.getScore(entry).isScoreSet()) {
-                scoreboard.resetScores(entry);
+    /**
+     * Gives a player their own sidebar, reusing a pooled one when available
+     * @param player The player who joined
+     */
+    public void attach(Player player) {
+        ViewerSidebar sidebar = sidebars.get(player.getUniqueId());
+        if (sidebar == null) {
+            sidebar = pool.poll();
+            if (sidebar == null) {
+                sidebar = new ViewerSidebar(Bukkit.getScoreboardManager().getNewScoreboard(), TITLE);
             }
+            sidebars.put(player.getUniqueId(), sidebar);
         }
 
-        // Build scoreboard content
-        int line = 15;
-        int invisibleIndex = 0;
-        
-        // Get current game number from config
-        int currentGame = plugin.getConfig().getInt("game.current-game", 1);
-        int totalGames = plugin.getConfig().getInt("game.total-games", 6);
-        
-        // Game number with custom font
-        Component gameComponent = Component.text("game ", NamedTextColor.GRAY)
-            .append(Component.text(currentGame, NamedTextColor.WHITE))
-            .append(Component.text("/", NamedTextColor.GRAY))
-            .append(Component.text(totalGames, NamedTextColor.WHITE))
-            .font(PIXEL_FONT);
-        setScore(objective, gameComponent, line--);
-        
-        // Empty line
-        setScore(objective, Component.empty(), line--);
-        
-        // Leaderboard header with custom font
-        Component leaderboardHeader = Component.text("leaderboard:", NamedTextColor.GRAY)
-            .font(PIXEL_FONT);
-        setScore(objective, leaderboardHeader, line--);
-        
-        // Get all teams with their scores and sort by points (top 8)
-        List<TeamScore> teamScores = getTeamScores(scoreboard);
-        int position = 1;
-        for (TeamScore teamScore : teamScores) {
-            if (position > 8) break; // Only show top 8
-            Team team = teamScore.team;
-            int points = teamScore.points;
-            TextColor teamColor = chatColorToTextColor(team.getColor());
-            
-            // Team entry with custom font
-            Component teamEntry = Component.text(position + ". ", NamedTextColor.WHITE)
-                .append(Component.text(team.getDisplayName().toLowerCase(), teamColor))
-                .append(Component.text(" - ", NamedTextColor.GRAY))
-                .append(Component.text(points, NamedTextColor.WHITE))
-                .font(PIXEL_FONT);
-            setScore(objective, teamEntry, line--);
-            position++;
-            
-            if (line < 1) break; // Scoreboard line limit
+        sidebar.syncTeams(plugin.getScoreboard());
+        if (playerListName != null) {
+            sidebar.showPlayerList(playerListName, playerListTitle, playerListScores);
         }
-        
-        // Empty line
-        setScore(objective, Component.empty(), line--);
-        
-        // Teammates section with custom font
-        Team playerTeam = scoreboard.getEntryTeam(player.getName());
-        if (playerTeam != null) {
-            Component teammatesHeader = Component.text("teammates:", NamedTextColor.GRAY)
-                .font(PIXEL_FONT);
-            setScore(objective, teammatesHeader, line--);
-            
-            // Get teammates (excluding the player themselves)
-            List<String> teammates = new ArrayList<>();
-            for (String entry : playerTeam.getEntries()) {
-                if (!entry.equals(player.getName())) {
-                    teammates.add(entry);
-                }
-            }
-            
-            if (teammates.isEmpty()) {
-                Component noneComponent = Component.text("  none", NamedTextColor.GRAY)
-                    .font(PIXEL_FONT);
-                setScore(objective, noneComponent, line--);
-            } else {
-                // Show all teammates with custom font (emoji in default font, name in custom font)
-                TextColor teamColor = chatColorToTextColor(playerTeam.getColor());
-                for (String teammate : teammates) {
-                    Component teammateComponent = Component.text("  👤 ")
-                        .append(Component.text(teammate.toLowerCase(), teamColor).font(PIXEL_FONT));
-                    setScore(objective, teammateComponent, line--);
-                    if (line < 1) break;
-                }
-            }
-        } else {
-            Component noTeamComponent = Component.text("teammates: ", NamedTextColor.GRAY)
-                .append(Component.text("none", NamedTextColor.RED))
-                .font(PIXEL_FONT);
-            setScore(objective, noTeamComponent, line--);
+        player.setScoreboard(sidebar.getScoreboard());
+        plugin.getHudRefresher().markSidebarDirty(player);
+    }
+
+    /**
+     * Returns a player's sidebar to the pool
+     * @param player The player who left
+     */
+    public void detach(Player player) {
+        ViewerSidebar sidebar = sidebars.remove(player.getUniqueId());
+        if (sidebar != null) {
+            sidebar.clear();
+            pool.push(sidebar);
         }
-        
-        // Empty line
-        setScore(objective, Component.empty(), line--);
-        
-        // Individual points with custom font
-        Component pointsComponent = Component.text("your points: ", NamedTextColor.GRAY)
-            .append(Component.text("n/a", NamedTextColor.WHITE))
-            .font(PIXEL_FONT);
-        setScore(objective, pointsComponent, line--);
     }
-    
+
     /**
-     * Generates a unique invisible string for scoreboard entries
-     * Uses color codes to create unique but invisible entries
-     * @param index The index to generate a unique string for
-     * @return A unique invisible string
+     * Copies team membership from the main scoreboard to every viewer's sidebar
+     * Call this when a player joins or leaves a team
      */
-    private String getInvisibleString(int index) {
-        // Use color reset codes to create unique invisible strings
-        // Each index gets a different number of color codes
-        StringBuilder sb = new StringBuilder();
-        for (int i = 0; i <= index; i++) {
-            sb.append("§r");
+    public void syncTeams() {
+        Scoreboard scoreboard = plugin.getScoreboard();
+        for (ViewerSidebar sidebar : sidebars.values()) {
+            sidebar.syncTeams(scoreboard);
         }
-        return sb.toString();
+        invalidateLine("leaderboard");
+        invalidateLine("teammates");
     }
-    
+
     /**
-     * Gets all team scores sorted by points (highest first)
-     * Shows all teams even if they have no members
-     * @param scoreboard The scoreboard to get teams from
-     * @return List of team scores
+     * Shows a score column in every viewer's tab list, e.g. a minigame's points
+     * Players see their own board, so a PLAYER_LIST objective on the main
+     * scoreboard would never reach them
+     * @param name The objective name
+     * @param title The column title
      */
-    private List<TeamScore> getTeamScores(Scoreboard scoreboard) {
-        List<TeamScore> scores = new ArrayList<>();
-        List<String> visibleTeams = plugin.getConfig().getStringList("teams.visible");
-        
-        for (String teamName : visibleTeams) {
-            Team team = scoreboard.getTeam(teamName);
-            if (team != null) {
-                int points = getTeamPoints(team, scoreboard);
-                scores.add(new TeamScore(team, points));
-            }
+    public void showPlayerList(String name, Component title) {
+        playerListName = name;
+        playerListTitle = title;
+        playerListScores.clear();
+        for (ViewerSidebar sidebar : sidebars.values()) {
+            sidebar.showPlayerList(name, title, playerListScores);
         }
-        
-        // Sort by points (descending)
-        scores.sort((a, b) -> Integer.compare(b.points, a.points));
-        
-        return scores;
     }
-    
+
     /**
-     * Calculates total points for a team
-     * @param team The team to calculate points for
-     * @param scoreboard The scoreboard to get points from
-     * @return Total points
+     * Sets a score in the tab list column on every viewer's board
+     * @param entry The scoreboard entry
      */
-    private int getTeamPoints(Team team, Scoreboard scoreboard) {
-        int totalPoints = 0;
-        Objective pointsObj = scoreboard.getObjective("points");
-        
-        if (pointsObj != null) {
-            for (String entry : team.getEntries()) {
-                Score score = pointsObj.getScore(entry);
-                if (score.isScoreSet()) {
-                    totalPoints += score.getScore();
-                }
-            }
+    public void setPlayerListScore(String entry, int score) {
+        if (playerListName == null) {
+            return;
         }
+        Integer previous = playerListScores.put(entry, score);
+        if (previous != null && previous == score) {
+            return;
+        }
+        for (ViewerSidebar sidebar : sidebars.values()) {
+            sidebar.setPlayerListScore(entry, score);
+        }
+    }
+
+    /**
+     * Removes the tab list column from every viewer's board
+     */
+    public void hidePlayerList() {
+        playerListName = null;
+        playerListTitle = null;
+        playerListScores.clear();
+        for (ViewerSidebar sidebar : sidebars.values()) {
+            sidebar.hidePlayerList();
+        }
+    }
+
+    /**
+     * Renders a viewer's sidebar lines from a snapshot, on a HUD worker
+     * @param snapshot The state to render
+     * @param viewer The player who will see the lines
+     * @return The lines, or null if the viewer has no sidebar
+     */
+    List<Component> renderSidebar(HudSnapshot snapshot, HudSnapshot.Viewer viewer) {
+        ViewerSidebar sidebar = sidebars.get(viewer.uuid());
+        if (sidebar == null) {
+            return null;
+        }
+
+        // Only lines that changed since this viewer's last render are rebuilt
+        List<Component> lines = snapshot.getLayout().render(snapshot, viewer, sidebar);
         
-        return totalPoints;
+        // Scoreboard line limit - drop lines above the last two so the points line stays visible
+        if (lines.size() > ViewerSidebar.MAX_LINES) {
+            lines.subList(ViewerSidebar.MAX_LINES - 2, lines.size() - 2).clear();
+        }
+        return lines;
+    }
+
+    /**
+     * Sends rendered lines to a viewer's sidebar, on the main thread
+     * @param viewer The viewer's UUID
+     * @param lines The lines from {@link #renderSidebar}
+     */
+    void applySidebar(UUID viewer, List<Component> lines) {
+        ViewerSidebar sidebar = sidebars.get(viewer);
+        if (sidebar != null) {
+            sidebar.render(lines);
+        }
     }
 
-    private void setScore(Objective objective, String text, int score) {
-        Score s = objective.getScore(text);
-        s.setScore(score);
+    /**
+     * Registers a block of sidebar lines that layouts can refer to by id
+     * Minigames register their own lines (timers, team progress) this way
+     * @param id The id used in config.yml layouts
+     * @param refresh When the lines have to be rendered again
+     * @param provider Renders the lines for a viewer
+     */
+    public void registerLineProvider(String id, SidebarLineProvider.Refresh refresh, SidebarLineProvider provider) {
+        lineProviders.put(id, new SidebarLayout.Line(id, refresh, provider));
+        // Layouts hold the providers they were compiled with
+        layouts.clear();
     }
-    
+
     /**
-     * Sets a score with a custom Component (supports custom fonts and colors)
-     * @param objective The objective to set the score on
-     * @param component The component to display
-     * @param score The score value (line number)
+     * Marks an on-change line as changed, so it is rendered again on the next redraw
+     * The caller still has to request the redraw (see {@link HudRefresher})
+     * @param id The provider id
      */
-    private void setScore(Objective objective, Component component, int score) {
-        // Use a unique invisible string as the score entry
-        String entry = getInvisibleString(score);
-        Score s = objective.getScore(entry);
-        s.customName(component);
-        s.setScore(score);
+    public void invalidateLine(String id) {
+        SidebarLayout.Line line = lineProviders.get(id);
+        if (line != null) {
+            line.version++;
+        }
     }
-    
+
     /**
-     * Converts Bukkit ChatColor to Adventure TextColor
-     * @param chatColor The ChatColor to convert
-     * @return Corresponding Adventure TextColor
+     * Switches every sidebar to another layout from config.yml
+     * @param name The layout name under scoreboard.layouts
      */
-    private TextColor chatColorToTextColor(ChatColor chatColor) {
-        if (chatColor == null) {
-            return NamedTextColor.WHITE;
+    public void setLayout(String name) {
+        if (!name.equals(activeLayout)) {
+            activeLayout = name;
+            plugin.getHudRefresher().markSidebarsDirty();
         }
-        
-        return switch (chatColor) {
-            case BLACK -> NamedTextColor.BLACK;
-            case DARK_BLUE -> NamedTextColor.DARK_BLUE;
-            case DARK_GREEN -> NamedTextColor.DARK_GREEN;
-            case DARK_AQUA -> NamedTextColor.DARK_AQUA;
-            case DARK_RED -> NamedTextColor.DARK_RED;
-            case DARK_PURPLE -> NamedTextColor.DARK_PURPLE;
-            case GOLD -> NamedTextColor.GOLD;
-            case GRAY -> NamedTextColor.GRAY;
-            case DARK_GRAY -> NamedTextColor.DARK_GRAY;
-            case BLUE -> NamedTextColor.BLUE;
-            case GREEN -> NamedTextColor.GREEN;
-            case AQUA -> NamedTextColor.AQUA;
-            case RED -> NamedTextColor.RED;
-            case LIGHT_PURPLE -> NamedTextColor.LIGHT_PURPLE;
-            case YELLOW -> NamedTextColor.YELLOW;
-            case WHITE -> NamedTextColor.WHITE;
-            default -> NamedTextColor.WHITE;
-        };
     }
-    
+
     /**
-     * Helper class to store team scores
+     * Recompiles the layouts from config.yml, e.g. after /mcr reload
      */
-    private static class TeamScore {
-        final Team team;
-        final int points;
+    public void reloadLayouts() {
+        layouts.clear();
+    }
+
+    SidebarLayout getActiveLayout() {
+        return layouts.computeIfAbsent(activeLayout, name -> {
+            List<String> entries = plugin.getSettings().layout(name);
+            if (entries == null) {
+                entries = DEFAULT_LAYOUT;
+            }
+            return SidebarLayout.compile(name, entries, lineProviders, plugin.getLogger());
+        });
+    }
+
+    /**
+     * Registers the lines every layout can use
+     */
+    private void registerDefaultLines() {
+        // Game number, changed with /mcr setgame
+        registerLineProvider("game", SidebarLineProvider.Refresh.ON_CHANGE, (snapshot, viewer, lines) ->
+            lines.add(Component.text("game ", NamedTextColor.GRAY)
+                .append(Component.text(snapshot.getCurrentGame(), NamedTextColor.WHITE))
+                .append(Component.text("/", NamedTextColor.GRAY))
+                .append(Component.text(snapshot.getTotalGames(), NamedTextColor.WHITE))
+                .font(PixelText.PIXEL_FONT)));
         
-        TeamScore(Team team, int points) {
-            this.team = team;
-            this.points = points;
-        }
+        // Top 8 teams, rendered once and shared by every viewer
+        registerLineProvider("leaderboard", SidebarLineProvider.Refresh.ON_CHANGE,
+            (snapshot, viewer, lines) -> lines.addAll(standings.getLines(snapshot)));
+        
+        // Teammates section (excluding the viewer themselves)
+        registerLineProvider("teammates", SidebarLineProvider.Refresh.ON_CHANGE, (snapshot, viewer, lines) -> {
+            HudSnapshot.TeamState playerTeam = snapshot.getTeam(viewer);
+            if (playerTeam == null) {
+                lines.add(NO_TEAM);
+                return;
+            }
+            
+            lines.add(TEAMMATES_HEADER);
+            boolean hasTeammates = false;
+            for (String entry : playerTeam.entries()) {
+                if (!entry.equals(viewer.name())) {
+                    // Emoji in default font, name in custom font
+                    lines.add(TEAMMATE_ICON.append(PixelText.name(entry, playerTeam.color())));
+                    hasTeammates = true;
+                }
+            }
+            if (!hasTeammates) {
+                lines.add(NO_TEAMMATES);
+            }
+        });
+        
+        // Individual points
+        registerLineProvider("your-points", SidebarLineProvider.Refresh.ON_CHANGE, (snapshot, viewer, lines) ->
+            lines.add(Component.text("your points: ", NamedTextColor.GRAY)
+                .append(Component.text(viewer.points(), NamedTextColor.WHITE))
+                .font(PixelText.PIXEL_FONT)));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,103 @@
+package com.zskv.minecraftRivals;
+
+import com.destroystokyo.paper.event.server.ServerTickEndEvent;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.logging.Level;
+
+/**
+ * Passes {@link RivalsEvent}s between managers without them calling each other
+ * Events posted during a tick are queued and delivered when the tick ends
+ * Every subscriber gets all events of its type from that tick as one batch,
+ * so a burst of serves or point changes is handled once
+ * Main thread only
+ */
+public class EventBus implements Listener {
+
+    // Rounds of events posted by subscribers delivered in one flush, the rest wait a tick
+    private static final int MAX_ROUNDS = 8;
+
+    private final MinecraftRivals plugin;
+
+    private final Map<Class<? extends RivalsEvent>, List<Consumer<List<RivalsEvent>>>> subscribers = new HashMap<>();
+    private List<RivalsEvent> queue = new ArrayList<>();
+    private boolean dispatching;
+
+    public EventBus(MinecraftRivals plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Receives every event of a type, once per tick, in the order they were posted
+     * @param type The event type
+     * @param subscriber Called on the main thread with the tick's events, never empty
+     */
+    @SuppressWarnings("unchecked")
+    public <E extends RivalsEvent> void subscribe(Class<E> type, Consumer<List<E>> subscriber) {
+        subscribers.computeIfAbsent(type, key -> new ArrayList<>())
+            .add(events -> subscriber.accept((List<E>) (List<?>) events));
+    }
+
+    /**
+     * Queues an event for the end of the tick
+     */
+    public void post(RivalsEvent event) {
+        queue.add(event);
+    }
+
+    @EventHandler
+    public void onTickEnd(ServerTickEndEvent event) {
+        flush();
+    }
+
+    /**
+     * Delivers queued events now, e.g. before a replay file is closed or on shutdown
+     * Does nothing when called by a subscriber, its events are then being delivered
+     */
+    public void flush() {
+        if (dispatching || queue.isEmpty()) {
+            return;
+        }
+        dispatching = true;
+        try {
+            for (int round = 0; round < MAX_ROUNDS && !queue.isEmpty(); round++) {
+                List<RivalsEvent> batch = queue;
+                queue = new ArrayList<>();
+                dispatch(batch);
+            }
+        } finally {
+            dispatching = false;
+        }
+    }
+
+    private void dispatch(List<RivalsEvent> batch) {
+        // Grouped by type, types in the order they were first posted
+        Map<Class<? extends RivalsEvent>, List<RivalsEvent>> byType = new LinkedHashMap<>();
+        for (RivalsEvent event : batch) {
+            byType.computeIfAbsent(event.getClass(), key -> new ArrayList<>()).add(event);
+        }
+
+        for (Map.Entry<Class<? extends RivalsEvent>, List<RivalsEvent>> entry : byType.entrySet()) {
+            List<Consumer<List<RivalsEvent>>> handlers = subscribers.get(entry.getKey());
+            if (handlers == null) {
+                continue;
+            }
+            List<RivalsEvent> events = Collections.unmodifiableList(entry.getValue());
+            for (Consumer<List<RivalsEvent>> handler : handlers) {
+                try {
+                    handler.accept(events);
+                } catch (RuntimeException e) {
+                    plugin.getLogger().log(Level.WARNING, "Failed to handle " + entry.getKey().getSimpleName(), e);
+                }
+            }
+        }
+    }
+}
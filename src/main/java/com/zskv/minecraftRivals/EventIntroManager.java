@@ -4,12 +4,10 @@ import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.JoinConfiguration;
 import net.kyori.adventure.text.TextComponent;
 import net.kyori.adventure.text.format.NamedTextColor;
-import net.kyori.adventure.text.format.TextColor;
 import net.kyori.adventure.text.format.TextDecoration;
 import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
 import net.kyori.adventure.title.Title;
 import org.bukkit.Bukkit;
-import org.bukkit.ChatColor;
 import org.bukkit.Color;
 import org.bukkit.FireworkEffect;
 import org.bukkit.GameMode;
@@ -43,6 +41,9 @@ import org.bukkit.scoreboard.Scoreboard;
 import org.bukkit.scoreboard.Team;
 import org.jetbrains.annotations.NotNull;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -72,6 +73,8 @@ public class EventIntroManager implements Listener {
     private static final int VOTING_COUNTDOWN_SECONDS = 30;
 
     private final MinecraftRivals plugin;
+    // Registered only during a ready check or the intro itself
+    private final ActiveListener introListener;
 
     private final Map<UUID, GameMode> originalGameModes = new HashMap<>();
     private final Set<UUID> cameraLockedPlayers = new HashSet<>();
@@ -92,6 +95,7 @@ public class EventIntroManager implements Listener {
     private boolean running;
     private boolean gatheringReadiness;
     private EventPhase currentPhase = EventPhase.NONE;
+    private int currentTeamIndex;
 
     private Location spectatorLocation;
     private Location teamIntroLocation;
@@ -107,7 +111,20 @@ public class EventIntroManager implements Listener {
 
     public EventIntroManager(MinecraftRivals plugin) {
         this.plugin = plugin;
-        Bukkit.getPluginManager().registerEvents(this, plugin);
+        this.introListener = new ActiveListener(plugin, this);
+
+        // Resumes an intro that was running when the server stopped
+        plugin.getCheckpointStore().register("intro", new CheckpointStore.Section() {
+            @Override
+            public boolean write(DataOutputStream out) throws IOException {
+                return writeCheckpoint(out);
+            }
+
+            @Override
+            public void resume(DataInputStream in) throws IOException {
+                resumeFromCheckpoint(in);
+            }
+        });
     }
 
     /**
@@ -133,9 +150,7 @@ public class EventIntroManager implements Listener {
             return false;
         }
 
-        spectatorLocation = new Location(lobbyWorld, 0.5, -24, 20.5, 180f, 0f);
-        teamIntroLocation = new Location(lobbyWorld, -2.5, -22, 29.5, -180f, 0f);
-        fireworkCenter = new Location(lobbyWorld, 51, -21, 60);
+        initializeLocations(lobbyWorld);
 
         cameraSheep = locateCameraSheep();
         if (cameraSheep == null) {
@@ -162,6 +177,7 @@ public class EventIntroManager implements Listener {
         }
 
         gatheringReadiness = true;
+        introListener.register();
         
         initializeReadyState();
         
@@ -188,10 +204,26 @@ public class EventIntroManager implements Listener {
         return true;
     }
 
+    private void initializeLocations(World lobbyWorld) {
+        spectatorLocation = new Location(lobbyWorld, 0.5, -24, 20.5, 180f, 0f);
+        teamIntroLocation = new Location(lobbyWorld, -2.5, -22, 29.5, -180f, 0f);
+        fireworkCenter = new Location(lobbyWorld, 51, -21, 60);
+    }
+
     private void beginIntroSequence() {
         gatheringReadiness = false;
         running = true;
+        plugin.getReplayRecorder().startRound("intro");
         beginInitialCountdown();
+        plugin.getCheckpointStore().save();
+    }
+
+    /**
+     * Moves to a phase and posts it, for the replay.
+     */
+    private void enterPhase(EventPhase phase) {
+        currentPhase = phase;
+        plugin.getEventBus().post(new RivalsEvent.PhaseChanged("intro", phase.name().toLowerCase()));
     }
 
     /**
@@ -204,6 +236,7 @@ public class EventIntroManager implements Listener {
 
         running = false;
         gatheringReadiness = false;
+        introListener.unregister();
         currentPhase = EventPhase.NONE;
 
         cancelActiveTask();
@@ -229,6 +262,108 @@ public class EventIntroManager implements Listener {
         teamIntroLocation = null;
         fireworkCenter = null;
         participants.clear();
+        plugin.getReplayRecorder().endRound("intro");
+        plugin.getCheckpointStore().save();
+    }
+
+    /**
+     * Stops the sequence for a server shutdown without restoring players.
+     * It resumes from the checkpoint taken just before, ready checks are cancelled.
+     */
+    public synchronized void suspend() {
+        if (!running) {
+            shutdown();
+            return;
+        }
+
+        running = false;
+        introListener.unregister();
+        currentPhase = EventPhase.NONE;
+
+        cancelActiveTask();
+        stopCameraLockTask();
+        stopFireworkTask();
+        hideBossBar();
+
+        cameraLockedPlayers.clear();
+        originalGameModes.clear();
+        participants.clear();
+        cameraSheep = null;
+        spectatorLocation = null;
+        teamIntroLocation = null;
+        fireworkCenter = null;
+        plugin.getEventBus().post(new RivalsEvent.PhaseChanged("intro", "suspended"));
+        plugin.getReplayRecorder().endRound("intro");
+    }
+
+    /**
+     * Saves the phase, the team being introduced and who takes part.
+     */
+    private boolean writeCheckpoint(DataOutputStream out) throws IOException {
+        if (!running || currentPhase == EventPhase.NONE) {
+            return false;
+        }
+
+        out.writeUTF(currentPhase.name());
+        out.writeInt(currentTeamIndex);
+        out.writeInt(participants.size());
+        for (UUID uuid : participants) {
+            GameMode mode = originalGameModes.get(uuid);
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+            out.writeUTF(mode != null ? mode.name() : "");
+        }
+        return true;
+    }
+
+    /**
+     * Restarts the phase the intro was in, team intros continue with the team that was on stage.
+     */
+    private synchronized void resumeFromCheckpoint(DataInputStream in) throws IOException {
+        EventPhase phase = EventPhase.valueOf(in.readUTF());
+        int teamIndex = in.readInt();
+        int count = in.readInt();
+        participants.clear();
+        originalGameModes.clear();
+        for (int i = 0; i < count; i++) {
+            UUID uuid = new UUID(in.readLong(), in.readLong());
+            String mode = in.readUTF();
+            participants.add(uuid);
+            if (!mode.isEmpty()) {
+                originalGameModes.put(uuid, GameMode.valueOf(mode));
+            }
+        }
+
+        World lobbyWorld = Bukkit.getWorld("Lobby");
+        if (lobbyWorld == null) {
+            plugin.getLogger().warning("World 'Lobby' is not loaded, the event intro can't be resumed");
+            participants.clear();
+            originalGameModes.clear();
+            return;
+        }
+
+        initializeLocations(lobbyWorld);
+        cameraSheep = locateCameraSheep();
+        running = true;
+        introListener.register();
+        plugin.getReplayRecorder().startRound("intro");
+
+        switch (phase) {
+            case COUNTDOWN -> beginInitialCountdown();
+            case PRESHOW -> beginPreshow();
+            case TEAM_INTROS -> {
+                if (cameraSheep != null && cameraSheep.isValid()) {
+                    startCameraLockTask();
+                    beginTeamIntroductions(teamIndex);
+                } else {
+                    // The camera's chunk may not be loaded yet, skip ahead rather than cancel
+                    plugin.getLogger().warning("Camera sheep not found, resuming the intro at the voting countdown");
+                    startVotingCountdown();
+                }
+            }
+            default -> startVotingCountdown();
+        }
+        plugin.getLogger().info("Resumed the event intro at " + phase.name().toLowerCase());
     }
 
     public boolean isRunning() {
@@ -236,7 +371,7 @@ public class EventIntroManager implements Listener {
     }
 
     private void beginInitialCountdown() {
-        currentPhase = EventPhase.COUNTDOWN;
+        enterPhase(EventPhase.COUNTDOWN);
         showBossBar(Component.text("Event intro begins soon", NamedTextColor.GOLD));
         
         // Start fireworks display immediately
@@ -279,7 +414,7 @@ public class EventIntroManager implements Listener {
     }
     
     private void beginPreshow() {
-        currentPhase = EventPhase.PRESHOW;
+        enterPhase(EventPhase.PRESHOW);
         showBossBar(Component.text("Pre-show starting!", NamedTextColor.AQUA));
         
         // Continue fireworks during preshow
@@ -359,17 +494,16 @@ public class EventIntroManager implements Listener {
         }
 
         startCameraLockTask();
-        beginTeamIntroductions();
+        beginTeamIntroductions(0);
     }
 
-    private void beginTeamIntroductions() {
-        currentPhase = EventPhase.TEAM_INTROS;
+    private void beginTeamIntroductions(int startIndex) {
+        enterPhase(EventPhase.TEAM_INTROS);
         Scoreboard scoreboard = plugin.getScoreboard();
-        List<String> visibleTeams = plugin.getConfig().getStringList("teams.visible");
 
-        List<Team> teams = visibleTeams.stream()
-            .map(scoreboard::getTeam)
-            .filter(Objects::nonNull)
+        // Colors come from the registry, members from the scoreboard
+        List<TeamRegistry.TeamInfo> teams = plugin.getTeamRegistry().getVisibleTeams().stream()
+            .filter(info -> scoreboard.getTeam(info.name()) != null)
             .limit(8)
             .collect(Collectors.toList());
 
@@ -379,10 +513,10 @@ public class EventIntroManager implements Listener {
             return;
         }
 
-        presentTeamSequentially(teams, 0);
+        presentTeamSequentially(teams, startIndex);
     }
 
-    private void presentTeamSequentially(List<Team> teams, int index) {
+    private void presentTeamSequentially(List<TeamRegistry.TeamInfo> teams, int index) {
         if (!running) {
             return;
         }
@@ -392,7 +526,15 @@ public class EventIntroManager implements Listener {
             return;
         }
 
-        Team team = teams.get(index);
+        currentTeamIndex = index;
+        TeamRegistry.TeamInfo info = teams.get(index);
+        Team team = plugin.getScoreboard().getTeam(info.name());
+        if (team == null) {
+            // Removed with /team since the intros started
+            presentTeamSequentially(teams, index + 1);
+            return;
+        }
+        plugin.getEventBus().post(new RivalsEvent.PhaseChanged("intro", "introducing " + team.getName()));
         List<Player> onlineMembers = team.getEntries().stream()
             .map(Bukkit::getPlayerExact)
             .filter(Objects::nonNull)
@@ -410,7 +552,7 @@ public class EventIntroManager implements Listener {
             member.teleport(teamIntroLocation);
         }
 
-        Component title = Component.text(team.getDisplayName(), toTextColor(team.getColor()))
+        Component title = Component.text(team.getDisplayName(), info.textColor())
             .decorate(net.kyori.adventure.text.format.TextDecoration.BOLD);
         Component subtitle = buildTeamSubtitle(onlineMembers, offlineMembers);
         Title.Times times = Title.Times.times(Duration.ofMillis(200), Duration.ofSeconds(2), Duration.ofMillis(200));
@@ -420,10 +562,10 @@ public class EventIntroManager implements Listener {
             .filter(Objects::nonNull)
             .forEach(player -> player.showTitle(Title.title(title, subtitle, times)));
 
-        showBossBar(Component.text("Introducing " + team.getDisplayName(), toTextColor(team.getColor())));
+        showBossBar(Component.text("Introducing " + team.getDisplayName(), info.textColor()));
         
         // Start team-colored fireworks in N pattern
-        startTeamFireworks(team);
+        startTeamFireworks(info);
         
         cancelActiveTask();
         activeTask = new BukkitRunnable() {
@@ -440,7 +582,7 @@ public class EventIntroManager implements Listener {
                 updateBossBar(
                     Component.text(
                         team.getDisplayName() + " spotlight: " + secondsRemaining + "s",
-                        toTextColor(team.getColor())
+                        info.textColor()
                     ),
                     (double) secondsRemaining / TEAM_INTRO_SECONDS
                 );
@@ -449,7 +591,7 @@ public class EventIntroManager implements Listener {
                     cancel();
                     stopFireworkTask();
                     hideBossBar();
-                    wrapTeamIntro(team, onlineMembers, offlineMembers);
+                    wrapTeamIntro(team, info, onlineMembers, offlineMembers);
                     presentTeamSequentially(teams, index + 1);
                 }
 
@@ -458,7 +600,7 @@ public class EventIntroManager implements Listener {
         }.runTaskTimer(plugin, 0L, 20L);
     }
 
-    private void wrapTeamIntro(Team team, List<Player> members, List<String> offlineMembers) {
+    private void wrapTeamIntro(Team team, TeamRegistry.TeamInfo info, List<Player> members, List<String> offlineMembers) {
         for (Player member : members) {
             if (cameraSheep != null && cameraSheep.isValid()) {
                 member.teleport(spectatorLocation);
@@ -473,11 +615,11 @@ public class EventIntroManager implements Listener {
             cameraLockedPlayers.remove(uuid);
         }
 
-        broadcast(Component.text(team.getDisplayName() + " intro complete!", toTextColor(team.getColor())));
+        broadcast(Component.text(team.getDisplayName() + " intro complete!", info.textColor()));
     }
 
     private void startVotingCountdown() {
-        currentPhase = EventPhase.VOTING_COUNTDOWN;
+        enterPhase(EventPhase.VOTING_COUNTDOWN);
         showBossBar(Component.text("Voting begins shortly", NamedTextColor.GREEN));
 
         cancelActiveTask();
@@ -834,13 +976,13 @@ public class EventIntroManager implements Listener {
         Bukkit.getScheduler().runTaskLater(plugin, firework::detonate, 1L);
     }
     
-    private void startTeamFireworks(Team team) {
+    private void startTeamFireworks(TeamRegistry.TeamInfo team) {
         World lobbyWorld = Bukkit.getWorld("Lobby");
         if (lobbyWorld == null) {
             return;
         }
         
-        Color teamColor = chatColorToBukkitColor(team.getColor());
+        Color teamColor = team.fireworkColor();
         
         // Define the upside-down U-shaped pattern positions (∩ shape)
         // Pattern visualization:
@@ -958,28 +1100,6 @@ public class EventIntroManager implements Listener {
         Bukkit.getScheduler().runTaskLater(plugin, firework::detonate, 1L);
     }
     
-    private Color chatColorToBukkitColor(ChatColor chatColor) {
-        return switch (chatColor) {
-            case DARK_RED -> Color.fromRGB(170, 0, 0);
-            case RED -> Color.fromRGB(255, 85, 85);
-            case GOLD -> Color.fromRGB(255, 170, 0);
-            case YELLOW -> Color.fromRGB(255, 255, 85);
-            case DARK_GREEN -> Color.fromRGB(0, 170, 0);
-            case GREEN -> Color.fromRGB(85, 255, 85);
-            case AQUA -> Color.fromRGB(85, 255, 255);
-            case DARK_AQUA -> Color.fromRGB(0, 170, 170);
-            case DARK_BLUE -> Color.fromRGB(0, 0, 170);
-            case BLUE -> Color.fromRGB(85, 85, 255);
-            case LIGHT_PURPLE -> Color.fromRGB(255, 85, 255);
-            case DARK_PURPLE -> Color.fromRGB(170, 0, 170);
-            case WHITE -> Color.WHITE;
-            case GRAY -> Color.GRAY;
-            case DARK_GRAY -> Color.fromRGB(85, 85, 85);
-            case BLACK -> Color.BLACK;
-            default -> Color.WHITE;
-        };
-    }
-
     private void cancelActiveTask() {
         if (activeTask != null) {
             activeTask.cancel();
@@ -1019,35 +1139,13 @@ public class EventIntroManager implements Listener {
         return null;
     }
 
-    private TextColor toTextColor(org.bukkit.ChatColor chatColor) {
-        return switch (chatColor) {
-            case BLACK -> NamedTextColor.BLACK;
-            case DARK_BLUE -> NamedTextColor.DARK_BLUE;
-            case DARK_GREEN -> NamedTextColor.DARK_GREEN;
-            case DARK_AQUA -> NamedTextColor.DARK_AQUA;
-            case DARK_RED -> NamedTextColor.DARK_RED;
-            case DARK_PURPLE -> NamedTextColor.DARK_PURPLE;
-            case GOLD -> NamedTextColor.GOLD;
-            case GRAY -> NamedTextColor.GRAY;
-            case DARK_GRAY -> NamedTextColor.DARK_GRAY;
-            case BLUE -> NamedTextColor.BLUE;
-            case GREEN -> NamedTextColor.GREEN;
-            case AQUA -> NamedTextColor.AQUA;
-            case RED -> NamedTextColor.RED;
-            case LIGHT_PURPLE -> NamedTextColor.LIGHT_PURPLE;
-            case YELLOW -> NamedTextColor.YELLOW;
-            case WHITE -> NamedTextColor.WHITE;
-            default -> NamedTextColor.WHITE;
-        };
-    }
-
     // ========== Ready Check System ==========
 
     private BukkitTask readyReminderTask;
 
     private void initializeReadyState() {
         Scoreboard scoreboard = plugin.getScoreboard();
-        List<String> visibleTeams = plugin.getConfig().getStringList("teams.visible");
+        List<String> visibleTeams = plugin.getSettings().visibleTeams();
 
         for (String teamName : visibleTeams) {
             Team team = scoreboard.getTeam(teamName);
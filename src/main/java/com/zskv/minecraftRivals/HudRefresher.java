@@ -0,0 +1,245 @@
+package com.zskv.minecraftRivals;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.function.Supplier;
+import java.util.logging.Level;
+
+/**
+ * Collects change notifications for the sidebar and tablist
+ * Anything marked dirty during a tick is rendered once on the next tick,
+ * so a burst of joins or team changes costs a single refresh
+ * A refresh captures a {@link HudSnapshot} on the main thread, renders every
+ * viewer's components on the HUD worker pool and hands the result back to the
+ * main thread, which only applies it
+ */
+public class HudRefresher {
+
+    private final MinecraftRivals plugin;
+
+    private boolean teamsChanged;
+    private boolean pointsChanged;
+    private boolean sidebarsDirty;
+    private boolean tablistsDirty;
+    private final Set<UUID> dirtySidebars = new HashSet<>();
+
+    private BukkitTask pendingFlush;
+
+    // Extra snapshot values from minigames (main thread only)
+    private final Map<String, Supplier<?>> snapshotSources = new LinkedHashMap<>();
+
+    // Renders viewers in parallel, frames are chained so they are applied in order
+    private final ForkJoinPool renderPool;
+    private CompletableFuture<Void> renderChain = CompletableFuture.completedFuture(null);
+
+    public HudRefresher(MinecraftRivals plugin) {
+        this.plugin = plugin;
+
+        int threads = plugin.getSettings().renderThreads();
+        this.renderPool = new ForkJoinPool(threads, pool -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            thread.setName("MCR-HUD-" + thread.getPoolIndex());
+            thread.setDaemon(true);
+            return thread;
+        }, null, false);
+
+        plugin.getEventBus().subscribe(RivalsEvent.PointsChanged.class, events -> markPointsDirty());
+        plugin.getEventBus().subscribe(RivalsEvent.TeamMembershipChanged.class, events -> markTeamsDirty());
+    }
+
+    public void stop() {
+        if (pendingFlush != null) {
+            pendingFlush.cancel();
+            pendingFlush = null;
+        }
+        renderPool.shutdownNow();
+    }
+
+    /**
+     * Adds a value to every snapshot, read by line providers with {@link HudSnapshot#getExtra}
+     * @param key The key providers read it by
+     * @param source Called on the main thread when a snapshot is taken, may return null
+     */
+    public void registerSnapshotSource(String key, Supplier<?> source) {
+        snapshotSources.put(key, source);
+    }
+
+    /**
+     * A player joined or left a team
+     */
+    public void markTeamsDirty() {
+        teamsChanged = true;
+        sidebarsDirty = true;
+        tablistsDirty = true;
+        scheduleFlush();
+    }
+
+    /**
+     * Points were written (see {@link TeamPointsIndex}), also marked by every {@link RivalsEvent.PointsChanged}
+     */
+    public void markPointsDirty() {
+        pointsChanged = true;
+        sidebarsDirty = true;
+        tablistsDirty = true;
+        scheduleFlush();
+    }
+
+    /**
+     * The current game number changed
+     */
+    public void markGameDirty() {
+        plugin.getScoreboardManager().invalidateLine("game");
+        markSidebarsDirty();
+    }
+
+    /**
+     * Sidebar lines changed (layout switch, minigame lines, timers)
+     */
+    public void markSidebarsDirty() {
+        sidebarsDirty = true;
+        scheduleFlush();
+    }
+
+    /**
+     * A player joined or quit the server (online/offline state in the tablist)
+     */
+    public void markPresenceDirty() {
+        tablistsDirty = true;
+        scheduleFlush();
+    }
+
+    /**
+     * Only this player's sidebar needs to be redrawn
+     * @param player The player whose sidebar changed
+     */
+    public void markSidebarDirty(Player player) {
+        dirtySidebars.add(player.getUniqueId());
+        scheduleFlush();
+    }
+
+    /**
+     * Redraws everything, e.g. after a config reload or a points resync
+     */
+    public void markAllDirty() {
+        teamsChanged = true;
+        pointsChanged = true;
+        sidebarsDirty = true;
+        tablistsDirty = true;
+        scheduleFlush();
+    }
+
+    private void scheduleFlush() {
+        // Nothing can be scheduled while the plugin is disabling (e.g. a minigame stopped in onDisable)
+        if (pendingFlush == null && plugin.isEnabled()) {
+            pendingFlush = Bukkit.getScheduler().runTask(plugin, this::flush);
+        }
+    }
+
+    /**
+     * Takes a snapshot of every change collected since the last flush and
+     * queues it for rendering
+     */
+    private void flush() {
+        pendingFlush = null;
+
+        CustomScoreboardManager scoreboardManager = plugin.getScoreboardManager();
+        if (teamsChanged) {
+            scoreboardManager.syncTeams();
+        }
+        if (teamsChanged || pointsChanged) {
+            scoreboardManager.updateStandings();
+        }
+
+        HudSnapshot snapshot = HudSnapshot.capture(plugin, snapshotSources);
+
+        List<HudSnapshot.Viewer> sidebarViewers = new ArrayList<>();
+        for (HudSnapshot.Viewer viewer : snapshot.getViewers()) {
+            if (sidebarsDirty || dirtySidebars.contains(viewer.uuid())) {
+                sidebarViewers.add(viewer);
+            }
+        }
+        boolean renderTablists = tablistsDirty;
+
+        teamsChanged = false;
+        pointsChanged = false;
+        sidebarsDirty = false;
+        tablistsDirty = false;
+        dirtySidebars.clear();
+
+        if (sidebarViewers.isEmpty() && !renderTablists) {
+            return;
+        }
+
+        renderChain = renderChain
+            .thenApplyAsync(ignored -> renderFrame(snapshot, sidebarViewers, renderTablists), renderPool)
+            .thenAccept(this::scheduleApply)
+            .exceptionally(error -> {
+                plugin.getLogger().log(Level.WARNING, "Failed to render the HUD", error);
+                return null;
+            });
+    }
+
+    /**
+     * Renders sidebars and the tablist from a snapshot, on the HUD workers
+     */
+    private Frame renderFrame(HudSnapshot snapshot, List<HudSnapshot.Viewer> sidebarViewers, boolean renderTablists) {
+        CustomScoreboardManager scoreboardManager = plugin.getScoreboardManager();
+
+        // One task per viewer, each only touches that viewer's sidebar cache
+        List<ForkJoinTask<List<Component>>> tasks = new ArrayList<>(sidebarViewers.size());
+        for (HudSnapshot.Viewer viewer : sidebarViewers) {
+            tasks.add(ForkJoinTask.adapt(() -> scoreboardManager.renderSidebar(snapshot, viewer)));
+        }
+        ForkJoinTask.invokeAll(tasks);
+
+        Map<UUID, List<Component>> sidebars = new LinkedHashMap<>();
+        for (int i = 0; i < sidebarViewers.size(); i++) {
+            List<Component> lines = tasks.get(i).join();
+            if (lines != null) {
+                sidebars.put(sidebarViewers.get(i).uuid(), lines);
+            }
+        }
+
+        TablistManager.Frame tablist = renderTablists ? plugin.getTablistManager().render(snapshot) : null;
+        return new Frame(sidebars, tablist);
+    }
+
+    private void scheduleApply(Frame frame) {
+        if (plugin.isEnabled()) {
+            Bukkit.getScheduler().runTask(plugin, () -> apply(frame));
+        }
+    }
+
+    /**
+     * Sends a rendered frame, on the main thread
+     */
+    private void apply(Frame frame) {
+        CustomScoreboardManager scoreboardManager = plugin.getScoreboardManager();
+        for (Map.Entry<UUID, List<Component>> entry : frame.sidebars.entrySet()) {
+            scoreboardManager.applySidebar(entry.getKey(), entry.getValue());
+        }
+        if (frame.tablist != null) {
+            plugin.getTablistManager().apply(frame.tablist);
+        }
+    }
+
+    /**
+     * Everything rendered from one snapshot
+     */
+    private record Frame(Map<UUID, List<Component>> sidebars, TablistManager.Frame tablist) {
+    }
+}
@@ -0,0 +1,207 @@
+package com.zskv.minecraftRivals;
+
+import net.kyori.adventure.text.format.TextColor;
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Immutable copy of everything the sidebar and tablist show
+ * Captured on the main thread once per HUD refresh, then rendered on the
+ * HUD worker threads without touching Bukkit state
+ */
+public final class HudSnapshot {
+
+    /**
+     * A team as it was when the snapshot was taken
+     * @param index Its {@link TeamRegistry.TeamInfo#index()}, -1 if it is not configured
+     */
+    public record TeamState(String name, int index, String displayName, TextColor color, List<String> entries,
+                            int points) {
+    }
+
+    /**
+     * An online player the HUD is rendered for
+     * @param team Their team's registry index, -1 if it is not configured
+     * @param points Everything they earned (see {@link PlayerPointsStore})
+     */
+    public record Viewer(UUID uuid, String name, int team, int points) {
+    }
+
+    private final int currentGame;
+    private final int totalGames;
+    private final List<TeamState> standings;
+    private final long standingsVersion;
+    private final Map<String, TeamState> entryTeams;
+    private final TeamState[] teams;
+    private final Set<String> online;
+    private final List<Viewer> viewers;
+    private final SidebarLayout layout;
+    private final long[] lineVersions;
+    private final boolean nativeTablist;
+    private final String tablistFooter;
+    private final Map<String, Object> extras;
+
+    private HudSnapshot(Builder builder) {
+        this.currentGame = builder.currentGame;
+        this.totalGames = builder.totalGames;
+        this.standings = builder.standings;
+        this.standingsVersion = builder.standingsVersion;
+        this.entryTeams = builder.entryTeams;
+        this.teams = builder.teams;
+        this.online = Set.copyOf(builder.online);
+        this.viewers = List.copyOf(builder.viewers);
+        this.layout = builder.layout;
+        this.lineVersions = builder.lineVersions;
+        this.nativeTablist = builder.nativeTablist;
+        this.tablistFooter = builder.tablistFooter;
+        this.extras = Map.copyOf(builder.extras);
+    }
+
+    /**
+     * Captures the current state, must be called on the main thread
+     * @param plugin The plugin
+     * @param extraSources Snapshot values contributed by minigames, by key
+     * @return The snapshot
+     */
+    static HudSnapshot capture(MinecraftRivals plugin, Map<String, Supplier<?>> extraSources) {
+        Builder builder = new Builder();
+        builder.currentGame = plugin.getRuntimeState().getCurrentGame();
+        builder.totalGames = plugin.getSettings().totalGames();
+
+        StandingsCache standings = plugin.getScoreboardManager().getStandings();
+        builder.standings = standings.getStandings();
+        builder.standingsVersion = standings.getVersion();
+        builder.entryTeams = standings.getEntryTeams();
+        builder.teams = standings.getTeamStates();
+        // Sessions hold teams from the current registry, the cache may still be built from the last one
+        boolean indexed = standings.getRegistry() == plugin.getTeamRegistry();
+
+        OnlinePlayerIndex onlinePlayers = plugin.getOnlinePlayerIndex();
+        PlayerPointsStore playerPoints = plugin.getPlayerPointsStore();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            // Players who are quitting are still listed by Bukkit during PlayerQuitEvent
+            PlayerSession session = onlinePlayers.getSession(player);
+            if (session != null && onlinePlayers.isOnline(player.getName())) {
+                TeamRegistry.TeamInfo team = session.getTeam();
+                builder.online.add(player.getName());
+                builder.viewers.add(new Viewer(player.getUniqueId(), player.getName(),
+                    indexed && team != null ? team.index() : -1, playerPoints.getPoints(player.getUniqueId())));
+            }
+        }
+
+        builder.layout = plugin.getScoreboardManager().getActiveLayout();
+        builder.lineVersions = builder.layout.captureVersions();
+
+        builder.nativeTablist = plugin.getSettings().nativeTablist();
+        builder.tablistFooter = plugin.getSettings().tablistFooter();
+
+        for (Map.Entry<String, Supplier<?>> source : extraSources.entrySet()) {
+            Object value = source.getValue().get();
+            if (value != null) {
+                builder.extras.put(source.getKey(), value);
+            }
+        }
+        return new HudSnapshot(builder);
+    }
+
+    public int getCurrentGame() {
+        return currentGame;
+    }
+
+    public int getTotalGames() {
+        return totalGames;
+    }
+
+    /**
+     * @return Visible teams, best first
+     */
+    public List<TeamState> getStandings() {
+        return standings;
+    }
+
+    public long getStandingsVersion() {
+        return standingsVersion;
+    }
+
+    /**
+     * Gets the team a player is on
+     * @param entry The player name
+     * @return The team, or null if they have none
+     */
+    public TeamState getTeam(String entry) {
+        return entryTeams.get(entry);
+    }
+
+    /**
+     * Gets the team a viewer is on, by registry index if they are on a configured team
+     * @param viewer The viewer
+     * @return The team, or null if they have none
+     */
+    public TeamState getTeam(Viewer viewer) {
+        int index = viewer.team();
+        if (index >= 0 && index < teams.length && teams[index] != null) {
+            return teams[index];
+        }
+        return entryTeams.get(viewer.name());
+    }
+
+    public boolean isOnline(String name) {
+        return online.contains(name);
+    }
+
+    public List<Viewer> getViewers() {
+        return viewers;
+    }
+
+    SidebarLayout getLayout() {
+        return layout;
+    }
+
+    long getLineVersion(int line) {
+        return lineVersions[line];
+    }
+
+    public boolean isNativeTablist() {
+        return nativeTablist;
+    }
+
+    public String getTablistFooter() {
+        return tablistFooter;
+    }
+
+    /**
+     * Gets a value a minigame added to the snapshot
+     * @param key The key it was registered under
+     * @param type The value type
+     * @return The value, or null if there is none
+     */
+    public <T> T getExtra(String key, Class<T> type) {
+        Object value = extras.get(key);
+        return type.isInstance(value) ? type.cast(value) : null;
+    }
+
+    private static final class Builder {
+        int currentGame;
+        int totalGames;
+        List<TeamState> standings;
+        long standingsVersion;
+        Map<String, TeamState> entryTeams;
+        TeamState[] teams;
+        final Set<String> online = new HashSet<>();
+        final List<Viewer> viewers = new ArrayList<>();
+        SidebarLayout layout;
+        long[] lineVersions;
+        boolean nativeTablist;
+        String tablistFooter;
+        final Map<String, Object> extras = new HashMap<>();
+    }
+}
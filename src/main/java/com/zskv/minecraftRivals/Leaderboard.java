@@ -0,0 +1,152 @@
+package com.zskv.minecraftRivals;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+import java.util.function.Consumer;
+
+/**
+ * Teams kept in rank order as their points change
+ * A point change moves one team in O(log n) instead of re-sorting every team,
+ * and listeners are only told about changes that actually moved a team's rank
+ * Ties are broken by team name so the order is stable
+ */
+public class Leaderboard {
+
+    /**
+     * A team moved up or down
+     * @param team The team whose points changed
+     * @param oldRank Its rank before the change (1 is first)
+     * @param newRank Its rank after the change
+     * @param passed The teams it overtook (moving up) or that overtook it (moving down), best first
+     */
+    public record RankChange(String team, int oldRank, int newRank, List<String> passed) {
+
+        public boolean movedUp() {
+            return newRank < oldRank;
+        }
+    }
+
+    private record Standing(String team, int points) {
+    }
+
+    private static final Comparator<Standing> ORDER = Comparator
+        .comparingInt(Standing::points).reversed()
+        .thenComparing(Standing::team);
+
+    private final NavigableSet<Standing> order = new TreeSet<>(ORDER);
+    private final Map<String, Standing> standings = new HashMap<>();
+    private final List<Consumer<RankChange>> listeners = new ArrayList<>();
+
+    /**
+     * Listens for rank changes
+     * Teams added for the first time don't count as a change
+     * @param listener Called after a team moved
+     */
+    public void addListener(Consumer<RankChange> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Sets a team's points and moves it to its new rank
+     * @param team The team name
+     * @param points The team's new total
+     */
+    public void update(String team, int points) {
+        Standing previous = standings.get(team);
+        if (previous != null && previous.points() == points) {
+            return;
+        }
+
+        Standing current = new Standing(team, points);
+        if (previous != null) {
+            order.remove(previous);
+        }
+        order.add(current);
+        standings.put(team, current);
+
+        if (previous == null || listeners.isEmpty()) {
+            return;
+        }
+
+        // Teams between the old and new position are the ones that were passed
+        boolean movedUp = ORDER.compare(current, previous) < 0;
+        NavigableSet<Standing> passed = movedUp
+            ? order.subSet(current, false, previous, false)
+            : order.subSet(previous, false, current, false);
+        if (passed.isEmpty()) {
+            return;
+        }
+
+        List<String> passedTeams = new ArrayList<>(passed.size());
+        for (Standing standing : passed) {
+            passedTeams.add(standing.team());
+        }
+
+        int newRank = getRank(team);
+        int oldRank = movedUp ? newRank + passedTeams.size() : newRank - passedTeams.size();
+        RankChange change = new RankChange(team, oldRank, newRank, List.copyOf(passedTeams));
+        for (Consumer<RankChange> listener : listeners) {
+            listener.accept(change);
+        }
+    }
+
+    /**
+     * Removes a team without notifying listeners
+     * @param team The team name
+     */
+    public void remove(String team) {
+        Standing standing = standings.remove(team);
+        if (standing != null) {
+            order.remove(standing);
+        }
+    }
+
+    /**
+     * Removes every team without notifying listeners
+     */
+    public void clear() {
+        order.clear();
+        standings.clear();
+    }
+
+    /**
+     * Gets a team's rank
+     * Counted from the top, which is cheap for the handful of teams in an event
+     * @param team The team name
+     * @return The rank (1 is first), or -1 if the team is not on the leaderboard
+     */
+    public int getRank(String team) {
+        Standing standing = standings.get(team);
+        return standing != null ? order.headSet(standing).size() + 1 : -1;
+    }
+
+    /**
+     * Gets a team's points
+     * @param team The team name
+     * @return The points, 0 if the team is not on the leaderboard
+     */
+    public int getPoints(String team) {
+        Standing standing = standings.get(team);
+        return standing != null ? standing.points() : 0;
+    }
+
+    /**
+     * @return Team names, best first
+     */
+    public List<String> getTeams() {
+        List<String> teams = new ArrayList<>(order.size());
+        for (Standing standing : order) {
+            teams.add(standing.team());
+        }
+        return teams;
+    }
+
+    public int size() {
+        return order.size();
+    }
+}
@@ -1,5 +1,6 @@
 package com.zskv.minecraftRivals;
 
+import org.bukkit.Bukkit;
 import org.bukkit.ChatColor;
 import org.bukkit.command.Command;
 import org.bukkit.command.CommandExecutor;
@@ -8,9 +9,16 @@ import org.bukkit.command.TabCompleter;
 import org.bukkit.entity.Player;
 import org.bukkit.scoreboard.Team;
 
+import java.io.File;
+import java.io.IOException;
+import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Date;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
 
 public class MCRCommand implements CommandExecutor, TabCompleter {
 
@@ -21,9 +29,7 @@ public class MCRCommand implements CommandExecutor, TabCompleter {
     }
     
     private String getMessage(String key) {
-        String message = ChatColor.translateAlternateColorCodes('&', 
-            plugin.getConfig().getString("messages." + key, key));
-        return message;
+        return plugin.getSettings().message(key);
     }
 
     @Override
@@ -51,6 +57,16 @@ public class MCRCommand implements CommandExecutor, TabCompleter {
                 return handleTeams(sender);
             case "setgame":
                 return handleSetGame(sender, args);
+            case "points":
+                return handlePoints(sender, args);
+            case "results":
+                return handleResults(sender, args);
+            case "timeline":
+                return handleTimeline(sender, args);
+            case "replay":
+                return handleReplay(sender, args);
+            case "stats":
+                return handleStats(sender, args);
             case "reload":
                 return handleReload(sender);
             case "help":
@@ -97,7 +113,7 @@ public class MCRCommand implements CommandExecutor, TabCompleter {
         }
 
         if (args.length < 2) {
-            sender.sendMessage("§cUsage: /mcr voting <start|stop>");
+            sender.sendMessage("§cUsage: /mcr voting <start|stop|result>");
             return true;
         }
 
@@ -115,6 +131,10 @@ public class MCRCommand implements CommandExecutor, TabCompleter {
                 plugin.getVotingManager().stopVoting();
                 sender.sendMessage("§cVoting stopped.");
                 return true;
+            case "result":
+                String votedGame = plugin.getRuntimeState().getVotedGame();
+                sender.sendMessage(votedGame != null ? "§aThe last vote was won by §6" + votedGame : "§7No vote has finished yet");
+                return true;
             default:
                 sender.sendMessage("§cUnknown voting action: " + action);
                 return true;
@@ -161,7 +181,7 @@ public class MCRCommand implements CommandExecutor, TabCompleter {
         }
         
         // Check team size limit
-        int maxTeamSize = plugin.getConfig().getInt("game.max-players-per-team", 5);
+        int maxTeamSize = plugin.getSettings().maxPlayersPerTeam();
         if (team.getSize() >= maxTeamSize) {
             sender.sendMessage(getMessage("team-full"));
             return true;
@@ -172,9 +192,8 @@ public class MCRCommand implements CommandExecutor, TabCompleter {
         
         // Add to new team
         team.addEntry(player.getName());
-        
-        // Update tablist for all players
-        plugin.getTablistManager().refreshAllPlayers();
+        // Sidebars and tablists are refreshed once, from the membership change it posts
+        plugin.getTeamPointsIndex().moveEntry(player.getName(), team.getName());
         
         String message = getMessage("team-join").replace("%team%", team.getColor() + teamName + ChatColor.RESET);
         sender.sendMessage(message);
@@ -199,9 +218,8 @@ public class MCRCommand implements CommandExecutor, TabCompleter {
         ChatColor teamColor = currentTeam.getColor();
         
         currentTeam.removeEntry(player.getName());
-        
-        // Update tablist for all players
-        plugin.getTablistManager().refreshAllPlayers();
+        // Sidebars and tablists are refreshed once, from the membership change it posts
+        plugin.getTeamPointsIndex().moveEntry(player.getName(), null);
         
         String message = getMessage("team-leave").replace("%team%", teamColor + teamName + ChatColor.RESET);
         sender.sendMessage(message);
@@ -210,14 +228,14 @@ public class MCRCommand implements CommandExecutor, TabCompleter {
 
     private boolean handleTeams(CommandSender sender) {
         // List visible teams with player counts
-        List<String> visibleTeams = plugin.getConfig().getStringList("teams.visible");
+        List<String> visibleTeams = plugin.getSettings().visibleTeams();
         
         sender.sendMessage("§6Available Teams:");
         for (String teamName : visibleTeams) {
             Team team = plugin.getScoreboard().getTeam(teamName);
             if (team != null) {
                 int size = team.getSize();
-                int maxSize = plugin.getConfig().getInt("game.max-players-per-team", 5);
+                int maxSize = plugin.getSettings().maxPlayersPerTeam();
                 String status = size >= maxSize ? "§c[FULL]" : "§a[" + size + "/" + maxSize + "]";
                 sender.sendMessage("  " + team.getColor() + "● " + teamName + " " + status);
             }
@@ -238,15 +256,15 @@ public class MCRCommand implements CommandExecutor, TabCompleter {
         
         try {
             int gameNumber = Integer.parseInt(args[1]);
-            int totalGames = plugin.getConfig().getInt("game.total-games", 6);
+            int totalGames = plugin.getSettings().totalGames();
             
             if (gameNumber < 1 || gameNumber > totalGames) {
                 sender.sendMessage("§cGame number must be between 1 and " + totalGames);
                 return true;
             }
             
-            plugin.getConfig().set("game.current-game", gameNumber);
-            plugin.saveConfig();
+            plugin.getRuntimeState().setCurrentGame(gameNumber);
+            plugin.getHudRefresher().markGameDirty();
             
             sender.sendMessage("§aGame number set to §f" + gameNumber + "§a/§f" + totalGames);
             return true;
@@ -256,13 +274,427 @@ public class MCRCommand implements CommandExecutor, TabCompleter {
         }
     }
     
+    private boolean handlePoints(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("mcr.admin")) {
+            sender.sendMessage(getMessage("no-permission"));
+            return true;
+        }
+        
+        if (args.length == 3 && args[1].equalsIgnoreCase("breakdown")) {
+            return handlePointsBreakdown(sender, args[2]);
+        }
+        if (args.length == 2 && args[1].equalsIgnoreCase("undo")) {
+            return handlePointsUndo(sender);
+        }
+        if (args.length >= 2 && args[1].equalsIgnoreCase("history")) {
+            return handlePointsHistory(sender, args);
+        }
+        if (args.length == 2 && args[1].equalsIgnoreCase("sync")) {
+            return handlePointsSync(sender);
+        }
+        
+        if (args.length < 4) {
+            sender.sendMessage("§cUsage: /mcr points <add|set> <player> <amount>");
+            sender.sendMessage("§cUsage: /mcr points <undo|sync|history [count]|breakdown <team>>");
+            return true;
+        }
+        
+        String action = args[1].toLowerCase();
+        String playerName = args[2];
+        int amount;
+        try {
+            amount = Integer.parseInt(args[3]);
+        } catch (NumberFormatException e) {
+            sender.sendMessage("§cInvalid number: " + args[3]);
+            return true;
+        }
+        
+        TeamPointsIndex pointsIndex = plugin.getTeamPointsIndex();
+        boolean updated;
+        switch (action) {
+            case "add":
+                updated = pointsIndex.addPoints(playerName, amount, "/mcr points add by " + sender.getName());
+                break;
+            case "set":
+                updated = pointsIndex.setPoints(playerName, amount, "/mcr points set by " + sender.getName());
+                break;
+            default:
+                sender.sendMessage("§cUnknown points action: " + action);
+                return true;
+        }
+        
+        if (!updated) {
+            sender.sendMessage("§cThe change could not be saved, see the console for details");
+            return true;
+        }
+        
+        sender.sendMessage("§a" + playerName + " now has §f" + pointsIndex.getPlayerPoints(playerName) + "§a points");
+        return true;
+    }
+    
+    private boolean handlePointsUndo(CommandSender sender) {
+        TeamPointsIndex pointsIndex = plugin.getTeamPointsIndex();
+        PointsLedger.Record undone = pointsIndex.undoLast("/mcr points undo by " + sender.getName());
+        if (undone == null) {
+            sender.sendMessage("§cThere is no point change to undo");
+            return true;
+        }
+        
+        sender.sendMessage("§aUndid §f" + formatDelta(undone.delta()) + "§a for §f" + undone.entry()
+            + " §7(" + undone.reason() + ")§a, they now have §f" + pointsIndex.getPlayerPoints(undone.entry()) + "§a points");
+        return true;
+    }
+    
+    private boolean handlePointsSync(CommandSender sender) {
+        // Points set with /scoreboard, command blocks or datapacks, without reloading the config
+        int before = plugin.getTeamPointsIndex().getLedger().size();
+        plugin.getTeamPointsIndex().rebuild();
+        plugin.getHudRefresher().markAllDirty();
+        sender.sendMessage("§aPicked up §f" + (plugin.getTeamPointsIndex().getLedger().size() - before)
+            + "§a point changes from the scoreboard");
+        return true;
+    }
+    
+    private boolean handlePointsHistory(CommandSender sender, String[] args) {
+        int count = 10;
+        if (args.length >= 3) {
+            try {
+                count = Math.max(1, Integer.parseInt(args[2]));
+            } catch (NumberFormatException e) {
+                sender.sendMessage("§cInvalid number: " + args[2]);
+                return true;
+            }
+        }
+        
+        PointsLedger ledger = plugin.getTeamPointsIndex().getLedger();
+        List<PointsLedger.Record> recent = ledger.getRecent(count);
+        if (recent.isEmpty()) {
+            sender.sendMessage("§7No point changes recorded yet");
+            return true;
+        }
+        
+        sender.sendMessage("§6§lPoint history §7(newest first)");
+        SimpleDateFormat time = new SimpleDateFormat("HH:mm:ss");
+        for (PointsLedger.Record record : recent) {
+            String line = "§7#" + record.sequence() + " " + time.format(new Date(record.timestamp()))
+                + " §f" + record.entry() + " " + (record.delta() >= 0 ? "§a" : "§c") + formatDelta(record.delta())
+                + " §7game " + record.game() + " - " + record.reason();
+            if (record.scope() == PointsLedger.Scope.GAME) {
+                line += " §8[game points]";
+            }
+            if (ledger.isUndone(record)) {
+                line += " §8[undone]";
+            }
+            sender.sendMessage(line);
+        }
+        return true;
+    }
+    
+    private static String formatDelta(int delta) {
+        return delta >= 0 ? "+" + delta : String.valueOf(delta);
+    }
+    
+    private boolean handlePointsBreakdown(CommandSender sender, String teamName) {
+        Team team = plugin.getScoreboard().getTeam(teamName);
+        if (team == null) {
+            sender.sendMessage("§cTeam not found: " + teamName);
+            return true;
+        }
+        
+        PlayerPointsStore store = plugin.getPlayerPointsStore();
+        Map<UUID, Integer> breakdown = store.getTeamBreakdown(team.getName());
+        sender.sendMessage("§6§l" + team.getDisplayName() + " §7- §f" + store.getTeamPoints(team.getName()) + " §7points earned");
+        if (breakdown.isEmpty()) {
+            sender.sendMessage("§7No points recorded yet");
+            return true;
+        }
+        
+        breakdown.entrySet().stream()
+            .sorted(Map.Entry.<UUID, Integer>comparingByValue().reversed())
+            .forEach(entry -> {
+                String name = Bukkit.getOfflinePlayer(entry.getKey()).getName();
+                sender.sendMessage("§e" + (name != null ? name : entry.getKey()) + " §7- §f" + entry.getValue());
+            });
+        return true;
+    }
+    
+    private boolean handleResults(CommandSender sender, String[] args) {
+        ScoringEngine scoringEngine = plugin.getScoringEngine();
+        
+        if (args.length < 2) {
+            if (scoringEngine.getResults().isEmpty()) {
+                sender.sendMessage("§7No games have finished yet");
+                return true;
+            }
+            sender.sendMessage("§6§lFinished games");
+            for (ScoringEngine.GameResult result : scoringEngine.getResults()) {
+                sender.sendMessage("§e" + result.game() + ". §f" + result.name() + " §7- §f"
+                    + result.getAwardedTotal() + " §7points §8(x" + result.multiplier() + ")");
+            }
+            return true;
+        }
+        
+        int game;
+        try {
+            game = Integer.parseInt(args[1]);
+        } catch (NumberFormatException e) {
+            sender.sendMessage("§cInvalid number: " + args[1]);
+            return true;
+        }
+        
+        ScoringEngine.GameResult result = scoringEngine.getResult(game);
+        if (result == null) {
+            sender.sendMessage("§cGame " + game + " has not finished yet");
+            return true;
+        }
+        
+        sender.sendMessage("§6§lGame " + result.game() + ": " + result.name() + " §8(x" + result.multiplier() + ")");
+        result.teamPoints().entrySet().stream()
+            .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+            .forEach(entry -> sender.sendMessage("§e" + entry.getKey() + " §7- §f" + entry.getValue()));
+        sender.sendMessage("§7Top players:");
+        result.awarded().entrySet().stream()
+            .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+            .limit(5)
+            .forEach(entry -> sender.sendMessage("§f" + entry.getKey() + " §7- §a+" + entry.getValue()));
+        return true;
+    }
+    
+    private boolean handleTimeline(CommandSender sender, String[] args) {
+        if (args.length < 2) {
+            sender.sendMessage("§cUsage: /mcr timeline <leads|team> [game]");
+            return true;
+        }
+        
+        StandingsHistory history = plugin.getTeamPointsIndex().getHistory();
+        if (args[1].equalsIgnoreCase("leads")) {
+            int game = 0;
+            if (args.length >= 3) {
+                try {
+                    game = Integer.parseInt(args[2]);
+                } catch (NumberFormatException e) {
+                    sender.sendMessage("§cInvalid number: " + args[2]);
+                    return true;
+                }
+            }
+            
+            List<StandingsHistory.LeadChange> changes = history.getLeadChanges(game);
+            if (changes.isEmpty()) {
+                sender.sendMessage("§7The lead has not changed" + (game > 0 ? " in game " + game : ""));
+                return true;
+            }
+            sender.sendMessage("§6§lLead changes" + (game > 0 ? " in game " + game : ""));
+            for (StandingsHistory.LeadChange change : changes) {
+                sender.sendMessage("§7Game " + change.game() + ", tick " + change.tick() + ": §e" + change.leader()
+                    + (change.previous() != null ? " §7took the lead from §e" + change.previous() : " §7took the lead"));
+            }
+            return true;
+        }
+        
+        String teamName = args[1];
+        List<StandingsHistory.Sample> curve = history.getCurve(teamName);
+        if (curve.isEmpty()) {
+            sender.sendMessage("§cNo history for team " + teamName);
+            return true;
+        }
+        
+        // One line per game: where the team ended up and how often its total changed
+        sender.sendMessage("§6§l" + teamName + " over time");
+        int index = 0;
+        while (index < curve.size()) {
+            int game = curve.get(index).game();
+            int changes = 0;
+            int points = 0;
+            while (index < curve.size() && curve.get(index).game() == game) {
+                points = curve.get(index).points();
+                changes++;
+                index++;
+            }
+            sender.sendMessage("§eGame " + game + " §7- §f" + points + " §7points §8(" + changes + " changes)");
+        }
+        return true;
+    }
+    
+    private boolean handleReplay(CommandSender sender, String[] args) {
+        if (!sender.hasPermission("mcr.admin")) {
+            sender.sendMessage(getMessage("no-permission"));
+            return true;
+        }
+        if (args.length < 2) {
+            sender.sendMessage("§cUsage: /mcr replay <list|info|play|stop> [replay] [speed]");
+            return true;
+        }
+        
+        ReplayRecorder recorder = plugin.getReplayRecorder();
+        String action = args[1].toLowerCase();
+        if (action.equals("list")) {
+            List<File> files = ReplayReader.list(recorder.getFolder());
+            if (files.isEmpty()) {
+                sender.sendMessage("§7No replays recorded yet");
+                return true;
+            }
+            sender.sendMessage("§6§lReplays");
+            files.stream()
+                .limit(10)
+                .forEach(file -> sender.sendMessage("§e" + replayName(file) + " §8(" + file.length() / 1024 + " KB)"));
+            return true;
+        }
+        if (action.equals("stop")) {
+            if (!(sender instanceof Player player)) {
+                sender.sendMessage("§cOnly players can watch replays");
+                return true;
+            }
+            sender.sendMessage(recorder.stopPlayback(player.getUniqueId())
+                ? "§aReplay stopped" : "§cYou are not watching a replay");
+            return true;
+        }
+        if (!action.equals("info") && !action.equals("play")) {
+            sender.sendMessage("§cUsage: /mcr replay <list|info|play|stop> [replay] [speed]");
+            return true;
+        }
+        
+        if (args.length < 3) {
+            sender.sendMessage("§cUsage: /mcr replay " + action + " <replay>" + (action.equals("play") ? " [speed]" : ""));
+            return true;
+        }
+        // Only names from the replays folder, no paths
+        File file = new File(recorder.getFolder(), args[2] + ReplayRecorder.FILE_EXTENSION);
+        if (args[2].contains("/") || args[2].contains("\\") || !file.isFile()) {
+            sender.sendMessage("§cNo replay named " + args[2]);
+            return true;
+        }
+        if (action.equals("play") && !(sender instanceof Player)) {
+            sender.sendMessage("§cOnly players can watch replays");
+            return true;
+        }
+        int speed = 1;
+        if (action.equals("play") && args.length >= 4) {
+            try {
+                speed = Math.max(1, Math.min(20, Integer.parseInt(args[3])));
+            } catch (NumberFormatException e) {
+                sender.sendMessage("§cInvalid number: " + args[3]);
+                return true;
+            }
+        }
+        
+        // Replays can be large, so they are read off the main thread
+        final int playbackSpeed = speed;
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            ReplayReader.Replay replay;
+            try {
+                replay = ReplayReader.read(file);
+            } catch (IOException e) {
+                Bukkit.getScheduler().runTask(plugin, () ->
+                    sender.sendMessage("§cFailed to read " + args[2] + ": " + e.getMessage()));
+                return;
+            }
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                if (action.equals("info")) {
+                    sendReplayInfo(sender, replay);
+                } else if (((Player) sender).isOnline()) {
+                    recorder.play((Player) sender, replay, playbackSpeed);
+                }
+            });
+        });
+        return true;
+    }
+    
+    private void sendReplayInfo(CommandSender sender, ReplayReader.Replay replay) {
+        Map<String, Integer> teamServes = new TreeMap<>();
+        Map<String, Integer> teamPoints = new TreeMap<>();
+        Map<String, Integer> votes = new TreeMap<>();
+        List<String> phases = new ArrayList<>();
+        for (ReplayReader.Event event : replay.events()) {
+            switch (event.type()) {
+                case ReplayRecorder.SERVE -> {
+                    teamServes.merge(event.subject(), 1, Integer::sum);
+                    teamPoints.merge(event.subject(), event.value(), Integer::sum);
+                }
+                case ReplayRecorder.VOTE -> votes.merge(event.subject(), 1, Integer::sum);
+                case ReplayRecorder.PHASE -> phases.add(event.subject());
+                default -> {
+                }
+            }
+        }
+        
+        SimpleDateFormat dateFormat = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        sender.sendMessage("§6§l" + replay.name() + " §7- " + dateFormat.format(new Date(replay.startedAt())));
+        sender.sendMessage("§7Length: §f" + ReplayPlayback.formatTime(replay.duration())
+            + (replay.complete() ? "" : " §c(cut short)") + " §7Players: §f" + replay.players().size()
+            + " §7Positions: §f" + replay.frames().size());
+        if (!phases.isEmpty()) {
+            sender.sendMessage("§7Phases: §f" + String.join(", ", phases));
+        }
+        for (Map.Entry<String, Integer> entry : teamServes.entrySet()) {
+            sender.sendMessage("§e" + entry.getKey() + " §7- §f" + entry.getValue() + " §7serves, §a+"
+                + teamPoints.get(entry.getKey()));
+        }
+        votes.entrySet().stream()
+            .sorted(Map.Entry.<String, Integer>comparingByValue().reversed())
+            .forEach(entry -> sender.sendMessage("§e" + entry.getKey() + " §7- §f" + entry.getValue() + " §7votes"));
+    }
+    
+    private static String replayName(File file) {
+        String name = file.getName();
+        return name.substring(0, name.length() - ReplayRecorder.FILE_EXTENSION.length());
+    }
+    
+    private boolean handleStats(CommandSender sender, String[] args) {
+        StatsStore stats = plugin.getStatsStore();
+        if (args.length >= 2 && args[1].equalsIgnoreCase("top")) {
+            StatsStore.Stat stat = args.length >= 3 ? StatsStore.Stat.fromKey(args[2]) : null;
+            if (stat == null) {
+                sender.sendMessage("§cUsage: /mcr stats top <served|votes|points> [teams]");
+                return true;
+            }
+            boolean teamStats = args.length >= 4 && args[3].equalsIgnoreCase("teams");
+            List<StatsStore.Entry> top = stats.getTop(stat, teamStats, 10);
+            if (top.isEmpty()) {
+                sender.sendMessage("§7Nobody has any " + stat.getDisplayName().toLowerCase() + " yet");
+                return true;
+            }
+            sender.sendMessage("§6§l" + stat.getDisplayName() + (teamStats ? " §7(teams)" : "") + " §7- all time");
+            for (int i = 0; i < top.size(); i++) {
+                sender.sendMessage("§e" + (i + 1) + ". §f" + top.get(i).name() + " §7- §a" + top.get(i).value());
+            }
+            return true;
+        }
+        
+        Map<StatsStore.Stat, Long> values;
+        String name;
+        if (args.length >= 2) {
+            name = args[1];
+            values = stats.getPlayerStats(name);
+        } else if (sender instanceof Player player) {
+            name = player.getName();
+            values = stats.getPlayerStats(player.getUniqueId());
+        } else {
+            sender.sendMessage("§cUsage: /mcr stats <player>");
+            return true;
+        }
+        if (values == null) {
+            sender.sendMessage("§cNo stats for " + name);
+            return true;
+        }
+        
+        sender.sendMessage("§6§l" + name + " §7- all time");
+        for (Map.Entry<StatsStore.Stat, Long> entry : values.entrySet()) {
+            sender.sendMessage("§e" + entry.getKey().getDisplayName() + " §7- §f" + entry.getValue());
+        }
+        return true;
+    }
+    
     private boolean handleReload(CommandSender sender) {
         if (!sender.hasPermission("mcr.admin")) {
             sender.sendMessage(getMessage("no-permission"));
             return true;
         }
         
-        plugin.reloadConfig();
+        plugin.reloadSettings();
+        // Pick up points edited with /scoreboard while the plugin was running
+        plugin.getTeamPointsIndex().rebuild();
+        plugin.getScoreboardManager().reloadLayouts();
+        plugin.getHudRefresher().markAllDirty();
         sender.sendMessage("§aConfiguration reloaded!");
         return true;
     }
@@ -274,15 +706,26 @@ public class MCRCommand implements CommandExecutor, TabCompleter {
         sender.sendMessage("§e/mcr join <team> §7- Join a team");
         sender.sendMessage("§e/mcr leave §7- Leave your current team");
         sender.sendMessage("§e/mcr teams §7- List all available teams");
+        sender.sendMessage("§e/mcr results [game] §7- Show the results of finished games");
+        sender.sendMessage("§e/mcr timeline leads [game] §7- Show when the lead changed hands");
+        sender.sendMessage("§e/mcr timeline <team> §7- Show a team's points game by game");
+        sender.sendMessage("§e/mcr stats [player] §7- Show lifetime stats");
+        sender.sendMessage("§e/mcr stats top <served|votes|points> [teams] §7- Show the all-time best");
         sender.sendMessage("§e/mcr help §7- Show this help message");
         
         if (sender.hasPermission("mcr.admin")) {
             sender.sendMessage("§c§lAdmin Commands:");
             sender.sendMessage("§e/mcr event <start|cancel> §7- Control event intro");
-            sender.sendMessage("§e/mcr voting <start|stop> §7- Control voting phase");
+            sender.sendMessage("§e/mcr voting <start|stop|result> §7- Control voting phase");
             sender.sendMessage("§e/mcr start §7- Start the game");
             sender.sendMessage("§e/mcr stop §7- Stop the game");
             sender.sendMessage("§e/mcr setgame <number> §7- Set current game number");
+            sender.sendMessage("§e/mcr points <add|set> <player> <amount> §7- Change a player's points");
+            sender.sendMessage("§e/mcr points breakdown <team> §7- Show who earned a team's points");
+            sender.sendMessage("§e/mcr points history [count] §7- Show recent point changes");
+            sender.sendMessage("§e/mcr points undo §7- Revert the last point change");
+            sender.sendMessage("§e/mcr points sync §7- Pick up points set with /scoreboard");
+            sender.sendMessage("§e/mcr replay <list|info|play|stop> §7- Review recorded rounds");
             sender.sendMessage("§e/mcr reload §7- Reload configuration");
         }
         sender.sendMessage("§6§l§m                    §r");
@@ -295,7 +738,7 @@ public class MCRCommand implements CommandExecutor, TabCompleter {
         
         if (args.length == 1) {
             // Main subcommands
-            List<String> subcommands = new ArrayList<>(Arrays.asList("join", "leave", "teams", "help"));
+            List<String> subcommands = new ArrayList<>(Arrays.asList("join", "leave", "teams", "results", "timeline", "stats", "help"));
             
             // Add admin commands if sender has permission
             if (sender.hasPermission("mcr.admin")) {
@@ -304,6 +747,8 @@ public class MCRCommand implements CommandExecutor, TabCompleter {
                 subcommands.add("start");
                 subcommands.add("stop");
                 subcommands.add("setgame");
+                subcommands.add("points");
+                subcommands.add("replay");
                 subcommands.add("reload");
             }
             
@@ -318,18 +763,57 @@ public class MCRCommand implements CommandExecutor, TabCompleter {
             completions.addAll(Arrays.asList("start", "cancel"));
             return filterByPrefix(completions, args[1]);
         } else if (args.length == 2 && args[0].equalsIgnoreCase("voting")) {
-            completions.addAll(Arrays.asList("start", "stop"));
+            completions.addAll(Arrays.asList("start", "stop", "result"));
+            return filterByPrefix(completions, args[1]);
+        } else if (args.length == 2 && args[0].equalsIgnoreCase("timeline")) {
+            completions.add("leads");
+            completions.addAll(plugin.getSettings().visibleTeams());
+            return filterByPrefix(completions, args[1]);
+        } else if (args.length == 2 && args[0].equalsIgnoreCase("stats")) {
+            completions.add("top");
+            for (Player online : Bukkit.getOnlinePlayers()) {
+                completions.add(online.getName());
+            }
             return filterByPrefix(completions, args[1]);
+        } else if (args.length == 3 && args[0].equalsIgnoreCase("stats") && args[1].equalsIgnoreCase("top")) {
+            for (StatsStore.Stat stat : StatsStore.Stat.values()) {
+                completions.add(stat.getKey());
+            }
+            return filterByPrefix(completions, args[2]);
+        } else if (args.length == 4 && args[0].equalsIgnoreCase("stats") && args[1].equalsIgnoreCase("top")) {
+            completions.add("teams");
+            return filterByPrefix(completions, args[3]);
+        } else if (args.length == 2 && args[0].equalsIgnoreCase("replay") && sender.hasPermission("mcr.admin")) {
+            completions.addAll(Arrays.asList("list", "info", "play", "stop"));
+            return filterByPrefix(completions, args[1]);
+        } else if (args.length == 3 && args[0].equalsIgnoreCase("replay") && sender.hasPermission("mcr.admin")
+                && (args[1].equalsIgnoreCase("info") || args[1].equalsIgnoreCase("play"))) {
+            for (File file : ReplayReader.list(plugin.getReplayRecorder().getFolder())) {
+                completions.add(replayName(file));
+            }
+            return filterByPrefix(completions, args[2]);
+        } else if (args.length == 2 && args[0].equalsIgnoreCase("points")) {
+            completions.addAll(Arrays.asList("add", "set", "undo", "sync", "history", "breakdown"));
+            return filterByPrefix(completions, args[1]);
+        } else if (args.length == 3 && args[0].equalsIgnoreCase("points") && args[1].equalsIgnoreCase("breakdown")) {
+            completions.addAll(plugin.getSettings().visibleTeams());
+            return filterByPrefix(completions, args[2]);
+        } else if (args.length == 3 && args[0].equalsIgnoreCase("points")
+                && (args[1].equalsIgnoreCase("add") || args[1].equalsIgnoreCase("set"))) {
+            for (Player online : Bukkit.getOnlinePlayers()) {
+                completions.add(online.getName());
+            }
+            return filterByPrefix(completions, args[2]);
         } else if (args.length == 2 && args[0].equalsIgnoreCase("join")) {
             // Suggest visible teams for join command
-            List<String> visibleTeams = plugin.getConfig().getStringList("teams.visible");
+            List<String> visibleTeams = plugin.getSettings().visibleTeams();
             String input = args[1].toLowerCase();
             
             for (String teamName : visibleTeams) {
                 Team team = plugin.getScoreboard().getTeam(teamName);
                 if (team != null && teamName.toLowerCase().startsWith(input)) {
                     // Only suggest teams that aren't full
-                    int maxSize = plugin.getConfig().getInt("game.max-players-per-team", 5);
+                    int maxSize = plugin.getSettings().maxPlayersPerTeam();
                     if (team.getSize() < maxSize) {
                         completions.add(teamName);
                     }
@@ -338,7 +822,7 @@ public class MCRCommand implements CommandExecutor, TabCompleter {
             return completions;
         } else if (args.length == 2 && args[0].equalsIgnoreCase("setgame")) {
             // Suggest game numbers 1-6
-            int totalGames = plugin.getConfig().getInt("game.total-games", 6);
+            int totalGames = plugin.getSettings().totalGames();
             for (int i = 1; i <= totalGames; i++) {
                 completions.add(String.valueOf(i));
             }
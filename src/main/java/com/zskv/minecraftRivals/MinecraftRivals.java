@@ -4,16 +4,27 @@ import com.zskv.minecraftRivals.dishdash.DishDashCommand;
 import com.zskv.minecraftRivals.dishdash.DishDashManager;
 import com.zskv.minecraftRivals.global.pads;
 import org.bukkit.Bukkit;
-import org.bukkit.ChatColor;
 import org.bukkit.plugin.java.JavaPlugin;
 import org.bukkit.scoreboard.Scoreboard;
-import org.bukkit.scoreboard.Team;
 
 public final class MinecraftRivals extends JavaPlugin {
 
+    // Replaced as a whole on reload, read from any thread
+    private volatile RivalsConfig settings;
+    private volatile TeamRegistry teamRegistry;
     private Scoreboard scoreboard;
+    private RuntimeState runtimeState;
     private CustomScoreboardManager scoreboardManager;
     private TablistManager tablistManager;
+    private EventBus eventBus;
+    private HudRefresher hudRefresher;
+    private TeamPointsIndex teamPointsIndex;
+    private PlayerPointsStore playerPointsStore;
+    private StatsStore statsStore;
+    private ScoringEngine scoringEngine;
+    private CheckpointStore checkpointStore;
+    private ReplayRecorder replayRecorder;
+    private OnlinePlayerIndex onlinePlayerIndex;
     private EventIntroManager eventIntroManager;
     private VotingManager votingManager;
     private DishDashManager dishDashManager;
@@ -22,6 +33,35 @@ public final class MinecraftRivals extends JavaPlugin {
         return scoreboard;
     }
     
+    /**
+     * @return The current config.yml settings
+     */
+    public RivalsConfig getSettings() {
+        return settings;
+    }
+    
+    /**
+     * Reads config.yml again and swaps in the new settings
+     */
+    public void reloadSettings() {
+        reloadConfig();
+        settings = RivalsConfig.from(getConfig());
+        teamRegistry = TeamRegistry.build(settings);
+        teamRegistry.apply(scoreboard);
+        onlinePlayerIndex.refreshTeams();
+    }
+    
+    /**
+     * @return The configured teams
+     */
+    public TeamRegistry getTeamRegistry() {
+        return teamRegistry;
+    }
+    
+    public RuntimeState getRuntimeState() {
+        return runtimeState;
+    }
+    
     public CustomScoreboardManager getScoreboardManager() {
         return scoreboardManager;
     }
@@ -30,6 +70,42 @@ public final class MinecraftRivals extends JavaPlugin {
         return tablistManager;
     }
     
+    public EventBus getEventBus() {
+        return eventBus;
+    }
+    
+    public HudRefresher getHudRefresher() {
+        return hudRefresher;
+    }
+    
+    public TeamPointsIndex getTeamPointsIndex() {
+        return teamPointsIndex;
+    }
+    
+    public PlayerPointsStore getPlayerPointsStore() {
+        return playerPointsStore;
+    }
+    
+    public StatsStore getStatsStore() {
+        return statsStore;
+    }
+    
+    public ScoringEngine getScoringEngine() {
+        return scoringEngine;
+    }
+    
+    public CheckpointStore getCheckpointStore() {
+        return checkpointStore;
+    }
+    
+    public ReplayRecorder getReplayRecorder() {
+        return replayRecorder;
+    }
+    
+    public OnlinePlayerIndex getOnlinePlayerIndex() {
+        return onlinePlayerIndex;
+    }
+    
     public EventIntroManager getEventIntroManager() {
         return eventIntroManager;
     }
@@ -46,12 +122,59 @@ public final class MinecraftRivals extends JavaPlugin {
     public void onEnable() {
         // Plugin startup logic
         saveDefaultConfig();
+        settings = RivalsConfig.from(getConfig());
 
         // Initialize scoreboard
         initializeScoreboard();
 
         // Create teams
-        createTeams();
+        teamRegistry = TeamRegistry.build(settings);
+        teamRegistry.apply(scoreboard);
+        getLogger().info("Created " + teamRegistry.size() + " teams");
+
+        // Current game and team assignments, kept out of config.yml
+        runtimeState = new RuntimeState(this);
+        runtimeState.load();
+        runtimeState.restoreTeams(scoreboard);
+
+        // Managers post events here, delivered in one batch at the end of each tick
+        eventBus = new EventBus(this);
+        getServer().getPluginManager().registerEvents(eventBus, this);
+
+        // Redraw sidebars and tablists only when something changed
+        // Created first, everything below queues its first draw on it
+        hudRefresher = new HudRefresher(this);
+        
+        // Index who is online (players already here after a reload)
+        onlinePlayerIndex = new OnlinePlayerIndex(this);
+        onlinePlayerIndex.rebuild();
+        
+        // Who earned which points, per game
+        playerPointsStore = new PlayerPointsStore(this);
+        
+        // Lifetime stats, kept across events
+        statsStore = new StatsStore(this);
+        statsStore.load();
+        statsStore.start();
+        
+        // Replay the points ledger into team and player totals
+        teamPointsIndex = new TeamPointsIndex(this);
+        if (!teamPointsIndex.load()) {
+            getLogger().severe("Points could not be loaded, disabling to avoid losing point changes");
+            getServer().getPluginManager().disablePlugin(this);
+            return;
+        }
+        
+        // Results of finished games, folded into the standings as each game ends
+        scoringEngine = new ScoringEngine(this);
+        scoringEngine.load();
+
+        // Binary recordings of each round, the managers below record into it
+        replayRecorder = new ReplayRecorder(this);
+
+        // State of running minigames, the managers below resume from it as they register
+        checkpointStore = new CheckpointStore(this);
+        checkpointStore.load();
 
         // Register commands
         getCommand("mcr").setExecutor(new MCRCommand(this));
@@ -80,11 +203,22 @@ public final class MinecraftRivals extends JavaPlugin {
         getCommand("dishdash").setExecutor(new DishDashCommand(this, dishDashManager));
         getCommand("dishdash").setTabCompleter(new DishDashCommand(this, dishDashManager));
         
+        checkpointStore.start();
+        
         getLogger().info("Minecraft Rivals has been enabled!");
     }
 
     @Override
     public void onDisable() {
+        // Last checkpoint before anything is torn down, so running games resume on the next start
+        if (checkpointStore != null) {
+            checkpointStore.stop();
+        }
+        
+        if (hudRefresher != null) {
+            hudRefresher.stop();
+        }
+        
         // Stop scoreboard updates
         if (scoreboardManager != null) {
             scoreboardManager.stopUpdating();
@@ -96,15 +230,37 @@ public final class MinecraftRivals extends JavaPlugin {
         }
         
         if (eventIntroManager != null) {
-            eventIntroManager.shutdown();
+            eventIntroManager.suspend();
         }
         
         if (votingManager != null) {
-            votingManager.stopVoting();
+            votingManager.suspendVoting();
+        }
+        
+        if (dishDashManager != null) {
+            dishDashManager.suspendGame();
+        }
+        
+        // Delivers what the minigames posted while stopping, before the stores close
+        if (eventBus != null) {
+            eventBus.flush();
+        }
+        
+        // After the minigames, so their rounds are ended and written out
+        if (replayRecorder != null) {
+            replayRecorder.stop();
+        }
+        
+        if (teamPointsIndex != null) {
+            teamPointsIndex.close();
+        }
+        
+        if (statsStore != null) {
+            statsStore.close();
         }
         
-        if (dishDashManager != null && dishDashManager.isGameActive()) {
-            dishDashManager.stopGame(Bukkit.getConsoleSender());
+        if (runtimeState != null) {
+            runtimeState.close();
         }
         
         getLogger().info("Minecraft Rivals has been disabled!");
@@ -126,57 +282,4 @@ public final class MinecraftRivals extends JavaPlugin {
             }
         }
     }
-
-    private void createTeams() {
-        // Create visible teams
-        java.util.List<String> visibleTeams = getConfig().getStringList("teams.visible");
-        java.util.List<String> backlogTeams = getConfig().getStringList("teams.backlog");
-
-        java.util.Map<String, ChatColor> colorMap = java.util.Map.of(
-            "Red", ChatColor.RED,
-            "Orange", ChatColor.GOLD,
-            "Yellow", ChatColor.YELLOW,
-            "Lime", ChatColor.GREEN,
-            "Green", ChatColor.DARK_GREEN,
-            "Cyan", ChatColor.AQUA,
-            "Blue", ChatColor.BLUE,
-            "Purple", ChatColor.DARK_PURPLE,
-            "Magenta", ChatColor.LIGHT_PURPLE,
-            "Pink", ChatColor.LIGHT_PURPLE
-        );
-
-        // Create visible teams
-        for (String name : visibleTeams) {
-            Team team = scoreboard.getTeam(name);
-            if (team == null) {
-                team = scoreboard.registerNewTeam(name);
-            }
-            team.setColor(colorMap.getOrDefault(name, ChatColor.WHITE));
-            team.setDisplayName(name);
-            team.setPrefix(colorMap.getOrDefault(name, ChatColor.WHITE) + "[" + name + "] ");
-            team.setSuffix(ChatColor.RESET + "");
-            team.setAllowFriendlyFire(false);
-            team.setCanSeeFriendlyInvisibles(true);
-            team.setOption(Team.Option.NAME_TAG_VISIBILITY, Team.OptionStatus.ALWAYS);
-            team.setOption(Team.Option.COLLISION_RULE, Team.OptionStatus.FOR_OWN_TEAM);
-        }
-
-        // Create backlog teams (Cyan and Magenta) - available but not shown in main lists
-        for (String name : backlogTeams) {
-            Team team = scoreboard.getTeam(name);
-            if (team == null) {
-                team = scoreboard.registerNewTeam(name);
-            }
-            team.setColor(colorMap.getOrDefault(name, ChatColor.WHITE));
-            team.setDisplayName(name);
-            team.setPrefix(colorMap.getOrDefault(name, ChatColor.WHITE) + "[" + name + "] ");
-            team.setSuffix(ChatColor.RESET + "");
-            team.setAllowFriendlyFire(false);
-            team.setCanSeeFriendlyInvisibles(true);
-            team.setOption(Team.Option.NAME_TAG_VISIBILITY, Team.OptionStatus.ALWAYS);
-            team.setOption(Team.Option.COLLISION_RULE, Team.OptionStatus.FOR_OWN_TEAM);
-        }
-        
-        getLogger().info("Created " + (visibleTeams.size() + backlogTeams.size()) + " teams");
-    }
 }
@@ -0,0 +1,172 @@
+package com.zskv.minecraftRivals;
+
+import org.bukkit.Bukkit;
+import org.bukkit.entity.Player;
+import org.bukkit.scoreboard.Team;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Tracks who is online by name and UUID, with a {@link PlayerSession} each
+ * Kept up to date from join and quit events, so lookups never have to
+ * stream Bukkit.getOnlinePlayers()
+ * Sessions are keyed by UUID, a player who changed their name gets their
+ * session under the new name on their next join
+ */
+public class OnlinePlayerIndex {
+
+    private final MinecraftRivals plugin;
+
+    private final Map<UUID, PlayerSession> sessions = new HashMap<>();
+    private final Map<String, PlayerSession> sessionsByName = new HashMap<>();
+
+    // Team name to the running minigame's team data, null between games
+    private Function<String, ?> gameContext;
+
+    public OnlinePlayerIndex(MinecraftRivals plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Fills the index with everyone already online (e.g. after a reload)
+     */
+    public void rebuild() {
+        sessions.clear();
+        sessionsByName.clear();
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            add(player);
+        }
+    }
+
+    public void add(Player player) {
+        PlayerSession session = sessions.get(player.getUniqueId());
+        if (session == null) {
+            session = new PlayerSession(player);
+            sessions.put(player.getUniqueId(), session);
+        } else {
+            sessionsByName.remove(session.getName(), session);
+            session.setPlayer(player);
+        }
+        sessionsByName.put(player.getName(), session);
+        refreshTeam(session);
+    }
+
+    public void remove(Player player) {
+        PlayerSession session = sessions.remove(player.getUniqueId());
+        if (session != null) {
+            sessionsByName.remove(session.getName(), session);
+        }
+    }
+
+    /**
+     * Checks if a scoreboard entry belongs to an online player
+     * @param name The player name
+     * @return true if the player is online
+     */
+    public boolean isOnline(String name) {
+        return sessionsByName.containsKey(name);
+    }
+
+    /**
+     * Gets the UUID of an online player
+     * @param name The player name
+     * @return The UUID, or null if the player is offline
+     */
+    public UUID getUniqueId(String name) {
+        PlayerSession session = sessionsByName.get(name);
+        return session != null ? session.getUniqueId() : null;
+    }
+
+    /**
+     * Gets the name of an online player
+     * @param uuid The player's UUID
+     * @return The name, or null if the player is offline
+     */
+    public String getName(UUID uuid) {
+        PlayerSession session = sessions.get(uuid);
+        return session != null ? session.getName() : null;
+    }
+
+    /**
+     * @return The player's session, or null if they are not online
+     */
+    public PlayerSession getSession(Player player) {
+        return sessions.get(player.getUniqueId());
+    }
+
+    /**
+     * @param name The player name, exactly as on the scoreboard
+     * @return The player's session, or null if they are not online
+     */
+    public PlayerSession getSession(String name) {
+        return sessionsByName.get(name);
+    }
+
+    public Collection<PlayerSession> getSessions() {
+        return Collections.unmodifiableCollection(sessions.values());
+    }
+
+    /**
+     * Updates a player's session after they joined or left a team
+     * @param entry The player name
+     * @param teamName The new team, or null if they left their team
+     */
+    public void updateTeam(String entry, String teamName) {
+        PlayerSession session = sessionsByName.get(entry);
+        if (session != null) {
+            applyTeam(session, teamName);
+        }
+    }
+
+    /**
+     * Reads every session's team from the scoreboard again,
+     * e.g. after teams were edited with /team or the settings were reloaded
+     */
+    public void refreshTeams() {
+        for (PlayerSession session : sessions.values()) {
+            refreshTeam(session);
+        }
+    }
+
+    /**
+     * Sets the running minigame's team data, handed to every session on that team
+     * until {@link #clearGameContext()}, also to players joining or changing teams
+     * @param byTeam Team data by team name, null for teams not in the game
+     */
+    public void setGameContext(Function<String, ?> byTeam) {
+        this.gameContext = byTeam;
+        for (PlayerSession session : sessions.values()) {
+            session.setGameContext(resolveGameContext(session.getTeamName()));
+        }
+    }
+
+    /**
+     * Takes the minigame's team data off every session, called when the game ends
+     */
+    public void clearGameContext() {
+        setGameContext(null);
+    }
+
+    public int size() {
+        return sessions.size();
+    }
+
+    private void refreshTeam(PlayerSession session) {
+        Team team = plugin.getScoreboard().getEntryTeam(session.getName());
+        applyTeam(session, team != null ? team.getName() : null);
+    }
+
+    private void applyTeam(PlayerSession session, String teamName) {
+        session.setTeam(teamName, teamName != null ? plugin.getTeamRegistry().get(teamName) : null);
+        session.setGameContext(resolveGameContext(teamName));
+    }
+
+    private Object resolveGameContext(String teamName) {
+        return gameContext != null && teamName != null ? gameContext.apply(teamName) : null;
+    }
+}
@@ -0,0 +1,92 @@
+package com.zskv.minecraftRivals;
+
+import net.kyori.adventure.key.Key;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.TextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Shared cache of styled text in the pixel_uppercase font
+ * Components are immutable, so the same name or label can be reused by
+ * every sidebar and tablist render instead of being rebuilt each time
+ */
+public final class PixelText {
+
+    public static final Key PIXEL_FONT = Key.key("minecraft", "pixel_uppercase");
+
+    // Enough for every name, team label and score on a full server
+    private static final int MAX_ENTRIES = 1024;
+
+    // Access-ordered, so the least recently rendered fragment is evicted first
+    private static final Map<CacheKey, Component> CACHE = new LinkedHashMap<>(256, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<CacheKey, Component> eldest) {
+            return size() > MAX_ENTRIES;
+        }
+    };
+
+    private PixelText() {
+    }
+
+    /**
+     * Gets text as-is in the pixel font
+     * @param text The text
+     * @param color The text color
+     * @return Cached component
+     */
+    public static Component text(String text, TextColor color) {
+        return get(text, color, false, false);
+    }
+
+    /**
+     * Gets bold text as-is in the pixel font
+     * @param text The text
+     * @param color The text color
+     * @return Cached component
+     */
+    public static Component bold(String text, TextColor color) {
+        return get(text, color, true, false);
+    }
+
+    /**
+     * Gets a player or team name in lowercase (looks better in the pixel font)
+     * @param name The name
+     * @param color The text color
+     * @return Cached component
+     */
+    public static Component name(String name, TextColor color) {
+        return get(name, color, false, true);
+    }
+
+    /**
+     * Gets a bold player or team name in lowercase
+     * @param name The name
+     * @param color The text color
+     * @return Cached component
+     */
+    public static Component boldName(String name, TextColor color) {
+        return get(name, color, true, true);
+    }
+
+    // Synchronized so renders off the main thread can share the cache
+    private static synchronized Component get(String text, TextColor color, boolean bold, boolean lowercase) {
+        CacheKey key = new CacheKey(text, color, bold, lowercase);
+        Component component = CACHE.get(key);
+        if (component == null) {
+            component = Component.text(lowercase ? text.toLowerCase() : text)
+                .color(color)
+                .font(PIXEL_FONT);
+            if (bold) {
+                component = component.decorate(TextDecoration.BOLD);
+            }
+            CACHE.put(key, component);
+        }
+        return component;
+    }
+
+    private record CacheKey(String text, TextColor color, boolean bold, boolean lowercase) {
+    }
+}
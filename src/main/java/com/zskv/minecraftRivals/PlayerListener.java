@@ -1,8 +1,10 @@
 package com.zskv.minecraftRivals;
 
 import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
 import org.bukkit.event.Listener;
 import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.player.PlayerQuitEvent;
 
 /**
  * Handles player events and updates their scoreboard/tablist
@@ -15,9 +17,27 @@ public class PlayerListener implements Listener {
         this.plugin = plugin;
     }
 
-    @EventHandler
+    // Runs first, so other join handlers find the player's session
+    @EventHandler(priority = EventPriority.LOWEST)
     public void onPlayerJoin(PlayerJoinEvent event) {
-        // Setup the player's tablist (includes scoreboard assignment)
+        plugin.getOnlinePlayerIndex().add(event.getPlayer());
+
+        // Give the player their own sidebar scoreboard
+        plugin.getScoreboardManager().attach(event.getPlayer());
+
+        // Setup the player's tablist
         plugin.getTablistManager().setupPlayerTablist(event.getPlayer());
     }
+
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        // Still in Bukkit.getOnlinePlayers() during this event, but no longer in the index
+        plugin.getOnlinePlayerIndex().remove(event.getPlayer());
+
+        // Release the player's sidebar back to the pool
+        plugin.getScoreboardManager().detach(event.getPlayer());
+
+        // Show them as offline in everyone's tablist
+        plugin.getTablistManager().removePlayerTablist(event.getPlayer());
+    }
 }
\ No newline at end of file
@@ -0,0 +1,251 @@
+package com.zskv.minecraftRivals;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Records which player earned which points, for which team and in which game
+ * Players and teams get a slot the first time they score, and every total is
+ * kept in plain int arrays indexed by slot, so recording points and reading
+ * them for the HUD never allocates
+ * Filled from the {@link PointsLedger}, main thread only
+ */
+public class PlayerPointsStore {
+
+    private static final int NO_SLOT = -1;
+
+    private final MinecraftRivals plugin;
+
+    // Open-addressing table from UUID to player slot, always at most half full
+    private long[] keyHigh = new long[64];
+    private long[] keyLow = new long[64];
+    private int[] keySlots = newTable(64);
+
+    private int playerCount;
+    private UUID[] players = new UUID[32];
+    private int[] playerTotals = new int[32];
+    // Points per player per game, games are 1-based
+    private int[][] playerGamePoints = new int[32][];
+
+    private final Map<String, Integer> teamSlots = new HashMap<>();
+    private int teamCount;
+    private int[] teamTotals = new int[16];
+    private int[][] teamGamePoints = new int[16][];
+    // Points each player earned while on a team, by team slot then player slot
+    private int[][] teamPlayerPoints = new int[16][];
+
+    public PlayerPointsStore(MinecraftRivals plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Credits points to a player
+     * @param player The player's UUID
+     * @param team The team they earned the points for, or null
+     * @param game The game number they were earned in (1-based), below 1 they only count towards totals
+     * @param points Points earned (negative to take points away)
+     */
+    public void record(UUID player, String team, int game, int points) {
+        if (points == 0) {
+            return;
+        }
+
+        int slot = playerSlot(player, true);
+        playerTotals[slot] += points;
+        // Older ledgers may hold records from a game number that was never valid
+        if (game >= 1) {
+            playerGamePoints[slot] = grow(playerGamePoints[slot], game);
+            playerGamePoints[slot][game - 1] += points;
+        }
+
+        if (team != null) {
+            int teamSlot = teamSlot(team);
+            teamTotals[teamSlot] += points;
+            if (game >= 1) {
+                teamGamePoints[teamSlot] = grow(teamGamePoints[teamSlot], game);
+                teamGamePoints[teamSlot][game - 1] += points;
+            }
+            teamPlayerPoints[teamSlot] = grow(teamPlayerPoints[teamSlot], slot + 1);
+            teamPlayerPoints[teamSlot][slot] += points;
+        }
+    }
+
+    /**
+     * Gets everything a player earned
+     * @param player The player's UUID
+     * @return Total points, 0 if they never scored
+     */
+    public int getPoints(UUID player) {
+        int slot = playerSlot(player, false);
+        return slot == NO_SLOT ? 0 : playerTotals[slot];
+    }
+
+    /**
+     * Gets what a player earned in one game
+     * @param player The player's UUID
+     * @param game The game number (1-based)
+     * @return Points earned in that game
+     */
+    public int getPoints(UUID player, int game) {
+        int slot = playerSlot(player, false);
+        return slot == NO_SLOT ? 0 : valueAt(playerGamePoints[slot], game - 1);
+    }
+
+    /**
+     * Gets everything players earned for a team
+     * @param team The team name
+     * @return Total points recorded for the team
+     */
+    public int getTeamPoints(String team) {
+        Integer teamSlot = teamSlots.get(team);
+        return teamSlot == null ? 0 : teamTotals[teamSlot];
+    }
+
+    /**
+     * Gets what players earned for a team in one game
+     * @param team The team name
+     * @param game The game number (1-based)
+     * @return Points recorded for the team in that game
+     */
+    public int getTeamPoints(String team, int game) {
+        Integer teamSlot = teamSlots.get(team);
+        return teamSlot == null ? 0 : valueAt(teamGamePoints[teamSlot], game - 1);
+    }
+
+    /**
+     * Gets who earned a team's points, without walking scoreboard entries
+     * @param team The team name
+     * @return Points per contributing player, in the order they first scored
+     */
+    public Map<UUID, Integer> getTeamBreakdown(String team) {
+        Map<UUID, Integer> breakdown = new LinkedHashMap<>();
+        Integer teamSlot = teamSlots.get(team);
+        if (teamSlot == null || teamPlayerPoints[teamSlot] == null) {
+            return breakdown;
+        }
+
+        int[] points = teamPlayerPoints[teamSlot];
+        for (int slot = 0; slot < points.length; slot++) {
+            if (points[slot] != 0) {
+                breakdown.put(players[slot], points[slot]);
+            }
+        }
+        return breakdown;
+    }
+
+    /**
+     * Forgets every recorded point, e.g. for a new event
+     */
+    public void clear() {
+        Arrays.fill(keySlots, NO_SLOT);
+        Arrays.fill(players, 0, playerCount, null);
+        Arrays.fill(playerTotals, 0);
+        Arrays.fill(playerGamePoints, null);
+        playerCount = 0;
+
+        teamSlots.clear();
+        Arrays.fill(teamTotals, 0);
+        Arrays.fill(teamGamePoints, null);
+        Arrays.fill(teamPlayerPoints, null);
+        teamCount = 0;
+    }
+
+    private int playerSlot(UUID player, boolean create) {
+        long high = player.getMostSignificantBits();
+        long low = player.getLeastSignificantBits();
+        int mask = keySlots.length - 1;
+        int index = mix(high ^ low) & mask;
+        while (keySlots[index] != NO_SLOT) {
+            if (keyHigh[index] == high && keyLow[index] == low) {
+                return keySlots[index];
+            }
+            index = (index + 1) & mask;
+        }
+        if (!create) {
+            return NO_SLOT;
+        }
+
+        int slot = playerCount++;
+        if (slot == players.length) {
+            int capacity = players.length * 2;
+            players = Arrays.copyOf(players, capacity);
+            playerTotals = Arrays.copyOf(playerTotals, capacity);
+            playerGamePoints = Arrays.copyOf(playerGamePoints, capacity);
+        }
+        players[slot] = player;
+        keyHigh[index] = high;
+        keyLow[index] = low;
+        keySlots[index] = slot;
+
+        if (playerCount * 2 > keySlots.length) {
+            rehash(keySlots.length * 2);
+        }
+        return slot;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldHigh = keyHigh;
+        long[] oldLow = keyLow;
+        int[] oldSlots = keySlots;
+        keyHigh = new long[capacity];
+        keyLow = new long[capacity];
+        keySlots = newTable(capacity);
+
+        int mask = capacity - 1;
+        for (int i = 0; i < oldSlots.length; i++) {
+            if (oldSlots[i] == NO_SLOT) {
+                continue;
+            }
+            int index = mix(oldHigh[i] ^ oldLow[i]) & mask;
+            while (keySlots[index] != NO_SLOT) {
+                index = (index + 1) & mask;
+            }
+            keyHigh[index] = oldHigh[i];
+            keyLow[index] = oldLow[i];
+            keySlots[index] = oldSlots[i];
+        }
+    }
+
+    private int teamSlot(String team) {
+        Integer existing = teamSlots.get(team);
+        if (existing != null) {
+            return existing;
+        }
+
+        int slot = teamCount++;
+        if (slot == teamTotals.length) {
+            int capacity = teamTotals.length * 2;
+            teamTotals = Arrays.copyOf(teamTotals, capacity);
+            teamGamePoints = Arrays.copyOf(teamGamePoints, capacity);
+            teamPlayerPoints = Arrays.copyOf(teamPlayerPoints, capacity);
+        }
+        teamSlots.put(team, slot);
+        return slot;
+    }
+
+    // Sized to the configured number of games so most players only get one array
+    private int[] grow(int[] values, int size) {
+        if (values == null) {
+            return new int[Math.max(size, plugin.getSettings().totalGames())];
+        }
+        return values.length >= size ? values : Arrays.copyOf(values, Math.max(size, values.length * 2));
+    }
+
+    private static int valueAt(int[] values, int index) {
+        return values == null || index < 0 || index >= values.length ? 0 : values[index];
+    }
+
+    private static int[] newTable(int capacity) {
+        int[] table = new int[capacity];
+        Arrays.fill(table, NO_SLOT);
+        return table;
+    }
+
+    private static int mix(long hash) {
+        hash *= 0x9E3779B97F4A7C15L;
+        return (int) (hash ^ (hash >>> 32));
+    }
+}
@@ -0,0 +1,113 @@
+package com.zskv.minecraftRivals;
+
+import org.bukkit.entity.Player;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * What the plugin knows about an online player, kept up to date as it changes
+ * Created on join and dropped on quit, so event handlers read their team and
+ * minigame data from fields instead of looking them up on the scoreboard
+ * Main thread only
+ */
+public class PlayerSession {
+
+    private final UUID uniqueId;
+    private Player player;
+    private String name;
+
+    private String teamName;
+    private TeamRegistry.TeamInfo team;
+    private Object gameContext;
+
+    private final Map<String, Long> cooldowns = new HashMap<>();
+
+    PlayerSession(Player player) {
+        this.uniqueId = player.getUniqueId();
+        this.player = player;
+        this.name = player.getName();
+    }
+
+    public UUID getUniqueId() {
+        return uniqueId;
+    }
+
+    public Player getPlayer() {
+        return player;
+    }
+
+    /**
+     * @return The name they joined with, which is their scoreboard entry
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return Their team's name, or null if they are not on a team
+     */
+    public String getTeamName() {
+        return teamName;
+    }
+
+    /**
+     * @return Their team, or null if they are not on a configured team
+     */
+    public TeamRegistry.TeamInfo getTeam() {
+        return team;
+    }
+
+    /**
+     * Gets the running minigame's data for their team
+     * @param type The minigame's team data class
+     * @return The data, or null if no game of that type is running or their team is not in it
+     */
+    public <T> T getGameContext(Class<T> type) {
+        return type.isInstance(gameContext) ? type.cast(gameContext) : null;
+    }
+
+    /**
+     * Starts a cooldown if the last one has run out
+     * @param key What the cooldown is for
+     * @param millis How long it lasts
+     * @return true if the action may go ahead
+     */
+    public boolean tryCooldown(String key, long millis) {
+        if (getCooldownRemaining(key, millis) > 0) {
+            return false;
+        }
+        cooldowns.put(key, System.currentTimeMillis());
+        return true;
+    }
+
+    /**
+     * @return Milliseconds left of the cooldown, 0 if it has run out
+     */
+    public long getCooldownRemaining(String key, long millis) {
+        Long started = cooldowns.get(key);
+        if (started == null) {
+            return 0;
+        }
+        return Math.max(0, started + millis - System.currentTimeMillis());
+    }
+
+    public void clearCooldowns() {
+        cooldowns.clear();
+    }
+
+    void setPlayer(Player player) {
+        this.player = player;
+        this.name = player.getName();
+    }
+
+    void setTeam(String teamName, TeamRegistry.TeamInfo team) {
+        this.teamName = teamName;
+        this.team = team;
+    }
+
+    void setGameContext(Object gameContext) {
+        this.gameContext = gameContext;
+    }
+}
@@ -0,0 +1,333 @@
+package com.zskv.minecraftRivals;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only log of every point change, kept in a memory-mapped file
+ * Records are never edited - a mistake is fixed by appending an undo record
+ * Each record is length-prefixed and checksummed, so a torn write at the end
+ * of the file (crash, power loss) is detected on replay and cut off
+ * Appends only write to the mapping. Syncing to disk is left to a background
+ * thread, which catches up on everything appended since its last sync in one go,
+ * so a slow disk never stalls the tick
+ * Main thread only, except the syncer
+ */
+public class PointsLedger {
+
+    /**
+     * What a record's points count towards
+     */
+    public enum Scope {
+        // Event points - the "points" objective and team totals
+        EVENT,
+        // Points scored inside a minigame, kept for the history
+        // They reach the event totals through ScoringEngine when the game ends
+        GAME
+    }
+
+    /**
+     * One point change
+     * @param sequence Position in the ledger, starting at 0
+     * @param timestamp When it was recorded (epoch millis)
+     * @param scope What the points count towards
+     * @param undoes Sequence of the record this one reverts, or -1
+     * @param player The player's UUID, or null if it was unknown
+     * @param entry The scoreboard entry (player name)
+     * @param team The player's team at the time, or null
+     * @param game The game number at the time
+     * @param delta Points added (negative when points were removed)
+     * @param reason Why the points changed
+     */
+    public record Record(long sequence, long timestamp, Scope scope, long undoes, UUID player,
+                         String entry, String team, int game, int delta, String reason) {
+
+        public boolean isUndo() {
+            return undoes >= 0;
+        }
+    }
+
+    private static final int MAGIC = 0x4D43524C; // "MCRL"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    // Length and checksum in front of every record
+    private static final int RECORD_HEADER_SIZE = 8;
+    private static final int INITIAL_SIZE = 1 << 20;
+
+    private final File file;
+    private final Logger logger;
+
+    private FileChannel channel;
+    private volatile MappedByteBuffer buffer;
+    private volatile int position;
+
+    private final ExecutorService syncer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "MCR-Ledger");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Set while a sync is queued, so a burst of appends queues only one
+    private final AtomicBoolean syncQueued = new AtomicBoolean();
+    // Syncer thread only - everything before this is on disk
+    private int syncedTo;
+
+    private final List<Record> records = new ArrayList<>();
+    private final BitSet undone = new BitSet();
+
+    public PointsLedger(File file, Logger logger) {
+        this.file = file;
+        this.logger = logger;
+    }
+
+    /**
+     * Opens the ledger file and reads every record in it
+     * @return The records, oldest first
+     * @throws IOException If the file can't be opened or isn't a ledger
+     */
+    public List<Record> open() throws IOException {
+        file.getParentFile().mkdirs();
+        channel = FileChannel.open(file.toPath(),
+            StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), INITIAL_SIZE));
+
+        int magic = buffer.getInt(0);
+        if (magic == 0) {
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+        } else if (magic != MAGIC || buffer.getInt(4) != VERSION) {
+            throw new IOException(file + " is not a points ledger");
+        }
+
+        records.clear();
+        undone.clear();
+        position = HEADER_SIZE;
+        replay();
+        syncedTo = position;
+        return Collections.unmodifiableList(records);
+    }
+
+    private void replay() {
+        CRC32 crc = new CRC32();
+        while (position + RECORD_HEADER_SIZE <= buffer.capacity()) {
+            int length = buffer.getInt(position);
+            if (length == 0) {
+                return;
+            }
+
+            int checksum = buffer.getInt(position + 4);
+            int start = position + RECORD_HEADER_SIZE;
+            // Compared without adding, a damaged length near Integer.MAX_VALUE would overflow
+            if (length < 0 || length > buffer.capacity() - start
+                || checksum != checksum(crc, buffer.slice(start, length))) {
+                logger.warning("Points ledger is damaged after record " + records.size()
+                    + ", dropping the rest of the file");
+                // Appends continue from here, so nothing after this point can be read back by mistake
+                for (int i = position; i < buffer.capacity(); i++) {
+                    buffer.put(i, (byte) 0);
+                }
+                return;
+            }
+
+            Record record = read(records.size(), buffer.slice(start, length));
+            add(record);
+            position = start + length;
+        }
+    }
+
+    /**
+     * Appends a record to the mapping and queues a sync
+     * A crash before the sync loses at most the newest records, which replay cuts off cleanly
+     * @return The record, with its sequence number
+     * @throws IOException If the file could not be grown
+     */
+    public Record append(Scope scope, long undoes, UUID player, String entry, String team,
+                         int game, int delta, String reason) throws IOException {
+        Record record = new Record(records.size(), System.currentTimeMillis(), scope, undoes,
+            player, entry, team, game, delta, reason);
+
+        byte[] payload = write(record);
+        ensureCapacity(position + RECORD_HEADER_SIZE + payload.length + RECORD_HEADER_SIZE);
+
+        int start = position + RECORD_HEADER_SIZE;
+        buffer.put(start, payload);
+        buffer.putInt(position + 4, checksum(new CRC32(), ByteBuffer.wrap(payload)));
+        // Length last - until it is written, replay sees the end of the ledger
+        buffer.putInt(position, payload.length);
+
+        position = start + payload.length;
+        add(record);
+        if (syncQueued.compareAndSet(false, true)) {
+            syncer.execute(this::sync);
+        }
+        return record;
+    }
+
+    /**
+     * Syncs everything appended since the last sync, on the syncer
+     */
+    private void sync() {
+        // Cleared first, so an append from here on queues another sync
+        syncQueued.set(false);
+        MappedByteBuffer mapped = buffer;
+        if (mapped == null) {
+            return;
+        }
+        // The mapping may have been replaced since, growing it syncs the old one first
+        int end = Math.min(position, mapped.capacity());
+        if (end <= syncedTo) {
+            return;
+        }
+        try {
+            mapped.force(syncedTo, end - syncedTo);
+            syncedTo = end;
+        } catch (RuntimeException e) {
+            logger.warning("Failed to sync the points ledger: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Finds the newest event record that has not been undone yet
+     * @return The record, or null if there is nothing to undo
+     */
+    public Record findUndoable() {
+        for (int i = records.size() - 1; i >= 0; i--) {
+            Record record = records.get(i);
+            if (record.scope() == Scope.EVENT && !record.isUndo() && !undone.get(i)) {
+                return record;
+            }
+        }
+        return null;
+    }
+
+    public boolean isUndone(Record record) {
+        return undone.get((int) record.sequence());
+    }
+
+    /**
+     * Gets the newest records
+     * @param limit How many to return at most
+     * @return The records, newest first
+     */
+    public List<Record> getRecent(int limit) {
+        List<Record> recent = new ArrayList<>(Math.min(limit, records.size()));
+        for (int i = records.size() - 1; i >= 0 && recent.size() < limit; i--) {
+            recent.add(records.get(i));
+        }
+        return recent;
+    }
+
+    public int size() {
+        return records.size();
+    }
+
+    public void close() {
+        syncer.shutdown();
+        try {
+            if (!syncer.awaitTermination(5, TimeUnit.SECONDS)) {
+                logger.warning("Points ledger sync did not finish in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (buffer != null) {
+            buffer.force();
+            buffer = null;
+        }
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                logger.warning("Failed to close the points ledger: " + e.getMessage());
+            }
+            channel = null;
+        }
+    }
+
+    private void add(Record record) {
+        records.add(record);
+        if (record.isUndo()) {
+            undone.set((int) record.undoes());
+        }
+    }
+
+    private void ensureCapacity(int size) throws IOException {
+        if (size <= buffer.capacity()) {
+            return;
+        }
+        long capacity = buffer.capacity();
+        while (capacity < size) {
+            capacity *= 2;
+        }
+        buffer.force();
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+
+    private static int checksum(CRC32 crc, ByteBuffer data) {
+        crc.reset();
+        crc.update(data);
+        return (int) crc.getValue();
+    }
+
+    private static byte[] write(Record record) {
+        byte[] entry = record.entry().getBytes(StandardCharsets.UTF_8);
+        byte[] team = record.team() != null ? record.team().getBytes(StandardCharsets.UTF_8) : new byte[0];
+        byte[] reason = record.reason().getBytes(StandardCharsets.UTF_8);
+
+        ByteBuffer out = ByteBuffer.allocate(8 + 1 + 8 + 1 + 16 + 4 + 4 + 6 + entry.length + team.length + reason.length);
+        out.putLong(record.timestamp());
+        out.put((byte) record.scope().ordinal());
+        out.putLong(record.undoes());
+        out.put((byte) (record.player() != null ? 1 : 0));
+        out.putLong(record.player() != null ? record.player().getMostSignificantBits() : 0);
+        out.putLong(record.player() != null ? record.player().getLeastSignificantBits() : 0);
+        out.putInt(record.game());
+        out.putInt(record.delta());
+        putString(out, entry);
+        putString(out, team);
+        putString(out, reason);
+        return out.array();
+    }
+
+    private static Record read(long sequence, ByteBuffer in) {
+        long timestamp = in.getLong();
+        Scope scope = Scope.values()[in.get()];
+        long undoes = in.getLong();
+        boolean hasPlayer = in.get() == 1;
+        long most = in.getLong();
+        long least = in.getLong();
+        int game = in.getInt();
+        int delta = in.getInt();
+        String entry = getString(in);
+        String team = getString(in);
+        String reason = getString(in);
+        return new Record(sequence, timestamp, scope, undoes, hasPlayer ? new UUID(most, least) : null,
+            entry, team.isEmpty() ? null : team, game, delta, reason);
+    }
+
+    private static void putString(ByteBuffer out, byte[] bytes) {
+        out.putShort((short) bytes.length);
+        out.put(bytes);
+    }
+
+    private static String getString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getShort() & 0xFFFF];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,149 @@
+package com.zskv.minecraftRivals;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.entity.ArmorStand;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitRunnable;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Plays a recorded round back to one viewer
+ * Players are shown as named armor stands only the viewer can see, and
+ * serves, votes, team changes and phases are printed to their chat
+ */
+public class ReplayPlayback {
+
+    private static final String STAND_TAG = "mcr_replay";
+
+    private final MinecraftRivals plugin;
+    private final Player viewer;
+    private final ReplayReader.Replay replay;
+    private final int speed;
+    private final Runnable onFinish;
+
+    private final Map<UUID, ArmorStand> stands = new HashMap<>();
+    private BukkitRunnable task;
+    private int tick;
+    private int frameIndex;
+    private int eventIndex;
+
+    /**
+     * @param speed Recorded ticks played per server tick
+     * @param onFinish Called once the playback ends on its own
+     */
+    public ReplayPlayback(MinecraftRivals plugin, Player viewer, ReplayReader.Replay replay, int speed,
+                          Runnable onFinish) {
+        this.plugin = plugin;
+        this.viewer = viewer;
+        this.replay = replay;
+        this.speed = Math.max(1, speed);
+        this.onFinish = onFinish;
+    }
+
+    public void start() {
+        viewer.sendMessage(Component.text("Playing " + replay.name() + " (" + formatTime(replay.duration())
+            + (speed > 1 ? ", " + speed + "x" : "") + ")", NamedTextColor.GOLD, TextDecoration.BOLD));
+
+        task = new BukkitRunnable() {
+            @Override
+            public void run() {
+                if (!viewer.isOnline()) {
+                    finish();
+                    return;
+                }
+                tick += speed;
+                advance();
+                if (tick > replay.duration()) {
+                    viewer.sendMessage(Component.text("Replay finished", NamedTextColor.GOLD));
+                    finish();
+                }
+            }
+        };
+        task.runTaskTimer(plugin, 0L, 1L);
+    }
+
+    /**
+     * Stops playing and removes the stands
+     */
+    public void stop() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        for (ArmorStand stand : stands.values()) {
+            stand.remove();
+        }
+        stands.clear();
+    }
+
+    private void finish() {
+        stop();
+        onFinish.run();
+    }
+
+    private void advance() {
+        while (frameIndex < replay.frames().size() && replay.frames().get(frameIndex).tick() <= tick) {
+            show(replay.frames().get(frameIndex++));
+        }
+        while (eventIndex < replay.events().size() && replay.events().get(eventIndex).tick() <= tick) {
+            viewer.sendMessage(describe(replay.events().get(eventIndex++)));
+        }
+    }
+
+    private void show(ReplayReader.Frame frame) {
+        World world = frame.world() != null ? Bukkit.getWorld(frame.world()) : null;
+        if (frame.player() == null || world == null) {
+            return;
+        }
+        Location location = new Location(world, frame.x(), frame.y(), frame.z(), frame.yaw(), 0);
+
+        ArmorStand stand = stands.get(frame.player());
+        if (stand != null && stand.isValid()) {
+            stand.teleport(location);
+            return;
+        }
+        stand = world.spawn(location, ArmorStand.class, spawned -> {
+            spawned.setVisibleByDefault(false);
+            spawned.setPersistent(false);
+            spawned.setGravity(false);
+            spawned.setInvulnerable(true);
+            spawned.setGlowing(true);
+            spawned.customName(Component.text(playerName(frame.player()), NamedTextColor.YELLOW));
+            spawned.setCustomNameVisible(true);
+            spawned.addScoreboardTag(STAND_TAG);
+        });
+        viewer.showEntity(plugin, stand);
+        stands.put(frame.player(), stand);
+    }
+
+    private Component describe(ReplayReader.Event event) {
+        Component time = Component.text("[" + formatTime(event.tick()) + "] ", NamedTextColor.DARK_GRAY);
+        String player = playerName(event.player());
+        Component line = switch (event.type()) {
+            case ReplayRecorder.SERVE -> Component.text(player + " served " + event.detail() + " for "
+                + event.subject() + " (+" + event.value() + ")", NamedTextColor.GREEN);
+            case ReplayRecorder.VOTE -> Component.text(player + " voted for " + event.subject(), NamedTextColor.AQUA);
+            case ReplayRecorder.TEAM -> Component.text(event.subject() != null
+                ? player + " joined " + event.subject() : player + " left their team", NamedTextColor.YELLOW);
+            default -> Component.text("Phase: " + event.subject(), NamedTextColor.GOLD);
+        };
+        return time.append(line);
+    }
+
+    private String playerName(UUID player) {
+        return player != null ? replay.players().getOrDefault(player, player.toString()) : "?";
+    }
+
+    static String formatTime(int ticks) {
+        int seconds = ticks / 20;
+        return String.format("%d:%02d", seconds / 60, seconds % 60);
+    }
+}
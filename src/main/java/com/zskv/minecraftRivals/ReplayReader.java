@@ -0,0 +1,137 @@
+package com.zskv.minecraftRivals;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Reads a round back from a file written by {@link ReplayRecorder}
+ * Files cut short by a crash are read up to the last complete record
+ * Safe to use off the main thread
+ */
+public final class ReplayReader {
+
+    /**
+     * A recorded round
+     * @param name The round's name, e.g. "dishdash"
+     * @param startedAt When recording started (epoch millis)
+     * @param duration Ticks between the start and the last record
+     * @param complete false if the file ends before the round did
+     * @param players Every recorded player's name by UUID
+     */
+    public record Replay(String name, long startedAt, int duration, boolean complete,
+                         Map<UUID, String> players, List<Frame> frames, List<Event> events) {
+    }
+
+    /**
+     * Where a player was
+     */
+    public record Frame(int tick, UUID player, String world, float x, float y, float z, float yaw) {
+    }
+
+    /**
+     * Something that happened during the round
+     * @param type One of the {@link ReplayRecorder} record types
+     * @param player The player, or null for a phase change
+     * @param subject The team, game voted for or phase
+     * @param value Points, for serves
+     * @param detail The dish, for serves
+     */
+    public record Event(int tick, byte type, UUID player, String subject, int value, String detail) {
+    }
+
+    private ReplayReader() {
+    }
+
+    /**
+     * @return The replay files, newest first
+     */
+    public static List<File> list(File folder) {
+        List<File> files = new ArrayList<>();
+        File[] found = folder.listFiles((dir, name) -> name.endsWith(ReplayRecorder.FILE_EXTENSION));
+        if (found != null) {
+            for (File file : found) {
+                files.add(file);
+            }
+        }
+        files.sort((a, b) -> b.getName().compareTo(a.getName()));
+        return files;
+    }
+
+    /**
+     * Reads a whole replay
+     * @throws IOException If the file can't be read or isn't a replay
+     */
+    public static Replay read(File file) throws IOException {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != ReplayRecorder.MAGIC || in.readInt() != ReplayRecorder.VERSION) {
+                throw new IOException(file.getName() + " is not a replay of this version");
+            }
+            long startedAt = in.readLong();
+            String name = readString(in);
+
+            Map<Short, UUID> playerIds = new HashMap<>();
+            Map<Short, String> strings = new HashMap<>();
+            Map<UUID, String> players = new HashMap<>();
+            List<Frame> frames = new ArrayList<>();
+            List<Event> events = new ArrayList<>();
+            int duration = 0;
+            boolean complete = false;
+
+            try {
+                while (!complete) {
+                    byte type = in.readByte();
+                    int tick = in.readInt();
+                    duration = Math.max(duration, tick);
+                    switch (type) {
+                        case ReplayRecorder.PLAYER -> {
+                            short id = in.readShort();
+                            UUID uuid = new UUID(in.readLong(), in.readLong());
+                            playerIds.put(id, uuid);
+                            players.put(uuid, readString(in));
+                        }
+                        case ReplayRecorder.STRING -> {
+                            short id = in.readShort();
+                            strings.put(id, readString(in));
+                        }
+                        case ReplayRecorder.POSITION -> frames.add(new Frame(tick, playerIds.get(in.readShort()),
+                            strings.get(in.readShort()), in.readFloat(), in.readFloat(), in.readFloat(), in.readFloat()));
+                        case ReplayRecorder.TEAM -> events.add(new Event(tick, type, playerIds.get(in.readShort()),
+                            strings.get(in.readShort()), 0, null));
+                        case ReplayRecorder.SERVE -> {
+                            UUID player = playerIds.get(in.readShort());
+                            String team = strings.get(in.readShort());
+                            int points = in.readInt();
+                            events.add(new Event(tick, type, player, team, points, strings.get(in.readShort())));
+                        }
+                        case ReplayRecorder.VOTE -> events.add(new Event(tick, type, playerIds.get(in.readShort()),
+                            strings.get(in.readShort()), 0, null));
+                        case ReplayRecorder.PHASE -> events.add(new Event(tick, type, null,
+                            strings.get(in.readShort()), 0, null));
+                        case ReplayRecorder.END -> complete = true;
+                        default -> throw new IOException(file.getName() + " has an unknown record type " + type);
+                    }
+                }
+            } catch (EOFException e) {
+                // Cut short, keep what was recorded
+            }
+
+            return new Replay(name, startedAt, duration, complete, players, frames, events);
+        }
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readShort() & 0xFFFF];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
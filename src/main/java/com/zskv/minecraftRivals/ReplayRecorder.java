@@ -0,0 +1,457 @@
+package com.zskv.minecraftRivals;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Location;
+import org.bukkit.entity.Player;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records event rounds into append-only binary replay files, for post-event review and disputes
+ * Records go into a ring of preallocated chunks on the main thread; full chunks
+ * (and partial ones once a second) are handed to a background writer, which
+ * returns them to the ring once written. If the writer falls behind, records are
+ * dropped and counted rather than blocking the tick
+ * Per tick the cost is bounded by one position record per online player, taken
+ * every replay.position-interval-ticks
+ * Main thread only, except the writer
+ */
+public class ReplayRecorder {
+
+    static final int MAGIC = 0x4D435252; // "MCRR"
+    static final int VERSION = 1;
+
+    // Record types - every record is the type, the tick since the round started, then its fields
+    static final byte PLAYER = 1;   // id, UUID, name
+    static final byte STRING = 2;   // id, value (worlds, teams, games, phases, dishes)
+    static final byte POSITION = 3; // player, world, x, y, z, yaw
+    static final byte TEAM = 4;     // player, team (-1 when they left)
+    static final byte SERVE = 5;    // player, team, points, dish
+    static final byte VOTE = 6;     // player, game
+    static final byte PHASE = 7;    // phase
+    static final byte END = 8;
+
+    static final String FILE_EXTENSION = ".mcrr";
+
+    private static final int CHUNK_SIZE = 64 * 1024;
+    // Partial chunks are handed to the writer at least this often
+    private static final int HANDOFF_TICKS = 20;
+
+    private final MinecraftRivals plugin;
+    private final File folder;
+
+    private final BlockingQueue<ByteBuffer> freeChunks;
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "MCR-Replay");
+        thread.setDaemon(true);
+        return thread;
+    });
+    // Writer thread only
+    private FileChannel channel;
+
+    private String round;
+    private int startTick;
+    private int lastHandoff;
+    private ByteBuffer chunk;
+    private long dropped;
+    private BukkitTask sampleTask;
+
+    // Ids are per file, each is defined by a PLAYER or STRING record before its first use
+    private final Map<UUID, Short> playerIds = new HashMap<>();
+    private final Map<String, Short> stringIds = new HashMap<>();
+
+    private final Map<UUID, ReplayPlayback> playbacks = new HashMap<>();
+
+    public ReplayRecorder(MinecraftRivals plugin) {
+        this.plugin = plugin;
+        this.folder = new File(plugin.getDataFolder(), "replays");
+
+        int chunks = plugin.getSettings().replayBufferChunks();
+        this.freeChunks = new ArrayBlockingQueue<>(chunks);
+        for (int i = 0; i < chunks; i++) {
+            freeChunks.add(ByteBuffer.allocate(CHUNK_SIZE));
+        }
+
+        EventBus events = plugin.getEventBus();
+        events.subscribe(RivalsEvent.PhaseChanged.class, batch -> batch.stream()
+            .filter(event -> event.round().equals(round))
+            .forEach(event -> recordPhase(event.phase())));
+        events.subscribe(RivalsEvent.TeamMembershipChanged.class, batch -> batch
+            .forEach(event -> recordTeamChange(event.entry(), event.newTeam())));
+        events.subscribe(RivalsEvent.CustomerServed.class, batch -> batch
+            .forEach(event -> recordServe(event.player(), event.team(), event.points(), event.dish())));
+        events.subscribe(RivalsEvent.VoteCast.class, batch -> batch
+            .forEach(event -> recordVote(event.player(), event.game())));
+    }
+
+    public File getFolder() {
+        return folder;
+    }
+
+    /**
+     * Starts recording a round to a new file, ending the round being recorded
+     * @param name The round's name, e.g. "dishdash"
+     */
+    public void startRound(String name) {
+        if (!plugin.getSettings().replayEnabled()) {
+            return;
+        }
+        if (round != null) {
+            endRound(round);
+        }
+
+        round = name;
+        startTick = Bukkit.getCurrentTick();
+        lastHandoff = startTick;
+        dropped = 0;
+        playerIds.clear();
+        stringIds.clear();
+
+        File file = new File(folder, new SimpleDateFormat("yyyy-MM-dd_HH-mm-ss").format(new Date())
+            + "_" + name + FILE_EXTENSION);
+        long startedAt = System.currentTimeMillis();
+        writer.execute(() -> open(file, name, startedAt));
+
+        int interval = plugin.getSettings().replayPositionIntervalTicks();
+        sampleTask = Bukkit.getScheduler().runTaskTimer(plugin, this::sample, 0L, interval);
+    }
+
+    /**
+     * Ends the round, if it is the one being recorded
+     * @param name The round's name
+     */
+    public void endRound(String name) {
+        if (round == null || !round.equals(name)) {
+            return;
+        }
+
+        // The round's last phases and serves are still queued on the bus
+        plugin.getEventBus().flush();
+        if (reserve(0)) {
+            putEnd(chunk, tick());
+        }
+        round = null;
+        if (sampleTask != null) {
+            sampleTask.cancel();
+            sampleTask = null;
+        }
+        handOff();
+        writer.execute(this::close);
+
+        if (dropped > 0) {
+            plugin.getLogger().warning("Replay of " + name + " dropped " + dropped
+                + " records, the writer could not keep up");
+        }
+    }
+
+    public boolean isRecording() {
+        return round != null;
+    }
+
+    /**
+     * A round moved to a new phase, e.g. the final countdown
+     */
+    public void recordPhase(String phase) {
+        if (round == null) {
+            return;
+        }
+        short id = stringId(phase);
+        if (id >= 0 && reserve(2)) {
+            putPhase(chunk, tick(), id);
+        }
+    }
+
+    /**
+     * A player joined a team, or left theirs
+     * @param entry The player's name
+     * @param team The new team, or null
+     */
+    public void recordTeamChange(String entry, String team) {
+        Player player = Bukkit.getPlayerExact(entry);
+        if (round == null || player == null) {
+            return;
+        }
+        short playerId = playerId(player);
+        short teamId = team != null ? stringId(team) : -1;
+        if (playerId >= 0 && (team == null || teamId >= 0) && reserve(4)) {
+            putTeam(chunk, tick(), playerId, teamId);
+        }
+    }
+
+    /**
+     * A player served a customer
+     */
+    public void recordServe(Player player, String team, int points, String dish) {
+        if (round == null) {
+            return;
+        }
+        short playerId = playerId(player);
+        short teamId = stringId(team);
+        short dishId = stringId(dish);
+        if (playerId >= 0 && teamId >= 0 && dishId >= 0 && reserve(10)) {
+            putServe(chunk, tick(), playerId, teamId, points, dishId);
+        }
+    }
+
+    /**
+     * A player voted for a game
+     */
+    public void recordVote(Player player, String game) {
+        if (round == null) {
+            return;
+        }
+        short playerId = playerId(player);
+        short gameId = stringId(game);
+        if (playerId >= 0 && gameId >= 0 && reserve(4)) {
+            putVote(chunk, tick(), playerId, gameId);
+        }
+    }
+
+    /**
+     * Plays a replay to a viewer, replacing the one they were watching
+     */
+    public void play(Player viewer, ReplayReader.Replay replay, int speed) {
+        stopPlayback(viewer.getUniqueId());
+        ReplayPlayback playback = new ReplayPlayback(plugin, viewer, replay, speed,
+            () -> playbacks.remove(viewer.getUniqueId()));
+        playbacks.put(viewer.getUniqueId(), playback);
+        playback.start();
+    }
+
+    /**
+     * @return false if the viewer was not watching anything
+     */
+    public boolean stopPlayback(UUID viewer) {
+        ReplayPlayback playback = playbacks.remove(viewer);
+        if (playback == null) {
+            return false;
+        }
+        playback.stop();
+        return true;
+    }
+
+    /**
+     * Ends the current round and waits for it to be written
+     */
+    public void stop() {
+        for (ReplayPlayback playback : playbacks.values().toArray(new ReplayPlayback[0])) {
+            playback.stop();
+        }
+        playbacks.clear();
+
+        if (round != null) {
+            endRound(round);
+        }
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Replay writer did not finish in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void sample() {
+        for (Player player : Bukkit.getOnlinePlayers()) {
+            short playerId = playerId(player);
+            short worldId = stringId(player.getWorld().getName());
+            if (playerId < 0 || worldId < 0 || !reserve(20)) {
+                continue;
+            }
+            Location location = player.getLocation();
+            putPosition(chunk, tick(), playerId, worldId, (float) location.getX(), (float) location.getY(),
+                (float) location.getZ(), location.getYaw());
+        }
+
+        if (Bukkit.getCurrentTick() - lastHandoff >= HANDOFF_TICKS) {
+            handOff();
+        }
+    }
+
+    /**
+     * Makes room for a record in the current chunk
+     * @param size Size of the record's fields
+     * @return false if there is no free chunk and the record is dropped
+     */
+    private boolean reserve(int size) {
+        if (chunk != null && chunk.remaining() < 5 + size) {
+            handOff();
+        }
+        if (chunk == null) {
+            chunk = freeChunks.poll();
+            if (chunk == null) {
+                dropped++;
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int tick() {
+        return Bukkit.getCurrentTick() - startTick;
+    }
+
+    private void handOff() {
+        lastHandoff = Bukkit.getCurrentTick();
+        if (chunk == null || chunk.position() == 0) {
+            return;
+        }
+        ByteBuffer full = chunk;
+        chunk = null;
+        full.flip();
+        writer.execute(() -> write(full));
+    }
+
+    private short playerId(Player player) {
+        Short id = playerIds.get(player.getUniqueId());
+        if (id != null) {
+            return id;
+        }
+
+        byte[] name = player.getName().getBytes(StandardCharsets.UTF_8);
+        if (!reserve(20 + name.length)) {
+            return -1;
+        }
+        short newId = (short) playerIds.size();
+        putPlayer(chunk, tick(), newId, player.getUniqueId(), name);
+        playerIds.put(player.getUniqueId(), newId);
+        return newId;
+    }
+
+    private short stringId(String value) {
+        Short id = stringIds.get(value);
+        if (id != null) {
+            return id;
+        }
+
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (!reserve(4 + bytes.length)) {
+            return -1;
+        }
+        short newId = (short) stringIds.size();
+        putString(chunk, tick(), newId, bytes);
+        stringIds.put(value, newId);
+        return newId;
+    }
+
+    private void open(File file, String name, long startedAt) {
+        try {
+            folder.mkdirs();
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            ByteBuffer header = header(name, startedAt);
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to create replay " + file.getName() + ": " + e.getMessage());
+            channel = null;
+        }
+    }
+
+    private void write(ByteBuffer buffer) {
+        try {
+            if (channel != null) {
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+            }
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to write replay: " + e.getMessage());
+        } finally {
+            buffer.clear();
+            freeChunks.offer(buffer);
+        }
+    }
+
+    private void close() {
+        if (channel == null) {
+            return;
+        }
+        try {
+            channel.close();
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to close replay: " + e.getMessage());
+        }
+        channel = null;
+    }
+
+    // Encoders for the file layout, kept free of server state so tests write files the same way
+
+    /**
+     * @return The file header, ready to be written
+     */
+    static ByteBuffer header(String name, long startedAt) {
+        byte[] nameBytes = name.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer header = ByteBuffer.allocate(18 + nameBytes.length);
+        header.putInt(MAGIC).putInt(VERSION).putLong(startedAt).putShort((short) nameBytes.length).put(nameBytes);
+        return header.flip();
+    }
+
+    /**
+     * Writes the type and tick every record starts with
+     */
+    static void startRecord(ByteBuffer buffer, byte type, int tick) {
+        buffer.put(type).putInt(tick);
+    }
+
+    static void putPlayer(ByteBuffer buffer, int tick, short id, UUID uuid, byte[] name) {
+        startRecord(buffer, PLAYER, tick);
+        buffer.putShort(id)
+            .putLong(uuid.getMostSignificantBits())
+            .putLong(uuid.getLeastSignificantBits())
+            .putShort((short) name.length)
+            .put(name);
+    }
+
+    static void putString(ByteBuffer buffer, int tick, short id, byte[] value) {
+        startRecord(buffer, STRING, tick);
+        buffer.putShort(id).putShort((short) value.length).put(value);
+    }
+
+    static void putPosition(ByteBuffer buffer, int tick, short player, short world,
+                            float x, float y, float z, float yaw) {
+        startRecord(buffer, POSITION, tick);
+        buffer.putShort(player).putShort(world).putFloat(x).putFloat(y).putFloat(z).putFloat(yaw);
+    }
+
+    static void putTeam(ByteBuffer buffer, int tick, short player, short team) {
+        startRecord(buffer, TEAM, tick);
+        buffer.putShort(player).putShort(team);
+    }
+
+    static void putServe(ByteBuffer buffer, int tick, short player, short team, int points, short dish) {
+        startRecord(buffer, SERVE, tick);
+        buffer.putShort(player).putShort(team).putInt(points).putShort(dish);
+    }
+
+    static void putVote(ByteBuffer buffer, int tick, short player, short game) {
+        startRecord(buffer, VOTE, tick);
+        buffer.putShort(player).putShort(game);
+    }
+
+    static void putPhase(ByteBuffer buffer, int tick, short phase) {
+        startRecord(buffer, PHASE, tick);
+        buffer.putShort(phase);
+    }
+
+    static void putEnd(ByteBuffer buffer, int tick) {
+        startRecord(buffer, END, tick);
+    }
+}
@@ -0,0 +1,101 @@
+package com.zskv.minecraftRivals;
+
+import org.bukkit.ChatColor;
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Typed, immutable copy of config.yml
+ * Built on enable and replaced as a whole by /mcr reload, so rendering and
+ * tab completion read plain fields instead of copying lists out of the YAML
+ * tree, and running managers see a reload on their next read
+ * Thread pool and buffer sizes are only read on startup
+ * @param visibleTeams Teams shown in the standings, in config order
+ * @param messages Chat messages by key, with & color codes translated
+ * @param layouts Sidebar layout entries by layout name
+ */
+public record RivalsConfig(
+    List<String> visibleTeams,
+    Set<String> visibleTeamSet,
+    List<String> backlogTeams,
+    int maxPlayersPerTeam,
+    int totalGames,
+    List<Double> multipliers,
+    Map<String, String> messages,
+    boolean nativeTablist,
+    String tablistFooter,
+    boolean announceOvertakes,
+    int renderThreads,
+    Map<String, List<String>> layouts,
+    int checkpointIntervalSeconds,
+    boolean replayEnabled,
+    int replayPositionIntervalTicks,
+    int replayBufferChunks,
+    int statsFlushSeconds) {
+
+    /**
+     * Reads every setting, with the same defaults the plugin always used
+     */
+    public static RivalsConfig from(FileConfiguration config) {
+        List<String> visibleTeams = List.copyOf(config.getStringList("teams.visible"));
+
+        Map<String, String> messages = new HashMap<>();
+        ConfigurationSection messageSection = config.getConfigurationSection("messages");
+        if (messageSection != null) {
+            for (String key : messageSection.getKeys(false)) {
+                messages.put(key, ChatColor.translateAlternateColorCodes('&', messageSection.getString(key, key)));
+            }
+        }
+
+        Map<String, List<String>> layouts = new HashMap<>();
+        ConfigurationSection layoutSection = config.getConfigurationSection("scoreboard.layouts");
+        if (layoutSection != null) {
+            for (String name : layoutSection.getKeys(false)) {
+                layouts.put(name, List.copyOf(layoutSection.getStringList(name)));
+            }
+        }
+
+        return new RivalsConfig(
+            visibleTeams,
+            Set.copyOf(visibleTeams),
+            List.copyOf(config.getStringList("teams.backlog")),
+            config.getInt("game.max-players-per-team", 5),
+            config.getInt("game.total-games", 6),
+            List.copyOf(config.getDoubleList("game.multipliers")),
+            Map.copyOf(messages),
+            config.getString("tablist.layout", "roster").equalsIgnoreCase("native"),
+            config.getString("tablist.footer", "&7Good luck and have fun!"),
+            config.getBoolean("scoreboard.announce-overtakes", true),
+            Math.max(1, config.getInt("scoreboard.render-threads", 2)),
+            Map.copyOf(layouts),
+            Math.max(1, config.getInt("checkpoint.interval-seconds", 5)),
+            config.getBoolean("replay.enabled", true),
+            Math.max(1, config.getInt("replay.position-interval-ticks", 10)),
+            Math.max(2, config.getInt("replay.buffer-chunks", 8)),
+            Math.max(1, config.getInt("stats.flush-seconds", 10)));
+    }
+
+    /**
+     * @return The message, or the key if it is not configured
+     */
+    public String message(String key) {
+        return messages.getOrDefault(key, key);
+    }
+
+    public boolean isVisibleTeam(String team) {
+        return visibleTeamSet.contains(team);
+    }
+
+    /**
+     * @return The sidebar layout's entries, or null if it is not configured
+     */
+    public List<String> layout(String name) {
+        List<String> entries = layouts.get(name);
+        return entries == null || entries.isEmpty() ? null : entries;
+    }
+}
@@ -0,0 +1,45 @@
+package com.zskv.minecraftRivals;
+
+import org.bukkit.entity.Player;
+
+/**
+ * Something that happened during the event, posted on the {@link EventBus}
+ */
+public sealed interface RivalsEvent {
+
+    /**
+     * A point change was written to the ledger, event or game points
+     */
+    record PointsChanged(PointsLedger.Record record) implements RivalsEvent {
+    }
+
+    /**
+     * A player joined a team, or left theirs
+     * @param entry The player name
+     * @param oldTeam Their previous team, or null
+     * @param newTeam Their new team, or null if they left
+     */
+    record TeamMembershipChanged(String entry, String oldTeam, String newTeam) implements RivalsEvent {
+    }
+
+    /**
+     * A round moved to a new phase, e.g. the final countdown
+     * @param round The round, e.g. "dishdash"
+     */
+    record PhaseChanged(String round, String phase) implements RivalsEvent {
+    }
+
+    /**
+     * A player served a Dish Dash customer
+     * @param dish The recipe's display name
+     */
+    record CustomerServed(Player player, String team, int points, String dish) implements RivalsEvent {
+    }
+
+    /**
+     * A player voted for the next game
+     * @param game The game they voted for
+     */
+    record VoteCast(Player player, String game) implements RivalsEvent {
+    }
+}
@@ -0,0 +1,278 @@
+package com.zskv.minecraftRivals;
+
+import org.bukkit.Bukkit;
+import org.bukkit.scoreboard.Scoreboard;
+import org.bukkit.scoreboard.Team;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+import java.util.zip.CRC32;
+
+/**
+ * State the event builds up while it runs - the current game, the last vote's
+ * winner and who is on which team - kept in state.bin so config.yml stays
+ * read-only configuration
+ * Changes are written behind: everything changed within a second is saved as
+ * one snapshot by a background thread, synced to disk and swapped in for the
+ * old file, so the file is always complete and the main thread never waits
+ * Main thread only, except the writer
+ */
+public class RuntimeState {
+
+    private static final int MAGIC = 0x4D435254; // "MCRT"
+    private static final int VERSION = 1;
+    // Changes within this many ticks are written together
+    private static final long BATCH_TICKS = 20L;
+
+    private final MinecraftRivals plugin;
+    private final File file;
+    private final File tempFile;
+
+    private int currentGame = 1;
+    private String votedGame;
+    private final Map<String, String> teams = new HashMap<>();
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "MCR-State");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private boolean flushScheduled;
+    private boolean closed;
+
+    public RuntimeState(MinecraftRivals plugin) {
+        this.plugin = plugin;
+        this.file = new File(plugin.getDataFolder(), "state.bin");
+        this.tempFile = new File(plugin.getDataFolder(), "state.bin.tmp");
+    }
+
+    /**
+     * Reads the state left by the last run, called once on startup
+     * Without a state file, the game number set in older config.yml files is picked up
+     * A game number outside 1..game.total-games is moved to the nearest valid one, like /mcr setgame would
+     */
+    public void load() {
+        teams.clear();
+        votedGame = null;
+        if (!file.exists()) {
+            currentGame = checkGame(plugin.getConfig().getInt("game.current-game", 1), "config.yml");
+            return;
+        }
+
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Files.readAllBytes(file.toPath())))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                plugin.getLogger().warning("Ignoring " + file.getName() + ", it is not a state file of this version");
+                return;
+            }
+            byte[] body = new byte[in.readInt()];
+            in.readFully(body);
+            if (in.readInt() != checksum(body)) {
+                plugin.getLogger().warning("Ignoring " + file.getName() + ", it is damaged");
+                return;
+            }
+
+            DataInputStream state = new DataInputStream(new ByteArrayInputStream(body));
+            currentGame = checkGame(state.readInt(), file.getName());
+            String voted = state.readUTF();
+            votedGame = voted.isEmpty() ? null : voted;
+            int count = state.readInt();
+            for (int i = 0; i < count; i++) {
+                teams.put(state.readUTF(), state.readUTF());
+            }
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to read " + file.getName() + ", starting from game 1", e);
+        }
+    }
+
+    /**
+     * Puts players back on their saved teams if the scoreboard lost them,
+     * e.g. after the world's scoreboard data was reset
+     */
+    public void restoreTeams(Scoreboard scoreboard) {
+        int restored = 0;
+        for (Map.Entry<String, String> entry : teams.entrySet()) {
+            Team team = scoreboard.getTeam(entry.getValue());
+            if (team != null && scoreboard.getEntryTeam(entry.getKey()) == null) {
+                team.addEntry(entry.getKey());
+                restored++;
+            }
+        }
+        if (restored > 0) {
+            plugin.getLogger().info("Restored " + restored + " team assignments from " + file.getName());
+        }
+    }
+
+    private int checkGame(int game, String source) {
+        int totalGames = plugin.getSettings().totalGames();
+        int checked = Math.max(1, Math.min(game, totalGames));
+        if (checked != game) {
+            plugin.getLogger().warning("Game " + game + " from " + source + " is not between 1 and "
+                + totalGames + ", starting from game " + checked);
+        }
+        return checked;
+    }
+
+    public int getCurrentGame() {
+        return currentGame;
+    }
+
+    public void setCurrentGame(int currentGame) {
+        this.currentGame = currentGame;
+        markDirty();
+    }
+
+    /**
+     * @return The game that won the last vote, or null
+     */
+    public String getVotedGame() {
+        return votedGame;
+    }
+
+    public void setVotedGame(String votedGame) {
+        this.votedGame = votedGame;
+        markDirty();
+    }
+
+    /**
+     * @return Team name by player name
+     */
+    public Map<String, String> getTeams() {
+        return Collections.unmodifiableMap(teams);
+    }
+
+    /**
+     * @param team The new team, or null if they left theirs
+     */
+    public void setTeam(String entry, String team) {
+        if (team != null) {
+            teams.put(entry, team);
+        } else {
+            teams.remove(entry);
+        }
+        markDirty();
+    }
+
+    /**
+     * Replaces every team assignment, e.g. after teams were edited with /team
+     */
+    public void setTeams(Map<String, String> assignments) {
+        if (teams.equals(assignments)) {
+            return;
+        }
+        teams.clear();
+        teams.putAll(assignments);
+        markDirty();
+    }
+
+    /**
+     * Writes pending changes and waits for them, called on shutdown
+     */
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        byte[] snapshot = flushScheduled ? capture() : null;
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("State writer did not finish in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (snapshot != null) {
+            write(snapshot);
+        }
+    }
+
+    private void markDirty() {
+        if (flushScheduled || closed) {
+            return;
+        }
+        flushScheduled = true;
+        Bukkit.getScheduler().runTaskLater(plugin, this::flush, BATCH_TICKS);
+    }
+
+    private void flush() {
+        if (!flushScheduled || closed) {
+            return;
+        }
+        flushScheduled = false;
+        byte[] snapshot = capture();
+        if (snapshot != null) {
+            writer.execute(() -> write(snapshot));
+        }
+    }
+
+    private byte[] capture() {
+        try {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            DataOutputStream state = new DataOutputStream(body);
+            state.writeInt(currentGame);
+            state.writeUTF(votedGame != null ? votedGame : "");
+            state.writeInt(teams.size());
+            for (Map.Entry<String, String> entry : teams.entrySet()) {
+                state.writeUTF(entry.getKey());
+                state.writeUTF(entry.getValue());
+            }
+            byte[] bodyBytes = body.toByteArray();
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(bodyBytes.length);
+            out.write(bodyBytes);
+            out.writeInt(checksum(bodyBytes));
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void write(byte[] snapshot) {
+        try {
+            Files.createDirectories(file.getParentFile().toPath());
+            try (FileChannel channel = FileChannel.open(tempFile.toPath(), StandardOpenOption.CREATE,
+                    StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+                ByteBuffer buffer = ByteBuffer.wrap(snapshot);
+                while (buffer.hasRemaining()) {
+                    channel.write(buffer);
+                }
+                channel.force(true);
+            }
+            try {
+                Files.move(tempFile.toPath(), file.toPath(),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(tempFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            }
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to write " + file.getName() + ": " + e.getMessage());
+        }
+    }
+
+    private static int checksum(byte[] data) {
+        CRC32 crc = new CRC32();
+        crc.update(data);
+        return (int) crc.getValue();
+    }
+}
@@ -0,0 +1,205 @@
+package com.zskv.minecraftRivals;
+
+import org.bukkit.configuration.ConfigurationSection;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Folds each game's results into the event standings
+ * When a game ends, its per-team and per-player points are copied into a
+ * {@link GameResult}, scaled by that game's multiplier and added to the
+ * event totals in one batch - standings never have to add up past games again
+ * Results are kept in results.yml so they survive restarts
+ */
+public class ScoringEngine {
+
+    /**
+     * What a game ended with
+     * @param game The game number (the current game when it ended)
+     * @param name The minigame's name
+     * @param multiplier What the points were multiplied by
+     * @param finishedAt When it ended (epoch millis)
+     * @param teamPoints Points each team scored in the game
+     * @param playerPoints Points each player scored in the game
+     * @param awarded Event points each player got for it
+     */
+    public record GameResult(int game, String name, double multiplier, long finishedAt,
+                             Map<String, Integer> teamPoints, Map<String, Integer> playerPoints,
+                             Map<String, Integer> awarded) {
+
+        /**
+         * @return Event points the game added, over all players
+         */
+        public int getAwardedTotal() {
+            int total = 0;
+            for (int points : awarded.values()) {
+                total += points;
+            }
+            return total;
+        }
+    }
+
+    private final MinecraftRivals plugin;
+    private final File file;
+
+    private final Map<Integer, GameResult> results = new TreeMap<>();
+
+    public ScoringEngine(MinecraftRivals plugin) {
+        this.plugin = plugin;
+        this.file = new File(plugin.getDataFolder(), "results.yml");
+    }
+
+    /**
+     * Loads the results of games that already ended
+     */
+    public void load() {
+        results.clear();
+        if (!file.exists()) {
+            return;
+        }
+
+        YamlConfiguration yaml = YamlConfiguration.loadConfiguration(file);
+        ConfigurationSection games = yaml.getConfigurationSection("games");
+        if (games == null) {
+            return;
+        }
+
+        for (String key : games.getKeys(false)) {
+            ConfigurationSection section = games.getConfigurationSection(key);
+            if (section == null) {
+                continue;
+            }
+            int game = Integer.parseInt(key);
+            results.put(game, new GameResult(
+                game,
+                section.getString("name", "unknown"),
+                section.getDouble("multiplier", 1.0),
+                section.getLong("finished-at"),
+                readPoints(section.getConfigurationSection("teams")),
+                readPoints(section.getConfigurationSection("players")),
+                readPoints(section.getConfigurationSection("awarded"))));
+        }
+        plugin.getLogger().info("Loaded results of " + results.size() + " finished games");
+    }
+
+    /**
+     * Gets the multiplier for a game from game.multipliers
+     * @param game The game number
+     * @return The multiplier, 1.0 if none is set
+     */
+    public double getMultiplier(int game) {
+        List<Double> multipliers = plugin.getSettings().multipliers();
+        return game >= 1 && game <= multipliers.size() ? multipliers.get(game - 1) : 1.0;
+    }
+
+    /**
+     * Ends the current game: stores its results and adds them to the event standings
+     * Each game number only counts once
+     * @param name The minigame's name
+     * @param teamPoints Points each team scored
+     * @param playerPoints Points each player scored
+     * @return The result, or null if the current game already has one or the points could not be saved
+     */
+    public GameResult finishGame(String name, Map<String, Integer> teamPoints, Map<String, Integer> playerPoints) {
+        int game = plugin.getRuntimeState().getCurrentGame();
+        if (results.containsKey(game)) {
+            plugin.getLogger().warning("Game " + game + " already has results, " + name
+                + " was not added to the standings (use /mcr setgame to move on)");
+            return null;
+        }
+
+        double multiplier = getMultiplier(game);
+        TeamPointsIndex index = plugin.getTeamPointsIndex();
+        Map<String, Integer> awarded = new LinkedHashMap<>();
+        Map<String, Map<String, Integer>> awardedByTeam = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> entry : playerPoints.entrySet()) {
+            // Credited to the teams the player scored for, so switching teams mid-game
+            // doesn't hand those points to the new team in the ledger
+            // Points the game did not log per team go to their current team (null)
+            Map<String, Integer> scored = new LinkedHashMap<>(index.getGamePoints(game, entry.getKey()));
+            int logged = 0;
+            for (int points : scored.values()) {
+                logged += points;
+            }
+            if (logged != entry.getValue()) {
+                scored.merge(null, entry.getValue() - logged, Integer::sum);
+            }
+
+            Map<String, Integer> byTeam = new LinkedHashMap<>();
+            for (Map.Entry<String, Integer> team : scored.entrySet()) {
+                int points = (int) Math.round(team.getValue() * multiplier);
+                if (points != 0) {
+                    byTeam.put(team.getKey(), points);
+                    awarded.merge(entry.getKey(), points, Integer::sum);
+                }
+            }
+            if (!byTeam.isEmpty()) {
+                awardedByTeam.put(entry.getKey(), byTeam);
+            }
+        }
+
+        String reason = "game " + game + " (" + name + ") x" + multiplier;
+        if (!index.addTeamPoints(awardedByTeam, reason)) {
+            return null;
+        }
+
+        GameResult result = new GameResult(game, name, multiplier, System.currentTimeMillis(),
+            Map.copyOf(teamPoints), Map.copyOf(playerPoints), Collections.unmodifiableMap(awarded));
+        results.put(game, result);
+        save();
+        return result;
+    }
+
+    /**
+     * Gets the result of a finished game
+     * @param game The game number
+     * @return The result, or null if the game has not ended
+     */
+    public GameResult getResult(int game) {
+        return results.get(game);
+    }
+
+    /**
+     * @return Results of every finished game, by game number
+     */
+    public Collection<GameResult> getResults() {
+        return Collections.unmodifiableCollection(results.values());
+    }
+
+    private void save() {
+        YamlConfiguration yaml = new YamlConfiguration();
+        for (GameResult result : results.values()) {
+            ConfigurationSection section = yaml.createSection("games." + result.game());
+            section.set("name", result.name());
+            section.set("multiplier", result.multiplier());
+            section.set("finished-at", result.finishedAt());
+            section.createSection("teams", result.teamPoints());
+            section.createSection("players", result.playerPoints());
+            section.createSection("awarded", result.awarded());
+        }
+
+        try {
+            yaml.save(file);
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to save game results: " + e.getMessage());
+        }
+    }
+
+    private static Map<String, Integer> readPoints(ConfigurationSection section) {
+        Map<String, Integer> points = new LinkedHashMap<>();
+        if (section != null) {
+            for (String key : section.getKeys(false)) {
+                points.put(key, section.getInt(key));
+            }
+        }
+        return Collections.unmodifiableMap(points);
+    }
+}
@@ -0,0 +1,168 @@
+package com.zskv.minecraftRivals;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+/**
+ * A sidebar layout from config.yml, compiled once into a list of line providers
+ * Each viewer keeps the last output of every line, so a render only calls
+ * the providers whose lines changed since that viewer's last render
+ * Versions are changed on the main thread and captured into each {@link HudSnapshot},
+ * rendering happens on the HUD workers
+ */
+public class SidebarLayout {
+
+    private static final Line BLANK = new Line("blank", SidebarLineProvider.Refresh.STATIC,
+        (snapshot, viewer, lines) -> lines.add(Component.empty()));
+
+    private final String name;
+    private final Line[] lines;
+    private final boolean perSecond;
+
+    private SidebarLayout(String name, Line[] lines) {
+        this.name = name;
+        this.lines = lines;
+        this.perSecond = Arrays.stream(lines)
+            .anyMatch(line -> line.refresh == SidebarLineProvider.Refresh.PER_SECOND);
+    }
+
+    /**
+     * Compiles a layout from its config entries
+     * An entry is a provider id, "blank" for an empty line, or "text:<text>"
+     * for a fixed line (& color codes, pixel font)
+     * @param name The layout name, used in warnings
+     * @param entries The layout entries, top to bottom
+     * @param providers Registered providers by id
+     * @param logger Where to report unknown ids
+     * @return The compiled layout
+     */
+    static SidebarLayout compile(String name, List<String> entries, Map<String, Line> providers, Logger logger) {
+        List<Line> compiled = new ArrayList<>(entries.size());
+        for (String entry : entries) {
+            if (entry.equals("blank")) {
+                compiled.add(BLANK);
+            } else if (entry.startsWith("text:")) {
+                Component text = LegacyComponentSerializer.legacyAmpersand()
+                    .deserialize(entry.substring("text:".length()))
+                    .font(PixelText.PIXEL_FONT);
+                compiled.add(new Line(entry, SidebarLineProvider.Refresh.STATIC, (snapshot, viewer, lines) -> lines.add(text)));
+            } else {
+                Line line = providers.get(entry);
+                if (line == null) {
+                    logger.warning("Unknown sidebar line '" + entry + "' in layout '" + name + "'");
+                } else {
+                    compiled.add(line);
+                }
+            }
+        }
+        return new SidebarLayout(name, compiled.toArray(new Line[0]));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return true if any line has to be rendered again every second
+     */
+    public boolean hasPerSecondLines() {
+        return perSecond;
+    }
+
+    /**
+     * Copies the current version of every line, on the main thread
+     * @return Versions by line position
+     */
+    long[] captureVersions() {
+        long[] versions = new long[lines.length];
+        for (int i = 0; i < lines.length; i++) {
+            versions[i] = lines[i].version;
+        }
+        return versions;
+    }
+
+    /**
+     * Marks every per-second line as changed
+     */
+    void tickSecond() {
+        for (Line line : lines) {
+            if (line.refresh == SidebarLineProvider.Refresh.PER_SECOND) {
+                line.version++;
+            }
+        }
+    }
+
+    /**
+     * Renders the layout for a viewer, reusing the lines that did not change
+     * @param snapshot The state to render, taken with this layout active
+     * @param viewer The player who will see the lines
+     * @param sidebar The viewer's sidebar, which holds their cached lines
+     * @return Every line of the layout, top to bottom
+     */
+    List<Component> render(HudSnapshot snapshot, HudSnapshot.Viewer viewer, ViewerSidebar sidebar) {
+        RenderCache cache = sidebar.getRenderCache();
+        // Pooled sidebars move between viewers, so the cache is only valid for the same viewer
+        if (cache == null || cache.layout != this || !cache.viewer.equals(viewer.uuid())) {
+            cache = new RenderCache(this, viewer.uuid());
+            sidebar.setRenderCache(cache);
+        }
+
+        List<Component> rendered = new ArrayList<>(ViewerSidebar.MAX_LINES);
+        for (int i = 0; i < lines.length; i++) {
+            Line line = lines[i];
+            long version = snapshot.getLineVersion(i);
+            List<Component> block = cache.blocks.get(i);
+            if (block == null || (line.refresh != SidebarLineProvider.Refresh.STATIC && cache.versions[i] != version)) {
+                block = new ArrayList<>(1);
+                line.provider.render(snapshot, viewer, block);
+                cache.blocks.set(i, block);
+                cache.versions[i] = version;
+            }
+            rendered.addAll(block);
+        }
+        return rendered;
+    }
+
+    /**
+     * A registered provider and how often it changes
+     */
+    static final class Line {
+        final String id;
+        final SidebarLineProvider.Refresh refresh;
+        final SidebarLineProvider provider;
+        long version;
+
+        Line(String id, SidebarLineProvider.Refresh refresh, SidebarLineProvider provider) {
+            this.id = id;
+            this.refresh = refresh;
+            this.provider = provider;
+        }
+    }
+
+    /**
+     * One viewer's last output of every line in a layout
+     */
+    static final class RenderCache {
+        final SidebarLayout layout;
+        final UUID viewer;
+        final List<List<Component>> blocks;
+        final long[] versions;
+
+        RenderCache(SidebarLayout layout, UUID viewer) {
+            this.layout = layout;
+            this.viewer = viewer;
+            this.blocks = new ArrayList<>(layout.lines.length);
+            for (int i = 0; i < layout.lines.length; i++) {
+                blocks.add(null);
+            }
+            this.versions = new long[layout.lines.length];
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.zskv.minecraftRivals;
+
+import net.kyori.adventure.text.Component;
+
+import java.util.List;
+
+/**
+ * Supplies a block of sidebar lines for one viewer
+ * Providers are registered with {@link CustomScoreboardManager#registerLineProvider}
+ * under an id that the layouts in config.yml refer to
+ * They run on the HUD worker threads, so they may only read the snapshot
+ */
+@FunctionalInterface
+public interface SidebarLineProvider {
+
+    /**
+     * When a provider's lines have to be rendered again
+     */
+    enum Refresh {
+        // Rendered once per viewer
+        STATIC,
+        // Rendered again every second, e.g. timers
+        PER_SECOND,
+        // Rendered again after CustomScoreboardManager#invalidateLine
+        ON_CHANGE
+    }
+
+    /**
+     * Adds this provider's lines for a viewer (adding none hides the block)
+     * @param snapshot The state to render
+     * @param viewer The player who will see the lines
+     * @param lines The lines to add to
+     */
+    void render(HudSnapshot snapshot, HudSnapshot.Viewer viewer, List<Component> lines);
+}
@@ -0,0 +1,157 @@
+package com.zskv.minecraftRivals;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.scoreboard.Scoreboard;
+import org.bukkit.scoreboard.Team;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Caches team standings and the rendered "leaderboard:" block of the sidebar
+ * Team totals and their order come from {@link TeamPointsIndex}
+ * Teams are copied into immutable {@link HudSnapshot.TeamState}s on the main thread,
+ * the lines are rendered from them on the HUD workers and only rebuilt when the
+ * version changes (points or team membership changed)
+ * Configured teams are also kept in an array by {@link TeamRegistry.TeamInfo#index()},
+ * so viewers are matched to their team without a name lookup
+ */
+public class StandingsCache {
+
+    // Only the top 8 teams fit on the sidebar
+    private static final int MAX_TEAMS = 8;
+
+    private final MinecraftRivals plugin;
+    private final net.kyori.adventure.key.Key font;
+
+    private long version;
+    private List<HudSnapshot.TeamState> standings = List.of();
+    private Map<String, HudSnapshot.TeamState> entryTeams = Map.of();
+    private HudSnapshot.TeamState[] teamStates = new HudSnapshot.TeamState[0];
+    private TeamRegistry registry;
+
+    // Only touched by the HUD workers
+    private long renderedVersion = -1;
+    private List<Component> lines = List.of();
+
+    public StandingsCache(MinecraftRivals plugin, net.kyori.adventure.key.Key font) {
+        this.plugin = plugin;
+        this.font = font;
+    }
+
+    /**
+     * Copies teams and totals once and bumps the version if anything changed
+     * Must be called on the main thread when points or team membership change
+     */
+    public void update() {
+        Scoreboard scoreboard = plugin.getScoreboard();
+        TeamPointsIndex pointsIndex = plugin.getTeamPointsIndex();
+        TeamRegistry registry = plugin.getTeamRegistry();
+
+        // Every team, so players on backlog teams still see their teammates
+        Map<String, HudSnapshot.TeamState> teams = new HashMap<>();
+        Map<String, HudSnapshot.TeamState> newEntryTeams = new HashMap<>();
+        HudSnapshot.TeamState[] newTeamStates = new HudSnapshot.TeamState[registry.size()];
+        for (Team team : scoreboard.getTeams()) {
+            TeamRegistry.TeamInfo info = registry.get(team.getName());
+            HudSnapshot.TeamState state = new HudSnapshot.TeamState(
+                team.getName(),
+                info != null ? info.index() : -1,
+                team.getDisplayName(),
+                info != null ? info.textColor() : TeamRegistry.toTextColor(team.getColor()),
+                List.copyOf(team.getEntries()),
+                pointsIndex.getTeamPoints(team.getName()));
+            teams.put(team.getName(), state);
+            if (info != null) {
+                newTeamStates[info.index()] = state;
+            }
+            for (String entry : state.entries()) {
+                newEntryTeams.put(entry, state);
+            }
+        }
+
+        // Already in rank order, no sorting needed
+        List<HudSnapshot.TeamState> scores = new ArrayList<>();
+        for (String teamName : pointsIndex.getLeaderboard().getTeams()) {
+            HudSnapshot.TeamState state = teams.get(teamName);
+            if (state != null) {
+                scores.add(state);
+            }
+        }
+
+        if (!scores.equals(standings) || !newEntryTeams.equals(entryTeams) || registry != this.registry) {
+            standings = List.copyOf(scores);
+            entryTeams = Map.copyOf(newEntryTeams);
+            teamStates = newTeamStates;
+            this.registry = registry;
+            version++;
+        }
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    /**
+     * @return Visible teams, best first
+     */
+    public List<HudSnapshot.TeamState> getStandings() {
+        return standings;
+    }
+
+    /**
+     * @return Every team entry mapped to its team
+     */
+    public Map<String, HudSnapshot.TeamState> getEntryTeams() {
+        return entryTeams;
+    }
+
+    /**
+     * @return Configured teams by registry index, null for teams missing from the scoreboard
+     * Never modified after it is handed out
+     */
+    HudSnapshot.TeamState[] getTeamStates() {
+        return teamStates;
+    }
+
+    /**
+     * @return The registry the team states were indexed by
+     */
+    TeamRegistry getRegistry() {
+        return registry;
+    }
+
+    /**
+     * Gets the leaderboard lines, rebuilding them only if the snapshot has newer standings
+     * @param snapshot The snapshot being rendered
+     * @return Immutable list of line components shared by every viewer
+     */
+    public synchronized List<Component> getLines(HudSnapshot snapshot) {
+        if (renderedVersion != snapshot.getStandingsVersion()) {
+            lines = render(snapshot.getStandings());
+            renderedVersion = snapshot.getStandingsVersion();
+        }
+        return lines;
+    }
+
+    private List<Component> render(List<HudSnapshot.TeamState> teams) {
+        List<Component> rendered = new ArrayList<>(MAX_TEAMS);
+        int position = 1;
+        for (HudSnapshot.TeamState team : teams) {
+            if (position > MAX_TEAMS) break;
+
+            // Team entry with custom font
+            Component teamEntry = Component.text(position + ". ", NamedTextColor.WHITE)
+                .append(PixelText.name(team.displayName(), team.color()))
+                .append(Component.text(" - ", NamedTextColor.GRAY))
+                .append(Component.text(team.points(), NamedTextColor.WHITE))
+                .font(font);
+            rendered.add(teamEntry);
+            position++;
+        }
+        return List.copyOf(rendered);
+    }
+}
@@ -0,0 +1,468 @@
+package com.zskv.minecraftRivals;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Time series of every team total, for questions like "when did Orange take the lead?"
+ * Samples are delta-encoded into small blocks - team id, then game, tick and
+ * total as varints relative to the previous sample - so a change costs a few bytes
+ * The newest blocks stay in a ring in memory, older ones are spilled to a file
+ * (and everything is spilled on shutdown)
+ * Every block records which teams it holds, so a team's curve only decodes
+ * blocks that contain it, and lead changes are indexed as they happen
+ * Spilled blocks are checksummed like the {@link PointsLedger}'s records, a
+ * block torn by a crash is cut off on load so later spills stay readable
+ * Main thread only
+ */
+public class StandingsHistory {
+
+    /**
+     * A team's total at one point in time
+     */
+    public record Sample(String team, int game, int tick, int points) {
+    }
+
+    /**
+     * A team took first place
+     * @param previous The team that had it, or null if nobody led yet
+     */
+    public record LeadChange(int game, int tick, String leader, String previous) {
+    }
+
+    private static final int MAGIC = 0x4D435248; // "MCRH"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 8;
+    // Length, team mask and checksum in front of every spilled block
+    private static final int BLOCK_HEADER_SIZE = 16;
+    private static final int BLOCK_SIZE = 4096;
+    private static final int RING_BLOCKS = 16;
+    // Largest encoded sample: four varints of up to 5 bytes
+    private static final int MAX_SAMPLE_SIZE = 20;
+    // Team ids from 63 up share the last bit of a block's team mask
+    private static final int MASK_BITS = 64;
+
+    private final File file;
+    private final Logger logger;
+
+    // Team ids used in the encoding, declared in every block that uses them
+    private final Map<String, Integer> teamIds = new HashMap<>();
+
+    private final Deque<Block> ring = new ArrayDeque<>();
+    private Block current;
+    // Bytes of the file holding whole blocks, spills are written from here
+    private long spilledLength;
+
+    // Last recorded total per team, so repeated totals are not stored
+    private final Map<String, Integer> lastTotals = new HashMap<>();
+    private String leader;
+    private final List<LeadChange> leadChanges = new ArrayList<>();
+
+    public StandingsHistory(File file, Logger logger) {
+        this.file = file;
+        this.logger = logger;
+    }
+
+    /**
+     * Reads the spilled blocks back to restore the last totals and the lead changes
+     * Stops at the first damaged or incomplete block and cuts the file off there
+     */
+    public void load() {
+        teamIds.clear();
+        lastTotals.clear();
+        leadChanges.clear();
+        leader = null;
+        spilledLength = 0;
+        if (!file.exists()) {
+            return;
+        }
+
+        long valid = 0;
+        int blocks = 0;
+        boolean damaged = false;
+        boolean olderFormat = false;
+        CRC32 crc = new CRC32();
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                olderFormat = true;
+            }
+            valid = HEADER_SIZE;
+            while (!olderFormat) {
+                int length;
+                try {
+                    length = in.readInt();
+                } catch (EOFException e) {
+                    break;
+                }
+                in.readLong();
+                int checksum = in.readInt();
+                if (length <= 0 || length > BLOCK_SIZE) {
+                    damaged = true;
+                    break;
+                }
+                byte[] data = new byte[length];
+                in.readFully(data);
+                if (checksum != checksum(crc, data, length)) {
+                    damaged = true;
+                    break;
+                }
+
+                Map<String, Integer> ids = new HashMap<>();
+                List<Sample> samples;
+                try {
+                    samples = decode(data, length, ids);
+                } catch (RuntimeException e) {
+                    damaged = true;
+                    break;
+                }
+                // Ids are reused so the team masks of older blocks stay valid
+                teamIds.putAll(ids);
+                for (Sample sample : samples) {
+                    track(sample);
+                }
+                valid += BLOCK_HEADER_SIZE + length;
+                blocks++;
+            }
+        } catch (EOFException e) {
+            // A block (or the header) was cut short
+            damaged = true;
+        } catch (IOException e) {
+            logger.warning("Failed to read the standings history, it may be incomplete: " + e.getMessage());
+        }
+
+        if (olderFormat) {
+            setAside();
+            return;
+        }
+        if (damaged) {
+            logger.warning("Standings history is damaged after block " + blocks + ", dropping the rest of the file");
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(valid);
+            } catch (IOException e) {
+                logger.warning("Failed to cut off the damaged standings history: " + e.getMessage());
+            }
+        }
+        spilledLength = valid;
+    }
+
+    // Files from before blocks were checksummed can't be checked, so they are kept aside
+    private void setAside() {
+        File old = new File(file.getPath() + ".old");
+        if (file.renameTo(old)) {
+            logger.warning("Standings history has an older format, moved it to " + old.getName());
+        } else {
+            logger.warning("Standings history has an older format and could not be moved, it will be overwritten");
+        }
+    }
+
+    /**
+     * Records a team's new total
+     * @param team The team name
+     * @param points The new total
+     * @param game The current game number
+     * @param tick The current server tick
+     */
+    public void record(String team, int points, int game, int tick) {
+        Integer last = lastTotals.get(team);
+        if (last != null && last == points) {
+            return;
+        }
+
+        // Leaves room for declaring the team in the block too
+        int needed = MAX_SAMPLE_SIZE * 2 + team.length() * 3;
+        if (current == null || current.length + needed > BLOCK_SIZE) {
+            seal();
+        }
+        current.append(teamId(team), game, tick, points);
+        track(new Sample(team, game, tick, points));
+    }
+
+    /**
+     * Gets a team's total over time, e.g. for an end-of-event graph
+     * Spilled blocks are read back from the file, skipping the ones without the team
+     * @param team The team name
+     * @return Every recorded total, oldest first
+     */
+    public List<Sample> getCurve(String team) {
+        List<Sample> curve = new ArrayList<>();
+        Integer id = teamIds.get(team);
+        if (id == null) {
+            return curve;
+        }
+
+        long bit = maskBit(id);
+        if (spilledLength > HEADER_SIZE) {
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+                in.skipNBytes(HEADER_SIZE);
+                // Only blocks checked on load or written since, never a torn tail
+                for (long position = HEADER_SIZE; position < spilledLength; ) {
+                    int length = in.readInt();
+                    long teams = in.readLong();
+                    in.readInt();
+                    position += BLOCK_HEADER_SIZE + length;
+                    if ((teams & bit) == 0) {
+                        in.skipNBytes(length);
+                        continue;
+                    }
+                    byte[] data = new byte[length];
+                    in.readFully(data);
+                    addTeamSamples(curve, decode(data, length, null), team);
+                }
+            } catch (IOException e) {
+                logger.warning("Failed to read the standings history: " + e.getMessage());
+            }
+        }
+        for (Block block : ring) {
+            if ((block.teams & bit) != 0) {
+                addTeamSamples(curve, decode(block.data, block.length, null), team);
+            }
+        }
+        return curve;
+    }
+
+    /**
+     * Gets every time the lead changed hands
+     * @param game The game number, or 0 for the whole event
+     * @return The lead changes, oldest first
+     */
+    public List<LeadChange> getLeadChanges(int game) {
+        if (game == 0) {
+            return Collections.unmodifiableList(leadChanges);
+        }
+        List<LeadChange> changes = new ArrayList<>();
+        for (LeadChange change : leadChanges) {
+            if (change.game() == game) {
+                changes.add(change);
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * @return The team in first place, or null if nobody has points yet
+     */
+    public String getLeader() {
+        return leader;
+    }
+
+    /**
+     * Spills everything still in memory, e.g. on shutdown
+     */
+    public void flush() {
+        while (!ring.isEmpty()) {
+            spill(ring.pollFirst());
+        }
+        current = null;
+    }
+
+    private void track(Sample sample) {
+        lastTotals.put(sample.team(), sample.points());
+
+        // A team only leads with points, and keeps the lead on a tie
+        String newLeader = leader;
+        if (leader == null || sample.team().equals(leader)) {
+            // Nobody led yet, or the leader lost points and someone else may be ahead now
+            int best = leader != null ? lastTotals.get(leader) : 0;
+            for (Map.Entry<String, Integer> total : lastTotals.entrySet()) {
+                if (total.getValue() > best) {
+                    best = total.getValue();
+                    newLeader = total.getKey();
+                }
+            }
+        } else if (sample.points() > lastTotals.get(leader)) {
+            newLeader = sample.team();
+        }
+
+        if (newLeader != null && !newLeader.equals(leader)) {
+            leadChanges.add(new LeadChange(sample.game(), sample.tick(), newLeader, leader));
+            leader = newLeader;
+        }
+    }
+
+    private void seal() {
+        if (ring.size() == RING_BLOCKS) {
+            spill(ring.pollFirst());
+        }
+        current = new Block();
+        ring.addLast(current);
+    }
+
+    private void spill(Block block) {
+        if (block.length == 0) {
+            return;
+        }
+        boolean header = spilledLength == 0;
+        ByteBuffer out = ByteBuffer.allocate((header ? HEADER_SIZE : 0) + BLOCK_HEADER_SIZE + block.length);
+        if (header) {
+            out.putInt(MAGIC).putInt(VERSION);
+        }
+        out.putInt(block.length)
+            .putLong(block.teams)
+            .putInt(checksum(new CRC32(), block.data, block.length))
+            .put(block.data, 0, block.length);
+        out.flip();
+
+        file.getParentFile().mkdirs();
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            // Anything past the last whole block is left from a failed spill and is overwritten
+            channel.truncate(spilledLength);
+            long position = spilledLength;
+            while (out.hasRemaining()) {
+                position += channel.write(out, position);
+            }
+            spilledLength = position;
+        } catch (IOException e) {
+            logger.warning("Failed to write the standings history: " + e.getMessage());
+        }
+    }
+
+    private static int checksum(CRC32 crc, byte[] data, int length) {
+        crc.reset();
+        crc.update(data, 0, length);
+        return (int) crc.getValue();
+    }
+
+    private int teamId(String team) {
+        Integer id = teamIds.get(team);
+        if (id == null) {
+            id = teamIds.size();
+            teamIds.put(team, id);
+        }
+        // Blocks carry the names they use, so each one can be decoded on its own
+        current.declare(id, team);
+        return id;
+    }
+
+    private static long maskBit(int id) {
+        return 1L << Math.min(id, MASK_BITS - 1);
+    }
+
+    private static void addTeamSamples(List<Sample> curve, List<Sample> samples, String team) {
+        for (Sample sample : samples) {
+            if (sample.team().equals(team)) {
+                curve.add(sample);
+            }
+        }
+    }
+
+    /**
+     * Decodes a block
+     * A team declaration is a zero followed by the id and name, a sample is
+     * the team id plus one, then the game, tick and total deltas
+     * @param ids Filled with the declared team ids, or null
+     */
+    private static List<Sample> decode(byte[] data, int length, Map<String, Integer> ids) {
+        List<Sample> samples = new ArrayList<>();
+        Map<Integer, String> names = new HashMap<>();
+        Map<Integer, Integer> totals = new HashMap<>();
+        int[] position = {0};
+        int game = 0;
+        int tick = 0;
+        while (position[0] < length) {
+            int tag = readVarInt(data, position);
+            if (tag == 0) {
+                int id = readVarInt(data, position);
+                int nameLength = readVarInt(data, position);
+                String name = new String(data, position[0], nameLength, StandardCharsets.UTF_8);
+                names.put(id, name);
+                if (ids != null) {
+                    ids.put(name, id);
+                }
+                position[0] += nameLength;
+                continue;
+            }
+
+            int id = tag - 1;
+            game += zigzagDecode(readVarInt(data, position));
+            tick += zigzagDecode(readVarInt(data, position));
+            int points = totals.getOrDefault(id, 0) + zigzagDecode(readVarInt(data, position));
+            totals.put(id, points);
+            samples.add(new Sample(names.get(id), game, tick, points));
+        }
+        return samples;
+    }
+
+    private static int readVarInt(byte[] data, int[] position) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[position[0]++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+
+    private static int zigzagEncode(int value) {
+        return (value << 1) ^ (value >> 31);
+    }
+
+    private static int zigzagDecode(int value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    /**
+     * Delta-encoded samples, decodable without any other block
+     */
+    private static final class Block {
+        final byte[] data = new byte[BLOCK_SIZE];
+        int length;
+        // Bit per team id present in the block
+        long teams;
+
+        private final Map<Integer, Integer> totals = new HashMap<>();
+        private int game;
+        private int tick;
+
+        void declare(int id, String team) {
+            if (totals.containsKey(id)) {
+                return;
+            }
+            byte[] name = team.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(0);
+            writeVarInt(id);
+            writeVarInt(name.length);
+            System.arraycopy(name, 0, data, length, name.length);
+            length += name.length;
+            totals.put(id, 0);
+            teams |= maskBit(id);
+        }
+
+        void append(int id, int game, int tick, int points) {
+            writeVarInt(id + 1);
+            writeVarInt(zigzagEncode(game - this.game));
+            writeVarInt(zigzagEncode(tick - this.tick));
+            writeVarInt(zigzagEncode(points - totals.get(id)));
+            this.game = game;
+            this.tick = tick;
+            totals.put(id, points);
+        }
+
+        private void writeVarInt(int value) {
+            while ((value & ~0x7F) != 0) {
+                data[length++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            data[length++] = (byte) value;
+        }
+    }
+}
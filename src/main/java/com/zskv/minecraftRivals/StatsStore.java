@@ -0,0 +1,405 @@
+package com.zskv.minecraftRivals;
+
+import org.bukkit.Bukkit;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Level;
+
+/**
+ * Lifetime player and team stats, kept across events in stats.db
+ * Every player and team has a fixed-size row at its own slot in the file, so
+ * an update rewrites just that row. Changed rows are collected on the main
+ * thread and written in one batch every stats.flush-seconds by a virtual
+ * thread, so the main thread never waits on the disk
+ * Top lists are cached per stat until one of its values changes
+ * Main thread only, except the writer
+ */
+public class StatsStore {
+
+    /**
+     * A lifetime counter
+     */
+    public enum Stat {
+        CUSTOMERS_SERVED("served", "Customers served"),
+        VOTES_CAST("votes", "Votes cast"),
+        POINTS_EARNED("points", "Points earned");
+
+        private final String key;
+        private final String displayName;
+
+        Stat(String key, String displayName) {
+            this.key = key;
+            this.displayName = displayName;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        public String getDisplayName() {
+            return displayName;
+        }
+
+        /**
+         * @return The stat with this key, or null
+         */
+        public static Stat fromKey(String key) {
+            for (Stat stat : values()) {
+                if (stat.key.equalsIgnoreCase(key)) {
+                    return stat;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * A place in a top list
+     */
+    public record Entry(String name, long value) {
+    }
+
+    private static final int MAGIC = 0x4D435253; // "MCRS"
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 12;
+    private static final int NAME_SIZE = 32;
+    // Kind, id, name length, name, then one long per stat
+    private static final int ROW_SIZE = 1 + 16 + 1 + NAME_SIZE + 8 * Stat.values().length;
+    // Longest top list that is cached
+    private static final int TOP_SIZE = 10;
+
+    private static final byte PLAYER = 0;
+    private static final byte TEAM = 1;
+
+    private final MinecraftRivals plugin;
+    private final File file;
+
+    private final Map<UUID, Row> players = new HashMap<>();
+    private final Map<String, Row> teams = new HashMap<>();
+    private int rowCount;
+
+    // Rows changed since the last batch
+    private final Set<Row> dirty = new LinkedHashSet<>();
+    private final Map<Stat, List<Entry>> playerTop = new EnumMap<>(Stat.class);
+    private final Map<Stat, List<Entry>> teamTop = new EnumMap<>(Stat.class);
+
+    private final ExecutorService writer = Executors.newSingleThreadExecutor(
+        Thread.ofVirtual().name("MCR-Stats").factory());
+    // Writer thread only, once loaded
+    private FileChannel channel;
+    private BukkitTask task;
+
+    public StatsStore(MinecraftRivals plugin) {
+        this.plugin = plugin;
+        this.file = new File(plugin.getDataFolder(), "stats.db");
+
+        plugin.getEventBus().subscribe(RivalsEvent.PointsChanged.class, this::onPointsChanged);
+        plugin.getEventBus().subscribe(RivalsEvent.CustomerServed.class, this::onCustomersServed);
+        plugin.getEventBus().subscribe(RivalsEvent.VoteCast.class, this::onVotesCast);
+    }
+
+    /**
+     * Reads every row, called once on startup
+     */
+    public void load() {
+        players.clear();
+        teams.clear();
+        rowCount = 0;
+
+        try {
+            file.getParentFile().mkdirs();
+            channel = FileChannel.open(file.toPath(),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            if (channel.size() < HEADER_SIZE) {
+                ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+                header.putInt(MAGIC).putInt(VERSION).putInt(ROW_SIZE).flip();
+                channel.write(header, 0);
+                return;
+            }
+
+            ByteBuffer data = ByteBuffer.allocate((int) channel.size());
+            while (data.hasRemaining()) {
+                if (channel.read(data, data.position()) < 0) {
+                    break;
+                }
+            }
+            data.flip();
+            if (data.getInt() != MAGIC || data.getInt() != VERSION || data.getInt() != ROW_SIZE) {
+                plugin.getLogger().warning(file.getName() + " is not a stats file of this version, stats are not saved");
+                channel.close();
+                channel = null;
+                return;
+            }
+            // A row cut short by a crash is dropped and its slot reused
+            while (data.remaining() >= ROW_SIZE) {
+                Row row = readRow(rowCount++, data);
+                if (row.team) {
+                    teams.put(row.name, row);
+                } else {
+                    players.put(row.id, row);
+                }
+            }
+            plugin.getLogger().info("Loaded lifetime stats of " + players.size() + " players and " + teams.size() + " teams");
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.WARNING, "Failed to open " + file.getName() + ", stats are not saved", e);
+            channel = null;
+        }
+    }
+
+    /**
+     * Starts writing changed rows every stats.flush-seconds
+     */
+    public void start() {
+        long interval = plugin.getSettings().statsFlushSeconds() * 20L;
+        task = Bukkit.getScheduler().runTaskTimer(plugin, this::flush, interval, interval);
+    }
+
+    /**
+     * Adds to a player's stat
+     * @param player The player's UUID
+     * @param name Their current name
+     * @param stat The stat
+     * @param amount How much to add (negative to take away)
+     */
+    public void addPlayer(UUID player, String name, Stat stat, long amount) {
+        Row row = players.get(player);
+        if (row == null) {
+            row = new Row(rowCount++, false, player, name);
+            players.put(player, row);
+        }
+        row.name = name;
+        add(row, stat, amount, playerTop);
+    }
+
+    /**
+     * Adds to a team's stat
+     */
+    public void addTeam(String team, Stat stat, long amount) {
+        Row row = teams.get(team);
+        if (row == null) {
+            row = new Row(rowCount++, true, UUID.nameUUIDFromBytes(team.getBytes(StandardCharsets.UTF_8)), team);
+            teams.put(team, row);
+        }
+        add(row, stat, amount, teamTop);
+    }
+
+    /**
+     * Gets a player's stats by their last known name
+     * @return Every stat, or null if the player has none
+     */
+    public Map<Stat, Long> getPlayerStats(String name) {
+        for (Row row : players.values()) {
+            if (row.name.equalsIgnoreCase(name)) {
+                return row.toMap();
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return Every stat, or null if the player has none
+     */
+    public Map<Stat, Long> getPlayerStats(UUID player) {
+        Row row = players.get(player);
+        return row != null ? row.toMap() : null;
+    }
+
+    /**
+     * Gets the players or teams with the highest value of a stat, e.g. for a command or hologram
+     * Cached until the stat changes
+     * @param limit How many to return, at most 10
+     * @return The top entries, highest first
+     */
+    public List<Entry> getTop(Stat stat, boolean teamStats, int limit) {
+        Map<Stat, List<Entry>> cache = teamStats ? teamTop : playerTop;
+        List<Entry> top = cache.get(stat);
+        if (top == null) {
+            top = computeTop(teamStats ? teams.values() : players.values(), stat);
+            cache.put(stat, top);
+        }
+        return top.subList(0, Math.min(limit, top.size()));
+    }
+
+    /**
+     * Hands every changed row to the writer
+     */
+    public void flush() {
+        if (dirty.isEmpty()) {
+            return;
+        }
+        List<Row> rows = new ArrayList<>(dirty);
+        dirty.clear();
+
+        // Encoded here, the writer only sees bytes
+        ByteBuffer batch = ByteBuffer.allocate(rows.size() * ROW_SIZE);
+        long[] positions = new long[rows.size()];
+        for (int i = 0; i < rows.size(); i++) {
+            positions[i] = HEADER_SIZE + (long) rows.get(i).slot * ROW_SIZE;
+            writeRow(rows.get(i), batch);
+        }
+        writer.execute(() -> write(batch, positions));
+    }
+
+    /**
+     * Writes what is left and waits for the writer
+     */
+    public void close() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        flush();
+        writer.shutdown();
+        try {
+            if (!writer.awaitTermination(5, TimeUnit.SECONDS)) {
+                plugin.getLogger().warning("Stats writer did not finish in time");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (channel != null) {
+            try {
+                channel.close();
+            } catch (IOException e) {
+                plugin.getLogger().warning("Failed to close " + file.getName() + ": " + e.getMessage());
+            }
+            channel = null;
+        }
+    }
+
+    private void onPointsChanged(List<RivalsEvent.PointsChanged> events) {
+        for (RivalsEvent.PointsChanged event : events) {
+            PointsLedger.Record record = event.record();
+            // Only live changes count, the ledger is not replayed into lifetime stats
+            if (record.scope() != PointsLedger.Scope.EVENT) {
+                continue;
+            }
+            if (record.player() != null) {
+                addPlayer(record.player(), record.entry(), Stat.POINTS_EARNED, record.delta());
+            }
+            if (record.team() != null) {
+                addTeam(record.team(), Stat.POINTS_EARNED, record.delta());
+            }
+        }
+    }
+
+    private void onCustomersServed(List<RivalsEvent.CustomerServed> events) {
+        for (RivalsEvent.CustomerServed event : events) {
+            addPlayer(event.player().getUniqueId(), event.player().getName(), Stat.CUSTOMERS_SERVED, 1);
+            addTeam(event.team(), Stat.CUSTOMERS_SERVED, 1);
+        }
+    }
+
+    private void onVotesCast(List<RivalsEvent.VoteCast> events) {
+        for (RivalsEvent.VoteCast event : events) {
+            addPlayer(event.player().getUniqueId(), event.player().getName(), Stat.VOTES_CAST, 1);
+        }
+    }
+
+    private void add(Row row, Stat stat, long amount, Map<Stat, List<Entry>> cache) {
+        if (amount == 0) {
+            return;
+        }
+        row.values[stat.ordinal()] += amount;
+        dirty.add(row);
+        cache.remove(stat);
+    }
+
+    private static List<Entry> computeTop(Collection<Row> rows, Stat stat) {
+        return rows.stream()
+            .filter(row -> row.values[stat.ordinal()] > 0)
+            .sorted(Comparator.comparingLong((Row row) -> row.values[stat.ordinal()]).reversed())
+            .limit(TOP_SIZE)
+            .map(row -> new Entry(row.name, row.values[stat.ordinal()]))
+            .toList();
+    }
+
+    private void write(ByteBuffer batch, long[] positions) {
+        if (channel == null) {
+            return;
+        }
+        try {
+            for (int i = 0; i < positions.length; i++) {
+                ByteBuffer row = batch.slice(i * ROW_SIZE, ROW_SIZE);
+                while (row.hasRemaining()) {
+                    channel.write(row, positions[i] + row.position());
+                }
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to write stats: " + e.getMessage());
+        }
+    }
+
+    private static void writeRow(Row row, ByteBuffer out) {
+        byte[] name = row.name.getBytes(StandardCharsets.UTF_8);
+        int length = Math.min(name.length, NAME_SIZE);
+        out.put(row.team ? TEAM : PLAYER);
+        out.putLong(row.id.getMostSignificantBits());
+        out.putLong(row.id.getLeastSignificantBits());
+        out.put((byte) length);
+        out.put(name, 0, length);
+        out.position(out.position() + NAME_SIZE - length);
+        for (long value : row.values) {
+            out.putLong(value);
+        }
+    }
+
+    private static Row readRow(int slot, ByteBuffer in) {
+        boolean team = in.get() == TEAM;
+        UUID id = new UUID(in.getLong(), in.getLong());
+        byte[] name = new byte[in.get()];
+        in.get(name);
+        in.position(in.position() + NAME_SIZE - name.length);
+        Row row = new Row(slot, team, id, new String(name, StandardCharsets.UTF_8));
+        for (int i = 0; i < row.values.length; i++) {
+            row.values[i] = in.getLong();
+        }
+        return row;
+    }
+
+    /**
+     * One player's or team's stats, at a fixed slot in the file
+     */
+    private static final class Row {
+        final int slot;
+        final boolean team;
+        final UUID id;
+        String name;
+        final long[] values = new long[Stat.values().length];
+
+        Row(int slot, boolean team, UUID id, String name) {
+            this.slot = slot;
+            this.team = team;
+            this.id = id;
+            this.name = name;
+        }
+
+        Map<Stat, Long> toMap() {
+            Map<Stat, Long> stats = new EnumMap<>(Stat.class);
+            for (Stat stat : Stat.values()) {
+                stats.put(stat, values[stat.ordinal()]);
+            }
+            return stats;
+        }
+    }
+}
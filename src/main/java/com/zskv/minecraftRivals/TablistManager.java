@@ -1,32 +1,41 @@
 package com.zskv.minecraftRivals;
 
 import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.TextComponent;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextColor;
 import net.kyori.adventure.text.format.TextDecoration;
 import org.bukkit.Bukkit;
-import org.bukkit.ChatColor;
 import org.bukkit.OfflinePlayer;
 import org.bukkit.entity.Player;
-import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.scoreboard.Team;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Manages the MCC-style tablist display for all players
  * Shows teams grouped together with their scores and players
  * Displays offline players as grayed out
+ * In the "native" layout players are grouped by ordering the real player
+ * list entries, and the header only carries team totals
+ * Content is rendered from a {@link HudSnapshot} on the HUD workers and applied on the main thread
  */
 public class TablistManager {
 
     private final MinecraftRivals plugin;
-    private BukkitRunnable updateTask;
     private boolean isRunning = false;
     
-    // Custom font key for pixel_uppercase
-    private static final net.kyori.adventure.key.Key PIXEL_FONT = net.kyori.adventure.key.Key.key("minecraft", "pixel_uppercase");
+    // What each viewer was last sent, so unchanged headers are not re-sent (main thread only)
+    private final Map<UUID, Integer> sentHeaderHashes = new HashMap<>();
+    private final Map<UUID, Integer> sentFooterHashes = new HashMap<>();
+    
+    // Rendered member line per team, reused until membership or online state changes (HUD workers only)
+    private final Map<String, MemberLine> memberLines = new HashMap<>();
+    
+    // Footer from config, only deserialized again when the text changes (HUD workers only)
+    private String footerText;
+    private Component footer;
+    
     private static final net.kyori.adventure.key.Key DEFAULT_FONT = net.kyori.adventure.key.Key.key("minecraft", "default");
 
     public TablistManager(MinecraftRivals plugin) {
@@ -34,94 +43,143 @@ public class TablistManager {
     }
 
     /**
-     * Starts the automatic tablist update task
+     * Draws the tablist for everyone online
+     * Redraws after that are driven by {@link HudRefresher}
      */
     public void startUpdating() {
         if (isRunning) {
             return;
         }
 
-        int updateInterval = plugin.getConfig().getInt("tablist.update-interval", 20); // Default: 1 second
-
-        updateTask = new BukkitRunnable() {
-            @Override
-            public void run() {
-                updateAllTablists();
-            }
-        };
-
-        updateTask.runTaskTimer(plugin, 0L, updateInterval);
+        plugin.getHudRefresher().markPresenceDirty();
         isRunning = true;
-        plugin.getLogger().info("Tablist manager started with update interval: " + updateInterval + " ticks");
+        plugin.getLogger().info("Tablist manager started");
     }
 
     /**
-     * Stops the automatic tablist update task
+     * Stops the tablist manager
      */
     public void stopUpdating() {
-        if (updateTask != null) {
-            updateTask.cancel();
-            updateTask = null;
-        }
         isRunning = false;
+        sentHeaderHashes.clear();
+        sentFooterHashes.clear();
         plugin.getLogger().info("Tablist manager stopped");
     }
 
     /**
-     * Updates the tablist for all online players
+     * Updates the tablist for all online players on the next HUD refresh
      */
     public void updateAllTablists() {
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            updatePlayerTablist(player);
-        }
+        plugin.getHudRefresher().markPresenceDirty();
     }
 
     /**
-     * Updates the tablist for a specific player
-     * @param player The player to update
-     */
-    public void updatePlayerTablist(Player player) {
-        updatePlayerListName(player);
-        updateHeaderFooter(player);
-    }
-
-    /**
-     * Updates the player's display name in the tablist with team colors
+     * Updates the player's display name in the tablist with team colors right away
      * Online players show in team color, offline players show in gray
      * Uses lowercase for better appearance with custom font
      * @param player The player to update
      */
     public void updatePlayerListName(Player player) {
-        Team team = plugin.getScoreboard().getEntryTeam(player.getName());
+        PlayerSession session = plugin.getOnlinePlayerIndex().getSession(player);
+        TeamRegistry.TeamInfo info = session != null ? session.getTeam() : null;
+        // Only teams made with /team are looked up on the scoreboard
+        Team team = info == null ? plugin.getScoreboard().getEntryTeam(player.getName()) : null;
         
         Component displayName;
-        if (team != null) {
+        if (info != null) {
+            displayName = PixelText.name(player.getName(), info.textColor());
+        } else if (team != null) {
             // Online player - show in team color with font (lowercase)
-            TextColor teamColor = chatColorToTextColor(team.getColor());
-            displayName = Component.text(player.getName().toLowerCase())
-                .color(teamColor)
-                .font(PIXEL_FONT);
+            TextColor teamColor = plugin.getTeamRegistry().textColor(team);
+            displayName = PixelText.name(player.getName(), teamColor);
         } else {
             // No team - show in white with font (lowercase)
-            displayName = Component.text(player.getName().toLowerCase())
-                .color(NamedTextColor.WHITE)
-                .font(PIXEL_FONT);
+            displayName = PixelText.name(player.getName(), NamedTextColor.WHITE);
         }
         
-        player.playerListName(displayName);
+        // Setting the same name again would still send a packet to every player
+        if (!displayName.equals(player.playerListName())) {
+            player.playerListName(displayName);
+        }
     }
 
     /**
-     * Updates the header and footer for a specific player
-     * Creates MCC-style layout with teams grouped together
-     * @param player The player to update
+     * Renders the tablist for every viewer in a snapshot, on a HUD worker
+     * The header and footer are the same for everyone, so they are rendered once
+     * @param snapshot The state to render
+     * @return What to send to each viewer
      */
-    public void updateHeaderFooter(Player player) {
-        Component header = buildMCCHeader();
-        Component footer = buildMCCFooter();
+    Frame render(HudSnapshot snapshot) {
+        List<HudSnapshot.TeamState> teams = snapshot.getStandings();
+        // "native" orders the real player list by team, "roster" lists every member in the header
+        boolean nativeLayout = snapshot.isNativeTablist();
+        
+        Component header = nativeLayout ? buildTotalsHeader(teams) : buildMCCHeader(teams, snapshot);
+        Component footer = buildMCCFooter(snapshot.getTablistFooter());
+        
+        // Player list order per team, higher is listed first (best team on top)
+        Map<String, Integer> teamOrders = new HashMap<>();
+        for (int i = 0; i < teams.size(); i++) {
+            teamOrders.put(teams.get(i).name(), teams.size() - i);
+        }
 
-        player.sendPlayerListHeader(header);
-        player.sendPlayerListFooter(footer);
+        Map<UUID, ViewerEntry> entries = new HashMap<>();
+        for (HudSnapshot.Viewer viewer : snapshot.getViewers()) {
+            HudSnapshot.TeamState team = snapshot.getTeam(viewer);
+            Component listName = PixelText.name(viewer.name(), team != null ? team.color() : NamedTextColor.WHITE);
+            
+            // Group the list by team, ordered by standings
+            int order = 0;
+            if (nativeLayout && team != null) {
+                order = teamOrders.getOrDefault(team.name(), 0);
+            }
+            entries.put(viewer.uuid(), new ViewerEntry(listName, order));
+        }
+        
+        return new Frame(header, footer, header.hashCode(), footer.hashCode(), entries);
+    }
+
+    /**
+     * Sends a rendered frame, on the main thread
+     * Skips whatever each player already has
+     * @param frame The frame from {@link #render}
+     */
+    void apply(Frame frame) {
+        for (Map.Entry<UUID, ViewerEntry> entry : frame.entries.entrySet()) {
+            Player player = Bukkit.getPlayer(entry.getKey());
+            if (player == null) {
+                continue;
+            }
+            
+            ViewerEntry viewerEntry = entry.getValue();
+            if (!viewerEntry.listName().equals(player.playerListName())) {
+                player.playerListName(viewerEntry.listName());
+            }
+            if (player.getPlayerListOrder() != viewerEntry.order()) {
+                player.setPlayerListOrder(viewerEntry.order());
+            }
+            
+            UUID uuid = player.getUniqueId();
+            Integer sentHeader = sentHeaderHashes.put(uuid, frame.headerHash);
+            if (sentHeader == null || sentHeader != frame.headerHash) {
+                player.sendPlayerListHeader(frame.header);
+            }
+            Integer sentFooter = sentFooterHashes.put(uuid, frame.footerHash);
+            if (sentFooter == null || sentFooter != frame.footerHash) {
+                player.sendPlayerListFooter(frame.footer);
+            }
+        }
+    }
+
+    /**
+     * Cleans up after a player who left
+     * They show as offline in their team's line, and get a full tablist if they rejoin
+     * @param player The player who left
+     */
+    public void removePlayerTablist(Player player) {
+        sentHeaderHashes.remove(player.getUniqueId());
+        sentFooterHashes.remove(player.getUniqueId());
+        plugin.getHudRefresher().markPresenceDirty();
     }
 
     /**
@@ -133,175 +191,172 @@ public class TablistManager {
      * player1, player2, etc.
      * team 2: (score in gold)
      * player1, player2, etc.
+     * @param teams Teams sorted by score
+     * @param snapshot The snapshot, for online state
      * @return Formatted header component
      */
-    private Component buildMCCHeader() {
-        Component header = Component.empty();
-
-        // Title with custom font (lowercase for better appearance)
-        header = header.append(Component.text("mc rivals")
-            .color(NamedTextColor.AQUA)
-            .decorate(TextDecoration.BOLD)
-            .font(PIXEL_FONT));
-        
-        header = header.append(Component.newline());
-        
-        // Separator
-        header = header.append(Component.text("-----------")
-            .color(NamedTextColor.GRAY)
-            .decorate(TextDecoration.STRIKETHROUGH));
-        
-        header = header.append(Component.newline());
-
-        // Get all teams sorted by score
-        List<TeamScore> teamScores = getTeamScores();
+    private Component buildMCCHeader(List<HudSnapshot.TeamState> teams, HudSnapshot snapshot) {
+        TextComponent.Builder header = Component.text();
+        appendTitle(header);
         
         // Build team listings
         boolean firstTeam = true;
-        for (TeamScore teamScore : teamScores) {
-            Team team = teamScore.team;
-            int points = teamScore.points;
-            TextColor teamColor = chatColorToTextColor(team.getColor());
-            
+        for (HudSnapshot.TeamState team : teams) {
             // Add spacing between teams (except before first team)
             if (!firstTeam) {
-                header = header.append(Component.newline());
+                header.append(Component.newline());
             }
             firstTeam = false;
             
             // Team name with score in gold (lowercase for better appearance)
-            header = header.append(Component.text(team.getDisplayName().toLowerCase() + ": ")
-                .color(teamColor)
-                .decorate(TextDecoration.BOLD)
-                .font(PIXEL_FONT));
-            
-            header = header.append(Component.text(String.valueOf(points))
-                .color(NamedTextColor.GOLD)
-                .font(PIXEL_FONT));
-            
-            header = header.append(Component.newline());
+            appendTeamTotal(header, team);
             
             // Get team members (online and offline)
-            Component playerList = getTeamMembersComponent(team);
-            
-            if (!playerList.equals(Component.empty())) {
-                header = header.append(playerList);
-                header = header.append(Component.newline());
+            if (!team.entries().isEmpty()) {
+                header.append(getTeamMembersComponent(team, snapshot));
+                header.append(Component.newline());
             }
         }
 
-        return header;
+        return header.build();
+    }
+
+    /**
+     * Builds the header for the native layout, where the players themselves
+     * are grouped in the list below it
+     * Format:
+     * mc rivals
+     * -----------
+     * team 1: (score in gold)
+     * team 2: (score in gold)
+     * Its size only depends on the number of teams, not players
+     * @param teams Teams sorted by score
+     * @return Formatted header component
+     */
+    private Component buildTotalsHeader(List<HudSnapshot.TeamState> teams) {
+        TextComponent.Builder header = Component.text();
+        appendTitle(header);
+        
+        for (HudSnapshot.TeamState team : teams) {
+            appendTeamTotal(header, team);
+        }
+        
+        return header.build();
+    }
+
+    /**
+     * Adds a "team: points" line
+     * @param header The header being built
+     * @param team The team
+     */
+    private void appendTeamTotal(TextComponent.Builder header, HudSnapshot.TeamState team) {
+        header.append(PixelText.boldName(team.displayName(), team.color()));
+        header.append(PixelText.bold(": ", team.color()));
+        header.append(PixelText.text(String.valueOf(team.points()), NamedTextColor.GOLD));
+        header.append(Component.newline());
+    }
+
+    /**
+     * Adds the title and separator lines shared by both layouts
+     * @param header The header being built
+     */
+    private void appendTitle(TextComponent.Builder header) {
+        // Title with custom font (lowercase for better appearance)
+        header.append(PixelText.bold("mc rivals", NamedTextColor.AQUA));
+        
+        header.append(Component.newline());
+        
+        // Separator
+        header.append(Component.text("-----------")
+            .color(NamedTextColor.GRAY)
+            .decorate(TextDecoration.STRIKETHROUGH));
+        
+        header.append(Component.newline());
     }
 
     /**
      * Gets formatted component of team members (online in color, offline in gray)
-     * Uses lowercase for better appearance with custom font
+     * The line is cached and only rebuilt when the team's entries changed
+     * or one of its members came online or went offline
      * @param team The team to get members from
+     * @param snapshot The snapshot, for online state
      * @return Component with formatted player names
      */
-    private Component getTeamMembersComponent(Team team) {
-        Set<String> onlinePlayerNames = Bukkit.getOnlinePlayers().stream()
-            .map(Player::getName)
-            .collect(Collectors.toSet());
+    private Component getTeamMembersComponent(HudSnapshot.TeamState team, HudSnapshot snapshot) {
+        Set<String> onlineMembers = new HashSet<>();
+        for (String entry : team.entries()) {
+            if (snapshot.isOnline(entry)) {
+                onlineMembers.add(entry);
+            }
+        }
+        
+        MemberLine cached = memberLines.get(team.name());
+        // Points are left out of the key, they change far more often than the line does
+        if (cached != null && cached.entries.equals(team.entries()) && cached.color.equals(team.color())
+                && cached.onlineMembers.equals(onlineMembers)) {
+            return cached.line;
+        }
         
-        Component result = Component.empty();
+        Component line = buildTeamMembersComponent(team, onlineMembers);
+        memberLines.put(team.name(), new MemberLine(team.entries(), team.color(), onlineMembers, line));
+        return line;
+    }
+
+    /**
+     * Builds the member line for a team
+     * Uses lowercase for better appearance with custom font
+     * @param team The team to get members from
+     * @param onlineMembers The members who are online
+     * @return Component with formatted player names
+     */
+    private Component buildTeamMembersComponent(HudSnapshot.TeamState team, Set<String> onlineMembers) {
+        TextComponent.Builder result = Component.text();
         boolean first = true;
-        TextColor teamColor = chatColorToTextColor(team.getColor());
         
-        for (String entry : team.getEntries()) {
+        for (String entry : team.entries()) {
             if (!first) {
-                result = result.append(Component.text(", ")
-                    .color(NamedTextColor.GRAY)
-                    .font(PIXEL_FONT));
+                result.append(PixelText.text(", ", NamedTextColor.GRAY));
             }
             first = false;
             
-            if (onlinePlayerNames.contains(entry)) {
+            if (onlineMembers.contains(entry)) {
                 // Online player - show in team color with font (lowercase)
-                result = result.append(Component.text(entry.toLowerCase())
-                    .color(teamColor)
-                    .font(PIXEL_FONT));
+                result.append(PixelText.name(entry, team.color()));
             } else {
                 // Offline player - show in gray with font (lowercase)
-                result = result.append(Component.text(entry.toLowerCase())
-                    .color(NamedTextColor.GRAY)
-                    .font(PIXEL_FONT));
+                result.append(PixelText.name(entry, NamedTextColor.GRAY));
             }
         }
         
-        return result;
+        return result.build();
     }
 
     /**
      * Builds the footer (can be used for additional info)
+     * @param configFooter Custom footer from config
      * @return Formatted footer component
      */
-    private Component buildMCCFooter() {
-        // Custom footer from config
-        String configFooter = plugin.getConfig().getString("tablist.footer", 
-            "&7Good luck and have fun!");
+    private Component buildMCCFooter(String configFooter) {
+        if (configFooter.equals(footerText)) {
+            return footer;
+        }
         
         // Convert legacy color codes to Adventure component
-        Component footer = Component.newline()
+        footer = Component.newline()
             .append(net.kyori.adventure.text.serializer.legacy.LegacyComponentSerializer.legacyAmpersand()
                 .deserialize(configFooter)
-                .font(PIXEL_FONT));
+                .font(PixelText.PIXEL_FONT));
+        footerText = configFooter;
 
         return footer;
     }
 
-    /**
-     * Gets all team scores sorted by points (highest first)
-     * Shows all teams even if they have no members
-     * @return List of team scores
-     */
-    private List<TeamScore> getTeamScores() {
-        List<TeamScore> scores = new ArrayList<>();
-        List<String> visibleTeams = plugin.getConfig().getStringList("teams.visible");
-
-        for (String teamName : visibleTeams) {
-            Team team = plugin.getScoreboard().getTeam(teamName);
-            if (team != null) {
-                int points = getTeamPoints(team);
-                scores.add(new TeamScore(team, points));
-            }
-        }
-
-        // Sort by points (descending)
-        scores.sort((a, b) -> Integer.compare(b.points, a.points));
-
-        return scores;
-    }
-
-    /**
-     * Calculates total points for a team
-     * @param team The team to calculate points for
-     * @return Total points
-     */
-    private int getTeamPoints(Team team) {
-        int totalPoints = 0;
-        org.bukkit.scoreboard.Objective pointsObj = plugin.getScoreboard().getObjective("points");
-
-        if (pointsObj != null) {
-            for (String entry : team.getEntries()) {
-                org.bukkit.scoreboard.Score score = pointsObj.getScore(entry);
-                if (score.isScoreSet()) {
-                    totalPoints += score.getScore();
-                }
-            }
-        }
-
-        return totalPoints;
-    }
-
     /**
      * Updates tablist for all players to reflect team changes
      * Call this when a player joins or leaves a team
      */
     public void refreshAllPlayers() {
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            updatePlayerTablist(player);
-        }
+        updateAllTablists();
     }
 
     /**
@@ -309,57 +364,52 @@ public class TablistManager {
      * @param player The player who joined
      */
     public void setupPlayerTablist(Player player) {
-        // Set the player's scoreboard
-        player.setScoreboard(plugin.getScoreboard());
-        
-        // Update their tablist
-        updatePlayerTablist(player);
+        // Their name color is visible to everyone right away
+        updatePlayerListName(player);
         
-        // Update all other players' tablists to show the new player
-        refreshAllPlayers();
+        // Headers for everyone (including this player) are rebuilt once on the next tick
+        plugin.getHudRefresher().markPresenceDirty();
     }
 
     /**
-     * Converts Bukkit ChatColor to Adventure TextColor
-     * @param chatColor The ChatColor to convert
-     * @return Corresponding Adventure TextColor
+     * Rendered tablist content for one refresh
      */
-    private TextColor chatColorToTextColor(ChatColor chatColor) {
-        if (chatColor == null) {
-            return NamedTextColor.WHITE;
+    static final class Frame {
+        final Component header;
+        final Component footer;
+        final int headerHash;
+        final int footerHash;
+        final Map<UUID, ViewerEntry> entries;
+
+        Frame(Component header, Component footer, int headerHash, int footerHash, Map<UUID, ViewerEntry> entries) {
+            this.header = header;
+            this.footer = footer;
+            this.headerHash = headerHash;
+            this.footerHash = footerHash;
+            this.entries = entries;
         }
-        
-        return switch (chatColor) {
-            case BLACK -> NamedTextColor.BLACK;
-            case DARK_BLUE -> NamedTextColor.DARK_BLUE;
-            case DARK_GREEN -> NamedTextColor.DARK_GREEN;
-            case DARK_AQUA -> NamedTextColor.DARK_AQUA;
-            case DARK_RED -> NamedTextColor.DARK_RED;
-            case DARK_PURPLE -> NamedTextColor.DARK_PURPLE;
-            case GOLD -> NamedTextColor.GOLD;
-            case GRAY -> NamedTextColor.GRAY;
-            case DARK_GRAY -> NamedTextColor.DARK_GRAY;
-            case BLUE -> NamedTextColor.BLUE;
-            case GREEN -> NamedTextColor.GREEN;
-            case AQUA -> NamedTextColor.AQUA;
-            case RED -> NamedTextColor.RED;
-            case LIGHT_PURPLE -> NamedTextColor.LIGHT_PURPLE;
-            case YELLOW -> NamedTextColor.YELLOW;
-            case WHITE -> NamedTextColor.WHITE;
-            default -> NamedTextColor.WHITE;
-        };
     }
 
     /**
-     * Helper class to store team scores
+     * A viewer's own list name and list order
      */
-    private static class TeamScore {
-        final Team team;
-        final int points;
+    private record ViewerEntry(Component listName, int order) {
+    }
 
-        TeamScore(Team team, int points) {
-            this.team = team;
-            this.points = points;
+    /**
+     * Cached member line and the members, color and online members it was built from
+     */
+    private static class MemberLine {
+        final List<String> entries;
+        final TextColor color;
+        final Set<String> onlineMembers;
+        final Component line;
+
+        MemberLine(List<String> entries, TextColor color, Set<String> onlineMembers, Component line) {
+            this.entries = entries;
+            this.color = color;
+            this.onlineMembers = onlineMembers;
+            this.line = line;
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,401 @@
+package com.zskv.minecraftRivals;
+
+import org.bukkit.Bukkit;
+import org.bukkit.OfflinePlayer;
+import org.bukkit.scoreboard.Objective;
+import org.bukkit.scoreboard.Score;
+import org.bukkit.scoreboard.Scoreboard;
+import org.bukkit.scoreboard.Team;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.logging.Level;
+
+/**
+ * Keeps player and team point totals up to date as scores change
+ * Every change is appended to the {@link PointsLedger} first, which is the
+ * source of truth - totals are replayed from it on startup and the "points"
+ * objective is only a mirror of it
+ * Reads never have to walk team entries - the sidebar, tablist and minigames all read here
+ * A team's total is what was scored for it, points stay with the team when a
+ * player switches to another one
+ * Visible teams are also kept in rank order in a {@link Leaderboard}, and
+ * every change to their totals is recorded in the {@link StandingsHistory}
+ */
+public class TeamPointsIndex {
+
+    private static final String POINTS_OBJECTIVE = "points";
+
+    private final MinecraftRivals plugin;
+    private final PointsLedger ledger;
+    private final StandingsHistory history;
+
+    private final Map<String, Integer> playerPoints = new HashMap<>();
+    private final Map<String, String> playerTeams = new HashMap<>();
+    // Event points by the team each change was credited to in the ledger
+    private final Map<String, Integer> teamTotals = new HashMap<>();
+    // Game points by game number, player name and the team they scored for
+    private final Map<Integer, Map<String, Map<String, Integer>>> gamePoints = new HashMap<>();
+
+    private final Leaderboard leaderboard = new Leaderboard();
+    private final Set<String> visibleTeams = new HashSet<>();
+
+    public TeamPointsIndex(MinecraftRivals plugin) {
+        this.plugin = plugin;
+        this.ledger = new PointsLedger(new File(plugin.getDataFolder(), "points.ledger"), plugin.getLogger());
+        this.history = new StandingsHistory(new File(plugin.getDataFolder(), "standings.history"), plugin.getLogger());
+    }
+
+    /**
+     * Replays the ledger into player and team totals, then reads team membership
+     * Called once on startup
+     * @return false if the ledger could not be opened
+     */
+    public boolean load() {
+        List<PointsLedger.Record> records;
+        try {
+            records = ledger.open();
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to open the points ledger", e);
+            return false;
+        }
+
+        playerPoints.clear();
+        teamTotals.clear();
+        gamePoints.clear();
+        PlayerPointsStore store = plugin.getPlayerPointsStore();
+        for (PointsLedger.Record record : records) {
+            apply(record, store);
+        }
+        plugin.getLogger().info("Replayed " + records.size() + " point changes from the ledger");
+
+        history.load();
+        rebuild();
+        return true;
+    }
+
+    public void close() {
+        history.flush();
+        ledger.close();
+    }
+
+    /**
+     * Rebuilds team membership and the leaderboard from the scoreboard
+     * Scores in the "points" objective that differ from the ledger (edited
+     * with /scoreboard, or from before the ledger existed) are appended to
+     * the ledger, so the edit is kept and shows up in the history
+     * Only needed on startup and after scores were edited outside the plugin
+     * (/mcr reload, /mcr points sync), never on a timer
+     */
+    public void rebuild() {
+        playerTeams.clear();
+        visibleTeams.clear();
+        visibleTeams.addAll(plugin.getSettings().visibleTeams());
+
+        Scoreboard scoreboard = plugin.getScoreboard();
+        Objective pointsObj = scoreboard.getObjective(POINTS_OBJECTIVE);
+
+        for (Team team : scoreboard.getTeams()) {
+            for (String entry : team.getEntries()) {
+                playerTeams.put(entry, team.getName());
+            }
+        }
+        // Picks up teams edited with /team
+        plugin.getRuntimeState().setTeams(playerTeams);
+        plugin.getOnlinePlayerIndex().refreshTeams();
+
+        if (pointsObj != null) {
+            String reason = ledger.size() == 0 ? "imported from scoreboard" : "scoreboard edit";
+            for (String entry : scoreboard.getEntries()) {
+                Score score = pointsObj.getScore(entry);
+                if (score.isScoreSet() && score.getScore() != getPlayerPoints(entry)) {
+                    // The leaderboard is rebuilt once below, so the edits reach
+                    // the history as one sample per team
+                    write(PointsLedger.Scope.EVENT, -1, entry, playerTeams.get(entry), currentGame(),
+                        score.getScore() - getPlayerPoints(entry), reason);
+                }
+            }
+            // The mirror may be missing scores, e.g. after the objective was recreated
+            for (Map.Entry<String, Integer> entry : playerPoints.entrySet()) {
+                Score score = pointsObj.getScore(entry.getKey());
+                if (!score.isScoreSet() || score.getScore() != entry.getValue()) {
+                    score.setScore(entry.getValue());
+                }
+            }
+        }
+
+        leaderboard.clear();
+        for (Team team : scoreboard.getTeams()) {
+            teamTotals.putIfAbsent(team.getName(), 0);
+            // Cleared above, so placing every team again is not reported as rank changes
+            // The history skips unchanged totals, so only teams whose total changed get a sample
+            updateLeaderboard(team.getName());
+        }
+    }
+
+    /**
+     * Gets the event points scored for a team, also by players who have since left it
+     * @param teamName The team name
+     * @return Total points
+     */
+    public int getTeamPoints(String teamName) {
+        return teamTotals.getOrDefault(teamName, 0);
+    }
+
+    /**
+     * @return Visible teams in rank order
+     */
+    public Leaderboard getLeaderboard() {
+        return leaderboard;
+    }
+
+    /**
+     * @return Every visible team's total over time
+     */
+    public StandingsHistory getHistory() {
+        return history;
+    }
+
+    /**
+     * Gets a single player's points
+     * @param entry The player name
+     * @return The player's points, 0 if they have none
+     */
+    public int getPlayerPoints(String entry) {
+        return playerPoints.getOrDefault(entry, 0);
+    }
+
+    /**
+     * Adds points to a player (negative amounts remove points)
+     * @param entry The player name
+     * @param amount Points to add
+     * @param reason Why, shown in the ledger history
+     * @return false if the change could not be written to the ledger
+     */
+    public boolean addPoints(String entry, int amount, String reason) {
+        return amount == 0 || record(PointsLedger.Scope.EVENT, -1, entry, playerTeams.get(entry), currentGame(),
+            amount, reason) != null;
+    }
+
+    /**
+     * Adds points to many players at once, e.g. a game's results
+     * Every change is written to the ledger, but team totals and the HUD are updated once
+     * @param amounts Points to add per player name
+     * @param reason Why, shown in the ledger history
+     * @return false if a change could not be written to the ledger (the ones before it are kept)
+     */
+    public boolean addPoints(Map<String, Integer> amounts, String reason) {
+        Map<String, Map<String, Integer>> byTeam = new LinkedHashMap<>();
+        for (Map.Entry<String, Integer> amount : amounts.entrySet()) {
+            byTeam.put(amount.getKey(), Collections.singletonMap(null, amount.getValue()));
+        }
+        return addTeamPoints(byTeam, reason);
+    }
+
+    /**
+     * Adds points to many players at once, each change credited to the team it
+     * was scored for, e.g. the results of a game some players switched teams in
+     * That team's total gets the points, not the player's current team
+     * @param amounts Points to add per player name, then per team (null for their current team)
+     * @param reason Why, shown in the ledger history
+     * @return false if a change could not be written to the ledger (the ones before it are kept)
+     */
+    public boolean addTeamPoints(Map<String, Map<String, Integer>> amounts, String reason) {
+        Set<String> changedTeams = new HashSet<>();
+        boolean written = true;
+        players:
+        for (Map.Entry<String, Map<String, Integer>> player : amounts.entrySet()) {
+            String entry = player.getKey();
+            for (Map.Entry<String, Integer> amount : player.getValue().entrySet()) {
+                if (amount.getValue() == 0) {
+                    continue;
+                }
+                String team = amount.getKey() != null ? amount.getKey() : playerTeams.get(entry);
+                PointsLedger.Record record = write(PointsLedger.Scope.EVENT, -1, entry, team,
+                    currentGame(), amount.getValue(), reason);
+                if (record == null) {
+                    written = false;
+                    break players;
+                }
+                if (team != null) {
+                    changedTeams.add(team);
+                }
+            }
+        }
+
+        for (String team : changedTeams) {
+            updateLeaderboard(team);
+        }
+        return written;
+    }
+
+    /**
+     * Sets a player's points and updates their team's total
+     * @param entry The player name
+     * @param points The new points value
+     * @param reason Why, shown in the ledger history
+     * @return false if the change could not be written to the ledger
+     */
+    public boolean setPoints(String entry, int points, String reason) {
+        return addPoints(entry, points - getPlayerPoints(entry), reason);
+    }
+
+    /**
+     * Logs points a player scored inside a minigame
+     * They don't count towards the standings until the game's results are
+     * folded in by {@link ScoringEngine}
+     * @param entry The player name
+     * @param team The team they scored for
+     * @param amount Points scored
+     * @param reason Why, shown in the ledger history
+     */
+    public void addGamePoints(String entry, String team, int amount, String reason) {
+        if (amount != 0) {
+            record(PointsLedger.Scope.GAME, -1, entry, team, currentGame(), amount, reason);
+        }
+    }
+
+    /**
+     * Gets the points a player scored inside a game, per team they scored for
+     * @param game The game number
+     * @param entry The player name
+     * @return Points by team, empty if they scored none
+     */
+    public Map<String, Integer> getGamePoints(int game, String entry) {
+        Map<String, Map<String, Integer>> players = gamePoints.get(game);
+        Map<String, Integer> teams = players != null ? players.get(entry) : null;
+        return teams != null ? Collections.unmodifiableMap(teams) : Map.of();
+    }
+
+    /**
+     * Reverts the newest event point change that was not undone yet
+     * @param reason Why, shown in the ledger history
+     * @return The change that was reverted, or null if there was nothing to undo
+     */
+    public PointsLedger.Record undoLast(String reason) {
+        PointsLedger.Record target = ledger.findUndoable();
+        if (target == null) {
+            return null;
+        }
+        // Credited to the same team and game as the change it reverts
+        PointsLedger.Record undo = record(target.scope(), target.sequence(), target.entry(), target.team(),
+            target.game(), -target.delta(), reason);
+        return undo != null ? target : null;
+    }
+
+    public PointsLedger getLedger() {
+        return ledger;
+    }
+
+    /**
+     * Writes a change to the ledger, then applies it to the totals and the leaderboard
+     * @return The record, or null if it could not be written
+     */
+    private PointsLedger.Record record(PointsLedger.Scope scope, long undoes, String entry, String team,
+                                       int game, int delta, String reason) {
+        PointsLedger.Record record = write(scope, undoes, entry, team, game, delta, reason);
+        if (record == null) {
+            return null;
+        }
+
+        if (record.scope() == PointsLedger.Scope.EVENT && record.team() != null) {
+            updateLeaderboard(record.team());
+        }
+
+        return record;
+    }
+
+    /**
+     * Writes a change to the ledger and applies it to the totals and the objective
+     * The leaderboard is left to the caller
+     * @return The record, or null if it could not be written
+     */
+    private PointsLedger.Record write(PointsLedger.Scope scope, long undoes, String entry, String team,
+                                      int game, int delta, String reason) {
+        PointsLedger.Record record;
+        try {
+            record = ledger.append(scope, undoes, resolveUniqueId(entry), entry, team, game, delta, reason);
+        } catch (IOException e) {
+            plugin.getLogger().log(Level.SEVERE, "Failed to write a point change to the ledger", e);
+            return null;
+        }
+
+        apply(record, plugin.getPlayerPointsStore());
+
+        // The HUD and lifetime stats pick it up at the end of the tick
+        plugin.getEventBus().post(new RivalsEvent.PointsChanged(record));
+
+        if (record.scope() == PointsLedger.Scope.EVENT) {
+            Objective pointsObj = plugin.getScoreboard().getObjective(POINTS_OBJECTIVE);
+            if (pointsObj != null) {
+                pointsObj.getScore(entry).setScore(getPlayerPoints(entry));
+            }
+        }
+        return record;
+    }
+
+    /**
+     * Applies a ledger record to player and team totals and the attribution store
+     * Game points only count per team they were scored for - they reach the
+     * totals as event points when the game's results are folded in
+     */
+    private void apply(PointsLedger.Record record, PlayerPointsStore store) {
+        if (record.scope() != PointsLedger.Scope.EVENT) {
+            if (record.team() != null) {
+                gamePoints.computeIfAbsent(record.game(), key -> new HashMap<>())
+                    .computeIfAbsent(record.entry(), key -> new HashMap<>())
+                    .merge(record.team(), record.delta(), Integer::sum);
+            }
+            return;
+        }
+        playerPoints.merge(record.entry(), record.delta(), Integer::sum);
+        if (record.team() != null) {
+            teamTotals.merge(record.team(), record.delta(), Integer::sum);
+        }
+        if (record.player() != null) {
+            store.record(record.player(), record.team(), record.game(), record.delta());
+        }
+    }
+
+    /**
+     * Moves a player to another team, points they already scored stay with the old one
+     * Call this whenever a player joins or leaves a team
+     * @param entry The player name
+     * @param teamName The new team, or null if they left their team
+     */
+    public void moveEntry(String entry, String teamName) {
+        String oldTeam = teamName != null ? playerTeams.put(entry, teamName) : playerTeams.remove(entry);
+
+        plugin.getRuntimeState().setTeam(entry, teamName);
+        plugin.getOnlinePlayerIndex().updateTeam(entry, teamName);
+        plugin.getEventBus().post(new RivalsEvent.TeamMembershipChanged(entry, oldTeam, teamName));
+    }
+
+    private int currentGame() {
+        return plugin.getRuntimeState().getCurrentGame();
+    }
+
+    private UUID resolveUniqueId(String entry) {
+        UUID uuid = plugin.getOnlinePlayerIndex().getUniqueId(entry);
+        if (uuid == null) {
+            OfflinePlayer offline = Bukkit.getOfflinePlayerIfCached(entry);
+            uuid = offline != null ? offline.getUniqueId() : null;
+        }
+        return uuid;
+    }
+
+    private void updateLeaderboard(String teamName) {
+        if (visibleTeams.contains(teamName)) {
+            leaderboard.update(teamName, getTeamPoints(teamName));
+            history.record(teamName, getTeamPoints(teamName), currentGame(), Bukkit.getCurrentTick());
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.zskv.minecraftRivals;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextColor;
+import org.bukkit.ChatColor;
+import org.bukkit.Color;
+import org.bukkit.scoreboard.Scoreboard;
+import org.bukkit.scoreboard.Team;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The event's teams, built from config.yml on enable and on /mcr reload
+ * Each team's colors and name component are worked out once, so rendering
+ * and announcements don't convert colors or look teams up on the scoreboard
+ * Teams are numbered visible teams first, in config order, so per-team data
+ * can live in arrays indexed by {@link TeamInfo#index()}
+ * Immutable, safe to read from any thread
+ */
+public final class TeamRegistry {
+
+    /**
+     * A configured team
+     * @param index Position in the registry, visible teams come first
+     * @param visible false for backlog teams
+     * @param fireworkColor Matches the chat color, for fireworks and particles
+     * @param displayName The name in the team color
+     */
+    public record TeamInfo(int index, String name, boolean visible, ChatColor chatColor, TextColor textColor,
+                           Color fireworkColor, Component displayName) {
+    }
+
+    private static final Map<String, ChatColor> COLORS = Map.of(
+        "Red", ChatColor.RED,
+        "Orange", ChatColor.GOLD,
+        "Yellow", ChatColor.YELLOW,
+        "Lime", ChatColor.GREEN,
+        "Green", ChatColor.DARK_GREEN,
+        "Cyan", ChatColor.AQUA,
+        "Blue", ChatColor.BLUE,
+        "Purple", ChatColor.DARK_PURPLE,
+        "Magenta", ChatColor.LIGHT_PURPLE,
+        "Pink", ChatColor.LIGHT_PURPLE
+    );
+
+    private final List<TeamInfo> teams;
+    private final Map<String, TeamInfo> byName;
+    private final int visibleCount;
+
+    private TeamRegistry(List<TeamInfo> teams, int visibleCount) {
+        this.teams = List.copyOf(teams);
+        this.visibleCount = visibleCount;
+        Map<String, TeamInfo> names = new HashMap<>();
+        for (TeamInfo team : teams) {
+            names.put(team.name(), team);
+        }
+        this.byName = Map.copyOf(names);
+    }
+
+    /**
+     * Builds the registry from the visible and backlog teams in the settings
+     */
+    public static TeamRegistry build(RivalsConfig settings) {
+        List<TeamInfo> teams = new ArrayList<>();
+        for (String name : settings.visibleTeams()) {
+            teams.add(create(teams.size(), name, true));
+        }
+        int visibleCount = teams.size();
+        for (String name : settings.backlogTeams()) {
+            teams.add(create(teams.size(), name, false));
+        }
+        return new TeamRegistry(teams, visibleCount);
+    }
+
+    private static TeamInfo create(int index, String name, boolean visible) {
+        ChatColor chatColor = COLORS.getOrDefault(name, ChatColor.WHITE);
+        TextColor textColor = toTextColor(chatColor);
+        return new TeamInfo(index, name, visible, chatColor, textColor, toFireworkColor(chatColor),
+            Component.text(name, textColor));
+    }
+
+    /**
+     * Creates every team on the scoreboard, or updates its settings if it exists
+     */
+    public void apply(Scoreboard scoreboard) {
+        for (TeamInfo info : teams) {
+            Team team = scoreboard.getTeam(info.name());
+            if (team == null) {
+                team = scoreboard.registerNewTeam(info.name());
+            }
+            team.setColor(info.chatColor());
+            team.setDisplayName(info.name());
+            team.setPrefix(info.chatColor() + "[" + info.name() + "] ");
+            team.setSuffix(ChatColor.RESET + "");
+            team.setAllowFriendlyFire(false);
+            team.setCanSeeFriendlyInvisibles(true);
+            team.setOption(Team.Option.NAME_TAG_VISIBILITY, Team.OptionStatus.ALWAYS);
+            team.setOption(Team.Option.COLLISION_RULE, Team.OptionStatus.FOR_OWN_TEAM);
+        }
+    }
+
+    /**
+     * @return The team, or null if it is not configured (e.g. made with /team)
+     */
+    public TeamInfo get(String name) {
+        return byName.get(name);
+    }
+
+    public TeamInfo get(int index) {
+        return teams.get(index);
+    }
+
+    /**
+     * @return Every team, visible teams first
+     */
+    public List<TeamInfo> getTeams() {
+        return teams;
+    }
+
+    /**
+     * @return Visible teams, in config order
+     */
+    public List<TeamInfo> getVisibleTeams() {
+        return teams.subList(0, visibleCount);
+    }
+
+    public int size() {
+        return teams.size();
+    }
+
+    /**
+     * Gets a team's text color, also for teams that are not configured
+     */
+    public TextColor textColor(Team team) {
+        TeamInfo info = byName.get(team.getName());
+        return info != null ? info.textColor() : toTextColor(team.getColor());
+    }
+
+    /**
+     * Converts Bukkit ChatColor to Adventure TextColor
+     * @param chatColor The ChatColor to convert
+     * @return Corresponding Adventure TextColor
+     */
+    static TextColor toTextColor(ChatColor chatColor) {
+        if (chatColor == null) {
+            return NamedTextColor.WHITE;
+        }
+
+        return switch (chatColor) {
+            case BLACK -> NamedTextColor.BLACK;
+            case DARK_BLUE -> NamedTextColor.DARK_BLUE;
+            case DARK_GREEN -> NamedTextColor.DARK_GREEN;
+            case DARK_AQUA -> NamedTextColor.DARK_AQUA;
+            case DARK_RED -> NamedTextColor.DARK_RED;
+            case DARK_PURPLE -> NamedTextColor.DARK_PURPLE;
+            case GOLD -> NamedTextColor.GOLD;
+            case GRAY -> NamedTextColor.GRAY;
+            case DARK_GRAY -> NamedTextColor.DARK_GRAY;
+            case BLUE -> NamedTextColor.BLUE;
+            case GREEN -> NamedTextColor.GREEN;
+            case AQUA -> NamedTextColor.AQUA;
+            case RED -> NamedTextColor.RED;
+            case LIGHT_PURPLE -> NamedTextColor.LIGHT_PURPLE;
+            case YELLOW -> NamedTextColor.YELLOW;
+            case WHITE -> NamedTextColor.WHITE;
+            default -> NamedTextColor.WHITE;
+        };
+    }
+
+    /**
+     * Converts Bukkit ChatColor to the matching RGB color
+     */
+    static Color toFireworkColor(ChatColor chatColor) {
+        if (chatColor == null) {
+            return Color.WHITE;
+        }
+
+        return switch (chatColor) {
+            case DARK_RED -> Color.fromRGB(170, 0, 0);
+            case RED -> Color.fromRGB(255, 85, 85);
+            case GOLD -> Color.fromRGB(255, 170, 0);
+            case YELLOW -> Color.fromRGB(255, 255, 85);
+            case DARK_GREEN -> Color.fromRGB(0, 170, 0);
+            case GREEN -> Color.fromRGB(85, 255, 85);
+            case AQUA -> Color.fromRGB(85, 255, 255);
+            case DARK_AQUA -> Color.fromRGB(0, 170, 170);
+            case DARK_BLUE -> Color.fromRGB(0, 0, 170);
+            case BLUE -> Color.fromRGB(85, 85, 255);
+            case LIGHT_PURPLE -> Color.fromRGB(255, 85, 255);
+            case DARK_PURPLE -> Color.fromRGB(170, 0, 170);
+            case WHITE -> Color.WHITE;
+            case GRAY -> Color.GRAY;
+            case DARK_GRAY -> Color.fromRGB(85, 85, 85);
+            case BLACK -> Color.BLACK;
+            default -> Color.WHITE;
+        };
+    }
+}
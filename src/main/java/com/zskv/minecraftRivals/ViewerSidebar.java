@@ -0,0 +1,179 @@
+package com.zskv.minecraftRivals;
+
+import net.kyori.adventure.text.Component;
+import org.bukkit.scoreboard.DisplaySlot;
+import org.bukkit.scoreboard.Objective;
+import org.bukkit.scoreboard.Score;
+import org.bukkit.scoreboard.Scoreboard;
+import org.bukkit.scoreboard.Team;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A sidebar owned by a single viewer
+ * Remembers the last rendered lines so only changed lines are sent to the client
+ */
+public class ViewerSidebar {
+
+    public static final int MAX_LINES = 15;
+
+    // One unique invisible entry per line slot, built once
+    private static final String[] ENTRIES = new String[MAX_LINES];
+
+    static {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < MAX_LINES; i++) {
+            sb.append("§r");
+            ENTRIES[i] = sb.toString();
+        }
+    }
+
+    private final Scoreboard scoreboard;
+    private final Objective objective;
+    private final Component[] lines = new Component[MAX_LINES];
+    private int lineCount;
+    // Tab list column, see CustomScoreboardManager#showPlayerList
+    private Objective playerList;
+
+    // Last output of each layout line for this viewer, see SidebarLayout
+    // Written by the HUD workers, cleared on the main thread
+    private volatile SidebarLayout.RenderCache renderCache;
+
+    public ViewerSidebar(Scoreboard scoreboard, Component title) {
+        this.scoreboard = scoreboard;
+        this.objective = scoreboard.registerNewObjective("sidebar", "dummy", title);
+        this.objective.setDisplaySlot(DisplaySlot.SIDEBAR);
+    }
+
+    public Scoreboard getScoreboard() {
+        return scoreboard;
+    }
+
+    SidebarLayout.RenderCache getRenderCache() {
+        return renderCache;
+    }
+
+    void setRenderCache(SidebarLayout.RenderCache renderCache) {
+        this.renderCache = renderCache;
+    }
+
+    /**
+     * Renders the given lines top to bottom, only touching slots that changed
+     * @param newLines The lines to show (anything past {@link #MAX_LINES} is dropped)
+     * @return Number of score writes that were sent
+     */
+    public int render(List<Component> newLines) {
+        int count = Math.min(newLines.size(), MAX_LINES);
+        int writes = 0;
+
+        for (int i = 0; i < count; i++) {
+            Component line = newLines.get(i);
+            if (line.equals(lines[i])) {
+                continue;
+            }
+
+            Score score = objective.getScore(ENTRIES[i]);
+            score.customName(line);
+            if (lines[i] == null) {
+                // Slot was empty, so the score value has to be sent as well
+                score.setScore(MAX_LINES - i);
+            }
+            lines[i] = line;
+            writes++;
+        }
+
+        // Remove slots that are no longer used
+        for (int i = count; i < lineCount; i++) {
+            scoreboard.resetScores(ENTRIES[i]);
+            lines[i] = null;
+            writes++;
+        }
+
+        lineCount = count;
+        return writes;
+    }
+
+    /**
+     * Clears every line so the sidebar can be handed to another viewer
+     */
+    public void clear() {
+        for (int i = 0; i < lineCount; i++) {
+            scoreboard.resetScores(ENTRIES[i]);
+            lines[i] = null;
+        }
+        lineCount = 0;
+        renderCache = null;
+        hidePlayerList();
+    }
+
+    /**
+     * Shows a score column in the tab list, replacing the current one
+     * @param name The objective name
+     * @param title The column title
+     * @param scores The scores by entry
+     */
+    public void showPlayerList(String name, Component title, Map<String, Integer> scores) {
+        hidePlayerList();
+        playerList = scoreboard.registerNewObjective(name, "dummy", title);
+        playerList.setDisplaySlot(DisplaySlot.PLAYER_LIST);
+        for (Map.Entry<String, Integer> entry : scores.entrySet()) {
+            playerList.getScore(entry.getKey()).setScore(entry.getValue());
+        }
+    }
+
+    /**
+     * Sets one score of the tab list column, does nothing if none is shown
+     */
+    public void setPlayerListScore(String entry, int score) {
+        if (playerList != null) {
+            playerList.getScore(entry).setScore(score);
+        }
+    }
+
+    /**
+     * Removes the tab list column, if one is shown
+     */
+    public void hidePlayerList() {
+        if (playerList != null) {
+            playerList.unregister();
+            playerList = null;
+        }
+    }
+
+    /**
+     * Mirrors the teams of the main scoreboard so name tags and colors stay correct
+     * Team settings are copied when a team is first created, entries on every call
+     * @param source The scoreboard holding the real teams
+     */
+    public void syncTeams(Scoreboard source) {
+        for (Team team : source.getTeams()) {
+            Team mirror = scoreboard.getTeam(team.getName());
+            if (mirror == null) {
+                mirror = scoreboard.registerNewTeam(team.getName());
+                mirror.setColor(team.getColor());
+                mirror.setDisplayName(team.getDisplayName());
+                mirror.setPrefix(team.getPrefix());
+                mirror.setSuffix(team.getSuffix());
+                mirror.setAllowFriendlyFire(team.allowFriendlyFire());
+                mirror.setCanSeeFriendlyInvisibles(team.canSeeFriendlyInvisibles());
+                for (Team.Option option : Team.Option.values()) {
+                    mirror.setOption(option, team.getOption(option));
+                }
+            }
+
+            Set<String> wanted = team.getEntries();
+            for (String entry : mirror.getEntries()) {
+                if (!wanted.contains(entry)) {
+                    mirror.removeEntry(entry);
+                }
+            }
+            for (String entry : wanted) {
+                if (!mirror.hasEntry(entry)) {
+                    mirror.addEntry(entry);
+                }
+            }
+        }
+    }
+}
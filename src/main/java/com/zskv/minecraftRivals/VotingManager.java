@@ -18,11 +18,16 @@ import org.bukkit.event.Listener;
 import org.bukkit.event.entity.EntityDamageByEntityEvent;
 import org.bukkit.event.entity.EntityDamageEvent;
 import org.bukkit.event.player.PlayerInteractEntityEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
 import org.bukkit.event.player.PlayerMoveEvent;
+import org.bukkit.event.world.EntitiesLoadEvent;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.scheduler.BukkitTask;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.HashMap;
@@ -38,10 +43,15 @@ public class VotingManager implements Listener {
 
     private static final int VOTING_DURATION_SECONDS = 30;
     private static final double FALL_Y_THRESHOLD = -47.0;
+    // Marks voting ghasts, so ones left behind by a crash can be found and removed
+    private static final String GHAST_TAG = "mcr_voting_ghast";
     
     private final MinecraftRivals plugin;
+    // Registered only while voting runs
+    private final ActiveListener votingListener;
     
     private boolean votingActive = false;
+    private int secondsRemaining;
     private BossBar votingBossBar;
     private BukkitTask votingTask;
     private BukkitTask fallCheckTask;
@@ -59,7 +69,22 @@ public class VotingManager implements Listener {
     
     public VotingManager(MinecraftRivals plugin) {
         this.plugin = plugin;
-        Bukkit.getPluginManager().registerEvents(this, plugin);
+        this.votingListener = new ActiveListener(plugin, this);
+        Bukkit.getPluginManager().registerEvents(new OrphanCleanup(), plugin);
+        
+        // Resumes voting that was running when the server stopped
+        plugin.getCheckpointStore().register("voting", new CheckpointStore.Section() {
+            @Override
+            public boolean write(DataOutputStream out) throws IOException {
+                return writeCheckpoint(out);
+            }
+            
+            @Override
+            public void resume(DataInputStream in) throws IOException {
+                resumeFromCheckpoint(in);
+            }
+        });
+        removeOrphanedGhasts();
     }
     
     /**
@@ -77,16 +102,7 @@ public class VotingManager implements Listener {
             return false;
         }
         
-        // Initialize game locations
-        GAME_LOCATIONS.clear();
-        GAME_LOCATIONS.put("Capture The Ghast", new Location(lobbyWorld, -16, -36, 66));
-        GAME_LOCATIONS.put("Glide", new Location(lobbyWorld, -8, -36, 74));
-        GAME_LOCATIONS.put("Dish Dash", new Location(lobbyWorld, 4, -36, 74));
-        GAME_LOCATIONS.put("Protect the Something", new Location(lobbyWorld, 4, -36, 46));
-        GAME_LOCATIONS.put("Blueprint Blitz", new Location(lobbyWorld, -8, -36, 46));
-        GAME_LOCATIONS.put("Shopping Skirmish", new Location(lobbyWorld, 13, -36, 53));
-        
-        respawnLocation = new Location(lobbyWorld, 25, -23, 60);
+        initializeLocations(lobbyWorld);
         
         // Find the armor stand that ghasts should face
         facingTarget = findVotingGhastFace(lobbyWorld);
@@ -102,16 +118,7 @@ public class VotingManager implements Listener {
         originalGameModes.clear();
         
         // Spawn ghasts for each game
-        for (Map.Entry<String, Location> entry : GAME_LOCATIONS.entrySet()) {
-            String gameName = entry.getKey();
-            Location loc = entry.getValue();
-            
-            Entity ghast = spawnVotingGhast(loc, gameName);
-            if (ghast != null) {
-                gameGhasts.put(gameName, ghast);
-                voteCount.put(gameName, 0);
-            }
-        }
+        spawnVotingGhasts();
         
         if (gameGhasts.isEmpty()) {
             plugin.getLogger().warning("Failed to spawn any voting ghasts!");
@@ -133,11 +140,54 @@ public class VotingManager implements Listener {
             player.getInventory().addItem(new ItemStack(Material.SNOWBALL, 1));
         }
         
+        secondsRemaining = VOTING_DURATION_SECONDS;
+        beginVoting();
+        plugin.getCheckpointStore().save();
+        return true;
+    }
+    
+    /**
+     * Sets where each game's ghast and the respawn point are
+     */
+    private void initializeLocations(World lobbyWorld) {
+        GAME_LOCATIONS.clear();
+        GAME_LOCATIONS.put("Capture The Ghast", new Location(lobbyWorld, -16, -36, 66));
+        GAME_LOCATIONS.put("Glide", new Location(lobbyWorld, -8, -36, 74));
+        GAME_LOCATIONS.put("Dish Dash", new Location(lobbyWorld, 4, -36, 74));
+        GAME_LOCATIONS.put("Protect the Something", new Location(lobbyWorld, 4, -36, 46));
+        GAME_LOCATIONS.put("Blueprint Blitz", new Location(lobbyWorld, -8, -36, 46));
+        GAME_LOCATIONS.put("Shopping Skirmish", new Location(lobbyWorld, 13, -36, 53));
+        
+        respawnLocation = new Location(lobbyWorld, 25, -23, 60);
+    }
+    
+    /**
+     * Spawns a ghast for each game, keeping votes already cast
+     */
+    private void spawnVotingGhasts() {
+        for (Map.Entry<String, Location> entry : GAME_LOCATIONS.entrySet()) {
+            String gameName = entry.getKey();
+            Location loc = entry.getValue();
+            
+            Entity ghast = spawnVotingGhast(loc, gameName);
+            if (ghast != null) {
+                gameGhasts.put(gameName, ghast);
+                voteCount.putIfAbsent(gameName, 0);
+            }
+        }
+    }
+    
+    /**
+     * Shows the bossbar and starts the countdown from secondsRemaining
+     */
+    private void beginVoting() {
         votingActive = true;
+        votingListener.register();
+        plugin.getReplayRecorder().startRound("voting");
         
         // Create and show voting bossbar
         votingBossBar = Bukkit.createBossBar(
-            "Voting Time: 30s",
+            "Voting Time: " + secondsRemaining + "s",
             BarColor.YELLOW,
             BarStyle.SOLID
         );
@@ -155,8 +205,6 @@ public class VotingManager implements Listener {
         
         // Start fall check task
         startFallCheckTask();
-        
-        return true;
     }
     
     /**
@@ -169,6 +217,7 @@ public class VotingManager implements Listener {
         }
         
         Entity ghast = world.spawnEntity(location, EntityType.HAPPY_GHAST);
+        ghast.addScoreboardTag(GHAST_TAG);
         
         // Configure ghast (cast to LivingEntity for common methods)
         if (ghast instanceof LivingEntity) {
@@ -219,8 +268,6 @@ public class VotingManager implements Listener {
      */
     private void startVotingCountdown() {
         votingTask = new BukkitRunnable() {
-            private int secondsRemaining = VOTING_DURATION_SECONDS;
-            
             @Override
             public void run() {
                 if (!votingActive) {
@@ -314,6 +361,7 @@ public class VotingManager implements Listener {
                 if (gameName != null) {
                     // Increment vote count
                     voteCount.put(gameName, voteCount.getOrDefault(gameName, 0) + 1);
+                    plugin.getEventBus().post(new RivalsEvent.VoteCast(player, gameName));
                     
                     // Remove one snowball
                     if (item.getAmount() > 1) {
@@ -365,6 +413,8 @@ public class VotingManager implements Listener {
      */
     private void endVoting() {
         votingActive = false;
+        votingListener.unregister();
+        plugin.getCheckpointStore().save();
         
         // Stop fall check task
         if (fallCheckTask != null) {
@@ -389,6 +439,12 @@ public class VotingManager implements Listener {
             }
         }
         
+        plugin.getEventBus().post(new RivalsEvent.PhaseChanged("voting", winningGame != null ? "won by " + winningGame : "no votes"));
+        if (winningGame != null) {
+            plugin.getRuntimeState().setVotedGame(winningGame);
+        }
+        plugin.getReplayRecorder().endRound("voting");
+        
         // Announce winner
         if (winningGame != null) {
             final String winner = winningGame;
@@ -486,6 +542,7 @@ public class VotingManager implements Listener {
         }
         
         votingActive = false;
+        votingListener.unregister();
         
         if (votingTask != null) {
             votingTask.cancel();
@@ -503,6 +560,151 @@ public class VotingManager implements Listener {
         }
         
         cleanup();
+        plugin.getEventBus().post(new RivalsEvent.PhaseChanged("voting", "stopped"));
+        plugin.getReplayRecorder().endRound("voting");
+        plugin.getCheckpointStore().save();
+    }
+    
+    /**
+     * Stops voting for a server shutdown, leaving players as they are
+     * Voting resumes from the checkpoint taken just before
+     */
+    public synchronized void suspendVoting() {
+        if (!votingActive) {
+            return;
+        }
+        
+        votingActive = false;
+        votingListener.unregister();
+        if (votingTask != null) {
+            votingTask.cancel();
+            votingTask = null;
+        }
+        if (fallCheckTask != null) {
+            fallCheckTask.cancel();
+            fallCheckTask = null;
+        }
+        if (votingBossBar != null) {
+            votingBossBar.removeAll();
+            votingBossBar = null;
+        }
+        
+        for (Entity ghast : gameGhasts.values()) {
+            if (ghast != null && ghast.isValid()) {
+                ghast.remove();
+            }
+        }
+        gameGhasts.clear();
+        voteCount.clear();
+        votingParticipants.clear();
+        originalGameModes.clear();
+        
+        plugin.getEventBus().post(new RivalsEvent.PhaseChanged("voting", "suspended"));
+        plugin.getReplayRecorder().endRound("voting");
+    }
+    
+    /**
+     * Saves the time left, the votes and who takes part
+     */
+    private boolean writeCheckpoint(DataOutputStream out) throws IOException {
+        if (!votingActive) {
+            return false;
+        }
+        
+        out.writeInt(secondsRemaining);
+        out.writeInt(voteCount.size());
+        for (Map.Entry<String, Integer> entry : voteCount.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeInt(entry.getValue());
+        }
+        out.writeInt(votingParticipants.size());
+        for (UUID uuid : votingParticipants) {
+            GameMode mode = originalGameModes.get(uuid);
+            out.writeLong(uuid.getMostSignificantBits());
+            out.writeLong(uuid.getLeastSignificantBits());
+            out.writeUTF(mode != null ? mode.name() : "");
+        }
+        return true;
+    }
+    
+    /**
+     * Picks voting back up where the checkpoint left it
+     * Ghasts are spawned again, the old ones are removed as orphans
+     */
+    private synchronized void resumeFromCheckpoint(DataInputStream in) throws IOException {
+        World lobbyWorld = Bukkit.getWorld("Lobby");
+        if (lobbyWorld == null) {
+            plugin.getLogger().warning("Lobby world not found, voting can't be resumed");
+            return;
+        }
+        
+        int seconds = in.readInt();
+        gameGhasts.clear();
+        voteCount.clear();
+        int games = in.readInt();
+        for (int i = 0; i < games; i++) {
+            voteCount.put(in.readUTF(), in.readInt());
+        }
+        votingParticipants.clear();
+        originalGameModes.clear();
+        int participants = in.readInt();
+        for (int i = 0; i < participants; i++) {
+            UUID uuid = new UUID(in.readLong(), in.readLong());
+            String mode = in.readUTF();
+            votingParticipants.add(uuid);
+            if (!mode.isEmpty()) {
+                originalGameModes.put(uuid, GameMode.valueOf(mode));
+            }
+        }
+        
+        initializeLocations(lobbyWorld);
+        // Its chunk may not be loaded yet, the ghasts then keep their default facing
+        facingTarget = findVotingGhastFace(lobbyWorld);
+        spawnVotingGhasts();
+        
+        secondsRemaining = seconds;
+        beginVoting();
+        plugin.getEventBus().post(new RivalsEvent.PhaseChanged("voting", "resumed"));
+        plugin.getLogger().info("Resumed voting with " + secondsRemaining + "s left");
+    }
+    
+    /**
+     * Removes voting ghasts that no running vote knows about
+     */
+    private void removeOrphanedGhasts() {
+        World lobbyWorld = Bukkit.getWorld("Lobby");
+        if (lobbyWorld != null) {
+            lobbyWorld.getEntities().forEach(this::removeIfOrphaned);
+        }
+    }
+    
+    private void removeIfOrphaned(Entity entity) {
+        if (entity.getScoreboardTags().contains(GHAST_TAG) && !gameGhasts.containsValue(entity)) {
+            entity.remove();
+        }
+    }
+    
+    /**
+     * Ghasts in chunks that were not loaded at startup are checked as their chunk loads
+     * Registered for good, ghasts can be left behind while no vote runs
+     */
+    private class OrphanCleanup implements Listener {
+        @EventHandler
+        public void onEntitiesLoad(EntitiesLoadEvent event) {
+            if (event.getWorld().getName().equals("Lobby")) {
+                event.getEntities().forEach(VotingManager.this::removeIfOrphaned);
+            }
+        }
+    }
+    
+    /**
+     * Shows the bossbar to participants who rejoin, e.g. after a resume
+     */
+    @EventHandler
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        if (votingActive && votingBossBar != null && votingParticipants.contains(event.getPlayer().getUniqueId())) {
+            votingBossBar.addPlayer(event.getPlayer());
+        }
     }
     
     public boolean isVotingActive() {
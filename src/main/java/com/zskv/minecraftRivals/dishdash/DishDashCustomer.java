@@ -17,6 +17,8 @@ public class DishDashCustomer {
     
     private static final Random RANDOM = new Random();
     private static final int PATIENCE_SECONDS = 60;
+    // Marks customer entities, so ones left behind by a crash can be found and removed
+    public static final String ENTITY_TAG = "mcr_dishdash_customer";
     
     private final Entity entity;
     private final Location spawnLocation;
@@ -27,11 +29,18 @@ public class DishDashCustomer {
     private boolean angry;
     
     public DishDashCustomer(Location location, DishDashRecipe recipe, boolean isSpecial) {
+        this(location, recipe, isSpecial, PATIENCE_SECONDS * 20); // Convert to ticks
+    }
+    
+    /**
+     * Spawns a customer with some patience already used up, e.g. when resuming a checkpoint
+     */
+    public DishDashCustomer(Location location, DishDashRecipe recipe, boolean isSpecial, int ticksRemaining) {
         this.spawnLocation = location.clone();
         this.requestedRecipe = recipe;
         this.isSpecial = isSpecial;
         this.pointMultiplier = isSpecial ? 2 : 1;
-        this.ticksRemaining = PATIENCE_SECONDS * 20; // Convert to ticks
+        this.ticksRemaining = ticksRemaining;
         this.angry = false;
         
         // Spawn the appropriate entity
@@ -49,6 +58,7 @@ public class DishDashCustomer {
             living.setCollidable(false);
             living.setSilent(true);
         }
+        entity.addScoreboardTag(ENTITY_TAG);
         
         updateCustomName();
     }
@@ -139,6 +149,10 @@ public class DishDashCustomer {
         return angry;
     }
     
+    public int getTicksRemaining() {
+        return ticksRemaining;
+    }
+    
     /**
      * Creates a random customer with weighted recipe selection
      * Simple recipes are more common than complex ones
@@ -0,0 +1,101 @@
+package com.zskv.minecraftRivals.dishdash;
+
+import com.zskv.minecraftRivals.MinecraftRivals;
+import com.zskv.minecraftRivals.PlayerSession;
+import org.bukkit.Material;
+import org.bukkit.block.Block;
+import org.bukkit.entity.Player;
+import org.bukkit.event.block.Action;
+import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
+
+/**
+ * Routes Dish Dash clicks to the station that handles them
+ * Handlers are looked up by action and material (the clicked block, or the
+ * held item for clicks in the air), so a click on a plain block costs two
+ * map lookups. The player's session is resolved once, only for clicks
+ * something handles
+ * Stations register their handlers here, the router itself never changes
+ */
+class DishDashInteractions {
+
+    /**
+     * A click on something a handler was registered for
+     * @param session The player's session, null if they have none
+     * @param teamData The player's team data, null if their team is not playing
+     * @param block The clicked block, null for clicks in the air
+     * @param handItem The item in the player's main hand
+     */
+    record Interaction(PlayerInteractEvent event, Player player, PlayerSession session, DishDashTeamData teamData,
+                       Block block, ItemStack handItem) {
+    }
+
+    @FunctionalInterface
+    interface Handler {
+        void handle(Interaction interaction);
+    }
+
+    private final MinecraftRivals plugin;
+
+    private final Map<Action, Map<Material, Handler>> handlers = new EnumMap<>(Action.class);
+    // Checked before the table for every click of the action, e.g. standing near the shop
+    private final Map<Action, List<Predicate<Interaction>>> anyMaterial = new EnumMap<>(Action.class);
+
+    DishDashInteractions(MinecraftRivals plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Handles an action on a material, replacing any handler it had
+     * @param material The clicked block, or the held item for clicks in the air
+     */
+    void register(Action action, Material material, Handler handler) {
+        handlers.computeIfAbsent(action, key -> new EnumMap<>(Material.class)).put(material, handler);
+    }
+
+    /**
+     * Checks every click of an action, before the handler for its material
+     * @param handler Returns true if it took the click, the material's handler is then skipped
+     */
+    void registerAny(Action action, Predicate<Interaction> handler) {
+        anyMaterial.computeIfAbsent(action, key -> new ArrayList<>()).add(handler);
+    }
+
+    /**
+     * Passes a click to its handlers, if it has any
+     */
+    void route(PlayerInteractEvent event) {
+        // Handlers read the main hand, the off hand's copy of the click is skipped
+        if (event.getHand() != EquipmentSlot.HAND) return;
+
+        Map<Material, Handler> table = handlers.get(event.getAction());
+        List<Predicate<Interaction>> checks = anyMaterial.get(event.getAction());
+        if (table == null && checks == null) return;
+
+        Player player = event.getPlayer();
+        Block block = event.getClickedBlock();
+        ItemStack handItem = player.getInventory().getItemInMainHand();
+        Handler handler = table != null ? table.get(block != null ? block.getType() : handItem.getType()) : null;
+        if (handler == null && checks == null) return;
+
+        PlayerSession session = plugin.getOnlinePlayerIndex().getSession(player);
+        DishDashTeamData teamData = session != null ? session.getGameContext(DishDashTeamData.class) : null;
+        Interaction interaction = new Interaction(event, player, session, teamData, block, handItem);
+
+        if (checks != null) {
+            for (Predicate<Interaction> check : checks) {
+                if (check.test(interaction)) return;
+            }
+        }
+        if (handler != null) {
+            handler.handle(interaction);
+        }
+    }
+}
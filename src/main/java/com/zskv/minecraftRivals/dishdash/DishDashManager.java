@@ -1,6 +1,16 @@
 package com.zskv.minecraftRivals.dishdash;
 
+import com.zskv.minecraftRivals.ActiveListener;
+import com.zskv.minecraftRivals.CheckpointStore;
+import com.zskv.minecraftRivals.CustomScoreboardManager;
+import com.zskv.minecraftRivals.HudSnapshot;
+import com.zskv.minecraftRivals.Leaderboard;
 import com.zskv.minecraftRivals.MinecraftRivals;
+import com.zskv.minecraftRivals.PixelText;
+import com.zskv.minecraftRivals.PlayerSession;
+import com.zskv.minecraftRivals.RivalsEvent;
+import com.zskv.minecraftRivals.ScoringEngine;
+import com.zskv.minecraftRivals.SidebarLineProvider;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextDecoration;
@@ -21,6 +31,8 @@ import org.bukkit.event.entity.PlayerDeathEvent;
 import org.bukkit.event.inventory.InventoryClickEvent;
 import org.bukkit.event.player.PlayerInteractAtEntityEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.player.PlayerJoinEvent;
+import org.bukkit.event.world.EntitiesLoadEvent;
 import org.bukkit.inventory.Inventory;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
@@ -28,20 +40,20 @@ import org.bukkit.potion.PotionEffect;
 import org.bukkit.potion.PotionEffectType;
 import org.bukkit.scheduler.BukkitRunnable;
 import org.bukkit.scheduler.BukkitTask;
-import org.bukkit.scoreboard.Team;
 import org.bukkit.block.Block;
 import org.bukkit.block.BlockFace;
 import org.bukkit.block.data.Ageable;
 import org.bukkit.block.data.BlockData;
 import org.bukkit.block.data.Levelled;
 import org.bukkit.enchantments.Enchantment;
-import org.bukkit.scoreboard.DisplaySlot;
 import org.bukkit.scoreboard.Objective;
 import org.bukkit.scoreboard.Scoreboard;
 
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
 import java.time.Duration;
 import java.util.*;
-import java.util.stream.Collectors;
 
 /**
  * Main manager for the Dish Dash minigame
@@ -52,12 +64,24 @@ public class DishDashManager implements Listener {
     private static final int FINAL_COUNTDOWN_SECONDS = 30;
     private static final int CUSTOMERS_UNTIL_WARNING = 4;
     private static final int MAX_CUSTOMERS_PER_TEAM = 5; // 4 front + 1 drive-thru
+    private static final String RAT_TAG = "mcr_dishdash_rat";
+    // Per-player cooldowns, kept on the player's session
+    private static final String SHOP_COOLDOWN = "dishdash.shop";
+    private static final String EGG_COOLDOWN = "dishdash.egg";
+    private static final String RAT_MESSAGE_COOLDOWN = "dishdash.rat-message";
     
     private final MinecraftRivals plugin;
+    // Registered only while a game runs
+    private final ActiveListener gameListener;
+    private final DishDashInteractions interactions;
     private boolean gameActive;
     private World gameWorld;
     
     private final Map<String, DishDashTeamData> teamDataMap;
+    // Teams ordered by Dish Dash points, moved as customers are served
+    private final Leaderboard gameStandings = new Leaderboard();
+    // Points each player earned by serving, folded into the event standings when the game ends
+    private final Map<String, Integer> playerGamePoints = new HashMap<>();
     private BossBar gameBossBar;
     private BukkitTask gameTask;
     private BukkitTask customerTask;
@@ -67,22 +91,21 @@ public class DishDashManager implements Listener {
     private BukkitTask cropGrowthTask;
     private BukkitTask musicTask;
     
-    private Objective pointsObjective;
-    
     private int gameTicksRemaining;
     private boolean finalCountdownStarted;
     private String firstFinishedTeam;
     
     // Cooking stations tracking
     private final Map<Location, CookingStation> activeStations;
-    private final Map<UUID, Long> playerShopCooldowns;
-    private final Map<UUID, Long> playerRatMessageCooldowns;
     private final Map<String, Long> teamWarningCooldowns;
     private final Map<String, Integer> teamSeedPurchases;
     private final Map<String, Integer> teamCarrotPurchases;
     private final Map<String, Integer> teamPotatoPurchases;
     private final Map<String, Integer> teamBucketPurchases;
-    private final Map<UUID, Long> playerChickenEggCooldowns;
+    
+    // Stove and oven recipes, by the item that goes in
+    private record CookRecipe(Material result, int ticks, String message) {
+    }
     
     // Station data class
     private static class CookingStation {
@@ -99,19 +122,103 @@ public class DishDashManager implements Listener {
     
     public DishDashManager(MinecraftRivals plugin) {
         this.plugin = plugin;
+        this.gameListener = new ActiveListener(plugin, this);
+        this.interactions = new DishDashInteractions(plugin);
         this.teamDataMap = new HashMap<>();
         this.gameActive = false;
         this.activeStations = new HashMap<>();
-        this.playerShopCooldowns = new HashMap<>();
-        this.playerRatMessageCooldowns = new HashMap<>();
         this.teamWarningCooldowns = new HashMap<>();
         this.teamSeedPurchases = new HashMap<>();
         this.teamCarrotPurchases = new HashMap<>();
         this.teamPotatoPurchases = new HashMap<>();
         this.teamBucketPurchases = new HashMap<>();
-        this.playerChickenEggCooldowns = new HashMap<>();
         
-        Bukkit.getPluginManager().registerEvents(this, plugin);
+        registerSidebarLines();
+        registerInteractions();
+        // One scoreboard update per tick, however many customers were served in it
+        plugin.getEventBus().subscribe(RivalsEvent.CustomerServed.class, events -> {
+            if (gameActive) updateScoreboard();
+        });
+        gameStandings.addListener(this::onRankChange);
+        Bukkit.getPluginManager().registerEvents(new OrphanCleanup(), plugin);
+        
+        // Resumes a game that was running when the server stopped
+        plugin.getCheckpointStore().register("dishdash", new CheckpointStore.Section() {
+            @Override
+            public boolean write(DataOutputStream out) throws IOException {
+                return writeCheckpoint(out);
+            }
+            
+            @Override
+            public void resume(DataInputStream in) throws IOException {
+                resumeFromCheckpoint(in);
+            }
+        });
+        removeOrphanedEntities();
+    }
+    
+    /**
+     * Registers the Dish Dash lines used by the "dishdash" sidebar layout
+     * The lines render on the HUD workers from a {@link SidebarState} copied into each snapshot
+     */
+    private void registerSidebarLines() {
+        CustomScoreboardManager scoreboardManager = plugin.getScoreboardManager();
+        plugin.getHudRefresher().registerSnapshotSource("dishdash", this::captureSidebarState);
+        
+        // Time left, rendered again every second
+        scoreboardManager.registerLineProvider("dishdash-timer", SidebarLineProvider.Refresh.PER_SECOND, (snapshot, viewer, lines) -> {
+            SidebarState state = snapshot.getExtra("dishdash", SidebarState.class);
+            if (state == null) return;
+            int secondsRemaining = state.secondsRemaining();
+            String timeStr = String.format("%d:%02d", secondsRemaining / 60, secondsRemaining % 60);
+            lines.add(Component.text("time left: ", NamedTextColor.GRAY)
+                .append(Component.text(timeStr, state.finalCountdown() ? NamedTextColor.RED : NamedTextColor.WHITE))
+                .font(PixelText.PIXEL_FONT));
+        });
+        
+        // Viewer's team progress, rendered again when a customer is served
+        scoreboardManager.registerLineProvider("dishdash-team-points", SidebarLineProvider.Refresh.ON_CHANGE, (snapshot, viewer, lines) -> {
+            SidebarState state = snapshot.getExtra("dishdash", SidebarState.class);
+            HudSnapshot.TeamState team = snapshot.getTeam(viewer);
+            if (state == null || team == null || !state.teamPoints().containsKey(team.name())) return;
+            lines.add(Component.text("team points: ", NamedTextColor.GRAY)
+                .append(Component.text(state.teamPoints().get(team.name()), NamedTextColor.GOLD))
+                .font(PixelText.PIXEL_FONT));
+        });
+        scoreboardManager.registerLineProvider("dishdash-customers", SidebarLineProvider.Refresh.ON_CHANGE, (snapshot, viewer, lines) -> {
+            SidebarState state = snapshot.getExtra("dishdash", SidebarState.class);
+            HudSnapshot.TeamState team = snapshot.getTeam(viewer);
+            if (state == null || team == null || !state.customersServed().containsKey(team.name())) return;
+            lines.add(Component.text("served: ", NamedTextColor.GRAY)
+                .append(Component.text(state.customersServed().get(team.name()), NamedTextColor.WHITE))
+                .font(PixelText.PIXEL_FONT));
+        });
+    }
+    
+    /**
+     * Copies what the sidebar shows, on the main thread
+     * @return The state, or null while no game is running
+     */
+    private SidebarState captureSidebarState() {
+        if (!gameActive) {
+            return null;
+        }
+        
+        Map<String, Integer> teamPoints = new HashMap<>();
+        Map<String, Integer> customersServed = new HashMap<>();
+        for (DishDashTeamData teamData : teamDataMap.values()) {
+            teamPoints.put(teamData.getTeamName(), teamData.getPoints());
+            customersServed.put(teamData.getTeamName(), teamData.getCustomersServed());
+        }
+        return new SidebarState(gameTicksRemaining / 20, finalCountdownStarted,
+            Map.copyOf(teamPoints), Map.copyOf(customersServed));
+    }
+    
+    /**
+     * Dish Dash values shown on the sidebar, by team name
+     */
+    private record SidebarState(int secondsRemaining, boolean finalCountdown,
+                                Map<String, Integer> teamPoints, Map<String, Integer> customersServed) {
     }
     
     /**
@@ -138,10 +245,31 @@ public class DishDashManager implements Listener {
         
         // Start the game
         gameActive = true;
+        gameListener.register();
         gameTicksRemaining = GAME_DURATION_MINUTES * 60 * 20; // Convert to ticks
         finalCountdownStarted = false;
         firstFinishedTeam = null;
+        playerGamePoints.clear();
         
+        plugin.getReplayRecorder().startRound("dishdash");
+        startGameSystems();
+        
+        // Give players starting items
+        giveStartingItems();
+        
+        // Announce game start
+        broadcastToAll(Component.text("🍽 Dish Dash has started! 🍽", NamedTextColor.GOLD, TextDecoration.BOLD));
+        broadcastToAll(Component.text("Serve customers to earn points!", NamedTextColor.YELLOW));
+        
+        plugin.getCheckpointStore().save();
+        return true;
+    }
+    
+    /**
+     * Creates the boss bar and scoreboard and starts every game task
+     * Used when a game starts and when it is resumed from a checkpoint
+     */
+    private void startGameSystems() {
         // Create boss bar
         gameBossBar = Bukkit.createBossBar(
             "Dish Dash",
@@ -154,6 +282,7 @@ public class DishDashManager implements Listener {
         
         // Setup scoreboard
         setupScoreboard();
+        plugin.getScoreboardManager().setLayout("dishdash");
         
         // Play music
         playMusic();
@@ -175,15 +304,6 @@ public class DishDashManager implements Listener {
         
         // Start crop growth acceleration
         startCropGrowth();
-        
-        // Give players starting items
-        giveStartingItems();
-        
-        // Announce game start
-        broadcastToAll(Component.text("🍽 Dish Dash has started! 🍽", NamedTextColor.GOLD, TextDecoration.BOLD));
-        broadcastToAll(Component.text("Serve customers to earn points!", NamedTextColor.YELLOW));
-        
-        return true;
     }
     
     /**
@@ -194,7 +314,27 @@ public class DishDashManager implements Listener {
             return false;
         }
         
+        tearDown(true);
+        plugin.getCheckpointStore().save();
+        return true;
+    }
+    
+    /**
+     * Stops the game for a server shutdown without announcing results
+     * The game resumes from the checkpoint taken just before
+     */
+    public synchronized void suspendGame() {
+        if (gameActive) {
+            tearDown(false);
+        }
+    }
+    
+    /**
+     * Cancels every task, removes the game's entities and clears its state
+     */
+    private void tearDown(boolean announceResults) {
         gameActive = false;
+        gameListener.unregister();
         
         // Cancel tasks
         if (gameTask != null) {
@@ -233,10 +373,8 @@ public class DishDashManager implements Listener {
         }
         
         // Clear scoreboard
-        if (pointsObjective != null) {
-            pointsObjective.unregister();
-            pointsObjective = null;
-        }
+        plugin.getScoreboardManager().hidePlayerList();
+        plugin.getScoreboardManager().setLayout("default");
         
         // Stop music for all players
         for (Player player : Bukkit.getOnlinePlayers()) {
@@ -260,14 +398,190 @@ public class DishDashManager implements Listener {
         teamBucketPurchases.clear();
         
         // Announce results
-        announceResults();
+        if (announceResults) {
+            announceResults();
+        }
+        
+        plugin.getEventBus().post(new RivalsEvent.PhaseChanged("dishdash", announceResults ? "results" : "suspended"));
+        plugin.getReplayRecorder().endRound("dishdash");
         
         // Clear team data
+        plugin.getOnlinePlayerIndex().clearGameContext();
         teamDataMap.clear();
+        gameStandings.clear();
+        playerGamePoints.clear();
+    }
+        
+    /**
+     * Saves the timer, every team's progress, customers and purchases
+     */
+    private boolean writeCheckpoint(DataOutputStream out) throws IOException {
+        if (!gameActive) {
+            return false;
+        }
+        
+        out.writeInt(gameTicksRemaining);
+        out.writeBoolean(finalCountdownStarted);
+        out.writeUTF(firstFinishedTeam != null ? firstFinishedTeam : "");
+        
+        out.writeInt(teamDataMap.size());
+        for (DishDashTeamData teamData : teamDataMap.values()) {
+            String teamName = teamData.getTeamName();
+            out.writeUTF(teamName);
+            out.writeInt(teamData.getPoints());
+            out.writeInt(teamData.getCustomersServed());
+            out.writeBoolean(teamData.isFinished());
+            out.writeInt(teamSeedPurchases.getOrDefault(teamName, 0));
+            out.writeInt(teamCarrotPurchases.getOrDefault(teamName, 0));
+            out.writeInt(teamPotatoPurchases.getOrDefault(teamName, 0));
+            out.writeInt(teamBucketPurchases.getOrDefault(teamName, 0));
+            
+            out.writeInt(teamData.getActiveCustomers().size());
+            for (DishDashCustomer customer : teamData.getActiveCustomers()) {
+                Location location = customer.getSpawnLocation();
+                out.writeDouble(location.getX());
+                out.writeDouble(location.getY());
+                out.writeDouble(location.getZ());
+                out.writeByte(customer.getRequestedRecipe().ordinal());
+                out.writeBoolean(customer.isSpecial());
+                out.writeInt(customer.getTicksRemaining());
+            }
+        }
         
+        out.writeInt(playerGamePoints.size());
+        for (Map.Entry<String, Integer> entry : playerGamePoints.entrySet()) {
+            out.writeUTF(entry.getKey());
+            out.writeInt(entry.getValue());
+        }
         return true;
     }
     
+    /**
+     * Picks a game back up where the checkpoint left it
+     * Customers are spawned again, the old entities are removed as orphans
+     */
+    private synchronized void resumeFromCheckpoint(DataInputStream in) throws IOException {
+        gameWorld = Bukkit.getWorld("DishDash");
+        if (gameWorld == null) {
+            plugin.getLogger().warning("DishDash world not found, the running game can't be resumed");
+            return;
+        }
+        
+        initializeTeamData();
+        int ticksRemaining = in.readInt();
+        boolean finalCountdown = in.readBoolean();
+        String firstFinished = in.readUTF();
+        
+        int teamCount = in.readInt();
+        for (int i = 0; i < teamCount; i++) {
+            String teamName = in.readUTF();
+            int points = in.readInt();
+            int customersServed = in.readInt();
+            boolean finished = in.readBoolean();
+            int seeds = in.readInt();
+            int carrots = in.readInt();
+            int potatoes = in.readInt();
+            int buckets = in.readInt();
+            
+            DishDashTeamData teamData = teamDataMap.get(teamName);
+            int customerCount = in.readInt();
+            for (int j = 0; j < customerCount; j++) {
+                Location location = new Location(gameWorld, in.readDouble(), in.readDouble(), in.readDouble());
+                DishDashRecipe recipe = DishDashRecipe.values()[in.readByte()];
+                boolean special = in.readBoolean();
+                int patience = in.readInt();
+                if (teamData != null) {
+                    teamData.addCustomer(new DishDashCustomer(location, recipe, special, patience));
+                }
+            }
+            if (teamData == null) {
+                continue;
+            }
+            
+            teamData.addPoints(points);
+            teamData.setCustomersServed(customersServed);
+            teamData.setFinished(finished);
+            teamSeedPurchases.put(teamName, seeds);
+            teamCarrotPurchases.put(teamName, carrots);
+            teamPotatoPurchases.put(teamName, potatoes);
+            teamBucketPurchases.put(teamName, buckets);
+            gameStandings.update(teamName, points);
+        }
+        
+        playerGamePoints.clear();
+        int playerCount = in.readInt();
+        for (int i = 0; i < playerCount; i++) {
+            playerGamePoints.put(in.readUTF(), in.readInt());
+        }
+        
+        // Active only now, so restoring the standings announces no lead changes
+        gameActive = true;
+        gameListener.register();
+        gameTicksRemaining = ticksRemaining;
+        finalCountdownStarted = finalCountdown;
+        firstFinishedTeam = firstFinished.isEmpty() ? null : firstFinished;
+        
+        // A new file, the one recorded before the restart ends there
+        plugin.getReplayRecorder().startRound("dishdash");
+        plugin.getEventBus().post(new RivalsEvent.PhaseChanged("dishdash", "resumed"));
+        startGameSystems();
+        updateScoreboard();
+        plugin.getLogger().info("Resumed Dish Dash with " + (gameTicksRemaining / 20) + "s left");
+    }
+    
+    /**
+     * Removes customers and rats that no running game knows about
+     */
+    private void removeOrphanedEntities() {
+        World world = Bukkit.getWorld("DishDash");
+        if (world != null) {
+            world.getEntities().forEach(this::removeIfOrphaned);
+        }
+    }
+    
+    private void removeIfOrphaned(Entity entity) {
+        Set<String> tags = entity.getScoreboardTags();
+        if (tags.contains(RAT_TAG) && !gameActive) {
+            entity.remove();
+        } else if (tags.contains(DishDashCustomer.ENTITY_TAG) && !isActiveCustomer(entity)) {
+            entity.remove();
+        }
+    }
+    
+    private boolean isActiveCustomer(Entity entity) {
+        for (DishDashTeamData teamData : teamDataMap.values()) {
+            for (DishDashCustomer customer : teamData.getActiveCustomers()) {
+                if (customer.getEntity().getUniqueId().equals(entity.getUniqueId())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * Entities in chunks that were not loaded at startup are checked as their chunk loads
+     * Registered for good, game entities can be left behind while no game runs
+     */
+    private class OrphanCleanup implements Listener {
+        @EventHandler
+        public void onEntitiesLoad(EntitiesLoadEvent event) {
+            if (event.getWorld().getName().equals("DishDash")) {
+                event.getEntities().forEach(DishDashManager.this::removeIfOrphaned);
+            }
+        }
+    }
+    
+    /**
+     * Shows the boss bar to players who join mid-game, e.g. after a resume
+     */
+    @EventHandler
+    public void onPlayerJoin(PlayerJoinEvent event) {
+        if (gameActive && gameBossBar != null) {
+            gameBossBar.addPlayer(event.getPlayer());
+        }
+    }
+    
     /**
      * Initialize team data with coordinates
      */
@@ -417,6 +731,26 @@ public class DishDashManager implements Listener {
             new Location(gameWorld, -82, -59, 181),  // Composter
             new Location(gameWorld, -82, -60, 183)   // Seed Barrel
         ));
+        
+        gameStandings.clear();
+        for (String teamName : teamDataMap.keySet()) {
+            gameStandings.update(teamName, 0);
+        }
+        
+        // Handlers read their player's team data from the player's session
+        plugin.getOnlinePlayerIndex().setGameContext(teamDataMap::get);
+    }
+    
+    /**
+     * Announces a team taking the lead
+     */
+    private void onRankChange(Leaderboard.RankChange change) {
+        if (!gameActive || !change.movedUp() || change.newRank() != 1) return;
+        broadcastToAll(Component.text("🍽 ", NamedTextColor.GOLD)
+            .append(Component.text(change.team(), NamedTextColor.WHITE, TextDecoration.BOLD))
+            .append(Component.text(" took the lead from ", NamedTextColor.GOLD))
+            .append(Component.text(change.passed().get(0), NamedTextColor.WHITE))
+            .append(Component.text("!", NamedTextColor.GOLD)));
     }
     
     /**
@@ -424,13 +758,10 @@ public class DishDashManager implements Listener {
      */
     private void teleportPlayersToSpawns() {
         for (Player player : Bukkit.getOnlinePlayers()) {
-            Team team = plugin.getScoreboard().getPlayerTeam(player);
-            if (team != null) {
-                DishDashTeamData teamData = teamDataMap.get(team.getName());
-                if (teamData != null) {
-                    player.teleport(teamData.getSpawnLocation());
-                    player.setGameMode(GameMode.SURVIVAL);
-                }
+            DishDashTeamData teamData = getTeamData(player);
+            if (teamData != null) {
+                player.teleport(teamData.getSpawnLocation());
+                player.setGameMode(GameMode.SURVIVAL);
             }
         }
     }
@@ -634,6 +965,7 @@ public class DishDashManager implements Listener {
                     Endermite rat = (Endermite) gameWorld.spawnEntity(loc, org.bukkit.entity.EntityType.ENDERMITE);
                     rat.customName(Component.text("🐀 Rat", NamedTextColor.GRAY));
                     rat.setCustomNameVisible(true);
+                    rat.addScoreboardTag(RAT_TAG);
                 }
             }
         }
@@ -681,6 +1013,7 @@ public class DishDashManager implements Listener {
         
         finalCountdownStarted = true;
         gameTicksRemaining = Math.min(gameTicksRemaining, FINAL_COUNTDOWN_SECONDS * 20);
+        plugin.getEventBus().post(new RivalsEvent.PhaseChanged("dishdash", "final countdown"));
         
         broadcastToAll(Component.text("⚠ " + firstFinishedTeam + " team finished! ⚠", NamedTextColor.RED, TextDecoration.BOLD));
         broadcastToAll(Component.text("Final countdown started! Hurry up!", NamedTextColor.YELLOW));
@@ -713,9 +1046,27 @@ public class DishDashManager implements Listener {
      * End the game
      */
     private void endGame() {
+        foldResults();
         stopGame(Bukkit.getConsoleSender());
     }
     
+    /**
+     * Adds this game's results to the event standings
+     * Only done when the game runs to the end, not when it is stopped early
+     */
+    private void foldResults() {
+        Map<String, Integer> teamPoints = new HashMap<>();
+        for (DishDashTeamData teamData : teamDataMap.values()) {
+            teamPoints.put(teamData.getTeamName(), teamData.getPoints());
+        }
+        
+        ScoringEngine.GameResult result = plugin.getScoringEngine().finishGame("Dish Dash", teamPoints, playerGamePoints);
+        if (result != null) {
+            broadcastToAll(Component.text(result.getAwardedTotal() + " points added to the event standings", NamedTextColor.GOLD)
+                .append(Component.text(" (x" + result.multiplier() + ")", NamedTextColor.GRAY)));
+        }
+    }
+    
     /**
      * Announce game results
      */
@@ -724,13 +1075,10 @@ public class DishDashManager implements Listener {
         broadcastToAll(Component.text("🍽 DISH DASH RESULTS 🍽", NamedTextColor.GOLD, TextDecoration.BOLD));
         broadcastToAll(Component.text("═══════════════════════════", NamedTextColor.GOLD, TextDecoration.BOLD));
         
-        // Sort teams by points
-        List<DishDashTeamData> sortedTeams = teamDataMap.values().stream()
-            .sorted(Comparator.comparingInt(DishDashTeamData::getPoints).reversed())
-            .collect(Collectors.toList());
-        
+        // Already ordered by points
         int rank = 1;
-        for (DishDashTeamData teamData : sortedTeams) {
+        for (String teamName : gameStandings.getTeams()) {
+            DishDashTeamData teamData = teamDataMap.get(teamName);
             Component rankComponent = Component.text(rank + ". ", NamedTextColor.YELLOW)
                 .append(Component.text(teamData.getTeamName(), NamedTextColor.WHITE))
                 .append(Component.text(" - ", NamedTextColor.GRAY))
@@ -752,37 +1100,87 @@ public class DishDashManager implements Listener {
     }
     
     /**
-     * Handle shop GUI interaction
+     * Routes right-clicks to the shop and the kitchen stations
      */
     @EventHandler
     public void onPlayerInteract(PlayerInteractEvent event) {
         if (!gameActive) return;
-        if (event.getAction() != Action.RIGHT_CLICK_BLOCK && event.getAction() != Action.RIGHT_CLICK_AIR) return;
+        interactions.route(event);
+    }
         
-        Player player = event.getPlayer();
-        Team team = plugin.getScoreboard().getPlayerTeam(player);
-        if (team == null) return;
+    /**
+     * Registers what right-clicking does, by clicked block
+     * Blocks without a handler (crafting table, composter, target) keep their vanilla behavior
+     */
+    private void registerInteractions() {
+        // Shop GUI, opened by right-clicking anywhere near the team's shop
+        interactions.registerAny(Action.RIGHT_CLICK_BLOCK, this::openShopIfNear);
+        interactions.registerAny(Action.RIGHT_CLICK_AIR, this::openShopIfNear);
         
-        DishDashTeamData teamData = teamDataMap.get(team.getName());
-        if (teamData == null) return;
+        // Stove (Campfire) - cooks beef, porkchop, chicken, and potato
+        Map<Material, CookRecipe> stove = new EnumMap<>(Material.class);
+        stove.put(Material.BEEF, new CookRecipe(Material.COOKED_BEEF, 100, "Cooking beef...")); // 5 seconds
+        stove.put(Material.PORKCHOP, new CookRecipe(Material.COOKED_PORKCHOP, 100, "Cooking porkchop..."));
+        stove.put(Material.CHICKEN, new CookRecipe(Material.COOKED_CHICKEN, 100, "Cooking chicken..."));
+        stove.put(Material.POTATO, new CookRecipe(Material.BAKED_POTATO, 100, "Baking potato..."));
+        registerCookingStation(Material.CAMPFIRE, stove);
+        registerCookingStation(Material.SOUL_CAMPFIRE, stove);
+        
+        // Oven/Grill (Smoker) - cooks potato and chicken
+        Map<Material, CookRecipe> oven = new EnumMap<>(Material.class);
+        oven.put(Material.POTATO, new CookRecipe(Material.BAKED_POTATO, 100, "Baking potato...")); // 5 seconds
+        oven.put(Material.CHICKEN, new CookRecipe(Material.COOKED_CHICKEN, 100, "Cooking chicken..."));
+        registerCookingStation(Material.SMOKER, oven);
+        
+        // Sink (Cauldron) - fill water bottles
+        interactions.register(Action.RIGHT_CLICK_BLOCK, Material.WATER_CAULDRON, this::fillWaterBottle);
+        
+        // Farm - use bonemeal on crops
+        for (Material crop : List.of(Material.WHEAT, Material.CARROTS, Material.POTATOES)) {
+            interactions.register(Action.RIGHT_CLICK_BLOCK, crop, this::growCrops);
+        }
+        
+        // Walk-in fridge entrance - apply slowness when entering
+        interactions.register(Action.RIGHT_CLICK_BLOCK, Material.IRON_DOOR, this::enterFridge);
+        interactions.register(Action.RIGHT_CLICK_BLOCK, Material.IRON_TRAPDOOR, this::enterFridge);
+    }
+    
+    /**
+     * Registers a block that cooks what the player holds
+     * @param recipes What it cooks, by the held item
+     */
+    private void registerCookingStation(Material station, Map<Material, CookRecipe> recipes) {
+        interactions.register(Action.RIGHT_CLICK_BLOCK, station, interaction -> {
+            // Always cancel to prevent vanilla behavior (campfire items, smoker GUI)
+            interaction.event().setCancelled(true);
+            
+            CookRecipe recipe = recipes.get(interaction.handItem().getType());
+            if (recipe != null) {
+                cookItem(interaction.player(), interaction.handItem(), recipe.result(), recipe.ticks(),
+                    recipe.message(), interaction.block());
+            }
+        });
+    }
+    
+    /**
+     * Handle shop GUI interaction
+     * @return true if the player is at their shop, the click then does nothing else
+     */
+    private boolean openShopIfNear(DishDashInteractions.Interaction interaction) {
+        DishDashTeamData teamData = interaction.teamData();
+        if (teamData == null) return false;
         
         // Check if player is at shop GUI location
+        Player player = interaction.player();
         Location shopLoc = teamData.getShopGuiLocation();
-        if (player.getLocation().distance(shopLoc) < 2.0) {
-            // Check cooldown to prevent spam
-            UUID playerId = player.getUniqueId();
-            if (playerShopCooldowns.containsKey(playerId)) {
-                long lastUse = playerShopCooldowns.get(playerId);
-                if (System.currentTimeMillis() - lastUse < 500) { // 0.5 second cooldown
-                    event.setCancelled(true);
-                    return;
-                }
-            }
+        if (player.getLocation().distance(shopLoc) >= 2.0) return false;
             
-            playerShopCooldowns.put(playerId, System.currentTimeMillis());
+        interaction.event().setCancelled(true);
+        // Check cooldown to prevent spam
+        if (interaction.session().tryCooldown(SHOP_COOLDOWN, 500)) { // 0.5 second cooldown
             openShopGUI(player, teamData);
-            event.setCancelled(true);
         }
+        return true;
     }
     
     /**
@@ -835,13 +1233,10 @@ public class DishDashManager implements Listener {
         ItemStack clicked = event.getCurrentItem();
         if (clicked == null || clicked.getType() == Material.AIR) return;
         
-        Team team = plugin.getScoreboard().getPlayerTeam(player);
-        if (team == null) return;
-        
-        DishDashTeamData teamData = teamDataMap.get(team.getName());
+        DishDashTeamData teamData = getTeamData(player);
         if (teamData == null) return;
         
-        String teamName = team.getName();
+        String teamName = teamData.getTeamName();
         Material itemType = clicked.getType();
         
         // Check purchase limits for buckets (max 2 per team)
@@ -922,11 +1317,10 @@ public class DishDashManager implements Listener {
         Entity entity = event.getRightClicked();
         ItemStack handItem = player.getInventory().getItemInMainHand();
         
-        Team team = plugin.getScoreboard().getPlayerTeam(player);
-        if (team == null) return;
-        
-        DishDashTeamData teamData = teamDataMap.get(team.getName());
+        PlayerSession session = plugin.getOnlinePlayerIndex().getSession(player);
+        DishDashTeamData teamData = session != null ? session.getGameContext(DishDashTeamData.class) : null;
         if (teamData == null) return;
+        String teamName = teamData.getTeamName();
         
         // Check if entity is a customer (check by UUID for more reliable matching)
         DishDashCustomer customer = null;
@@ -952,12 +1346,16 @@ public class DishDashManager implements Listener {
                 int pointsEarned = customer.serve();
                 teamData.addPoints(pointsEarned);
                 teamData.incrementCustomersServed();
+                gameStandings.update(teamData.getTeamName(), teamData.getPoints());
+                // Credit the serve to the player who made it
+                playerGamePoints.merge(player.getName(), pointsEarned, Integer::sum);
+                plugin.getTeamPointsIndex().addGamePoints(player.getName(), teamName, pointsEarned, "dish dash serve");
+                // Stats, the replay and the scoreboard take every serve of the tick at its end
+                plugin.getEventBus().post(new RivalsEvent.CustomerServed(player, teamName, pointsEarned,
+                    customer.getRequestedRecipe().getDisplayName()));
                 
                 plugin.getLogger().info("Customer served! Points earned: " + pointsEarned + ", Total: " + teamData.getPoints());
                 
-                // Update scoreboard
-                updateScoreboard();
-                
                 // Remove one item from hand
                 handItem.setAmount(handItem.getAmount() - 1);
                 
@@ -967,14 +1365,14 @@ public class DishDashManager implements Listener {
                 customer.remove();
                 
                 plugin.getLogger().info("Removed customer from: " + removedLoc.getBlockX() + ", " + removedLoc.getBlockY() + ", " + removedLoc.getBlockZ());
-                plugin.getLogger().info("Team " + team.getName() + " now has " + teamData.getActiveCustomers().size() + " active customers");
+                plugin.getLogger().info("Team " + teamName + " now has " + teamData.getActiveCustomers().size() + " active customers");
                 
                 // Feedback
                 player.playSound(player.getLocation(), Sound.ENTITY_PLAYER_LEVELUP, 1.0f, 1.5f);
                 player.sendActionBar(Component.text("✓ Customer served! +" + pointsEarned + " points", NamedTextColor.GREEN));
                 
                 // Announce to team
-                announceToTeam(team, Component.text(player.getName() + " served a customer! (+" + pointsEarned + " points)", NamedTextColor.GREEN));
+                announceToTeam(teamName, Component.text(player.getName() + " served a customer! (+" + pointsEarned + " points)", NamedTextColor.GREEN));
                 
                 event.setCancelled(true);
             } else if (handFood != Material.AIR) {
@@ -989,16 +1387,13 @@ public class DishDashManager implements Listener {
         if (entity instanceof org.bukkit.entity.Chicken chicken) {
             // Collect egg from chicken (with 3 second cooldown)
             if (handItem.getType() == Material.AIR || handItem.getType() == Material.EGG) {
-                long currentTime = System.currentTimeMillis();
-                long lastCollect = playerChickenEggCooldowns.getOrDefault(player.getUniqueId(), 0L);
+                long remainingMs = session.getCooldownRemaining(EGG_COOLDOWN, 3000);
                 
-                if (currentTime - lastCollect >= 3000) { // 3 seconds = 3000ms
+                if (session.tryCooldown(EGG_COOLDOWN, 3000)) { // 3 seconds = 3000ms
                     player.getInventory().addItem(new ItemStack(Material.EGG));
                     player.playSound(player.getLocation(), Sound.ENTITY_CHICKEN_EGG, 1.0f, 1.0f);
-                    playerChickenEggCooldowns.put(player.getUniqueId(), currentTime);
                 } else {
                     // Still on cooldown
-                    long remainingMs = 3000 - (currentTime - lastCollect);
                     player.sendActionBar(Component.text("Wait " + (remainingMs / 1000.0) + "s before collecting another egg", NamedTextColor.RED));
                 }
                 event.setCancelled(true);
@@ -1023,95 +1418,47 @@ public class DishDashManager implements Listener {
     }
     
     /**
-     * Handle kitchen station interactions (stove, oven, combiner)
+     * Sink (Cauldron) - fill water bottles
      */
-    @EventHandler
-    public void onBlockInteract(PlayerInteractEvent event) {
-        if (!gameActive) return;
-        if (event.getAction() != Action.RIGHT_CLICK_BLOCK) return;
-        if (event.getClickedBlock() == null) return;
-        
-        Player player = event.getPlayer();
-        Block block = event.getClickedBlock();
-        Material blockType = block.getType();
-        ItemStack handItem = player.getInventory().getItemInMainHand();
-        
-        // Stove (Campfire) - cooks beef, porkchop, chicken, and potato
-        if (blockType == Material.CAMPFIRE || blockType == Material.SOUL_CAMPFIRE) {
-            // Always cancel campfire interaction to prevent vanilla behavior
-            event.setCancelled(true);
-            
-            if (handItem.getType() == Material.BEEF) {
-                cookItem(player, handItem, Material.COOKED_BEEF, 100, "Cooking beef...", block); // 5 seconds
-            } else if (handItem.getType() == Material.PORKCHOP) {
-                cookItem(player, handItem, Material.COOKED_PORKCHOP, 100, "Cooking porkchop...", block); // 5 seconds
-            } else if (handItem.getType() == Material.CHICKEN) {
-                cookItem(player, handItem, Material.COOKED_CHICKEN, 100, "Cooking chicken...", block); // 5 seconds
-            } else if (handItem.getType() == Material.POTATO) {
-                cookItem(player, handItem, Material.BAKED_POTATO, 100, "Baking potato...", block); // 5 seconds
-            }
-        }
-        
-        // Oven/Grill (Smoker) - cooks potato and chicken
-        else if (blockType == Material.SMOKER) {
-            // Always cancel smoker interaction to prevent vanilla GUI
-            event.setCancelled(true);
+    private void fillWaterBottle(DishDashInteractions.Interaction interaction) {
+        ItemStack handItem = interaction.handItem();
+        if (handItem.getType() != Material.GLASS_BOTTLE) return;
+        
+        // Fill bottle with water
+        Player player = interaction.player();
+        handItem.setAmount(handItem.getAmount() - 1);
+        player.getInventory().addItem(new ItemStack(Material.POTION)); // Water bottle
+        player.playSound(player.getLocation(), Sound.ITEM_BOTTLE_FILL, 1.0f, 1.0f);
+        player.sendActionBar(Component.text("Filled water bottle!", NamedTextColor.AQUA));
+        
+        // Reduce cauldron level (handled by Bukkit naturally)
+        interaction.event().setCancelled(false); // Let Bukkit handle it
+    }
             
-            if (handItem.getType() == Material.POTATO) {
-                cookItem(player, handItem, Material.BAKED_POTATO, 100, "Baking potato...", block); // 5 seconds
-            } else if (handItem.getType() == Material.CHICKEN) {
-                cookItem(player, handItem, Material.COOKED_CHICKEN, 100, "Cooking chicken...", block); // 5 seconds
-            }
-        }
-        
-        // Crafting Table - allow normal crafting GUI to open
-        // (No custom handling needed - let Minecraft handle it naturally)
-        
-        // Sink (Cauldron) - fill water bottles
-        else if (blockType == Material.WATER_CAULDRON) {
-            if (handItem.getType() == Material.GLASS_BOTTLE) {
-                // Fill bottle with water
-                handItem.setAmount(handItem.getAmount() - 1);
-                player.getInventory().addItem(new ItemStack(Material.POTION)); // Water bottle
-                player.playSound(player.getLocation(), Sound.ITEM_BOTTLE_FILL, 1.0f, 1.0f);
-                player.sendActionBar(Component.text("Filled water bottle!", NamedTextColor.AQUA));
-                
-                // Reduce cauldron level (handled by Bukkit naturally)
-                event.setCancelled(false); // Let Bukkit handle it
-            }
-        }
-        
-        // Composter - convert items to bonemeal
-        else if (blockType == Material.COMPOSTER) {
-            // Let Bukkit handle composting naturally
-            // When full, it produces bonemeal
-        }
-        
-        // Farm - use bonemeal on crops
-        else if (blockType == Material.WHEAT || blockType == Material.CARROTS || blockType == Material.POTATOES) {
-            if (handItem.getType() == Material.BONE_MEAL) {
-                // Let Bukkit handle bonemeal growth naturally
-                player.sendActionBar(Component.text("Growing crops...", NamedTextColor.GREEN));
-            }
+    /**
+     * Farm - use bonemeal on crops
+     */
+    private void growCrops(DishDashInteractions.Interaction interaction) {
+        if (interaction.handItem().getType() == Material.BONE_MEAL) {
+            // Let Bukkit handle bonemeal growth naturally
+            interaction.player().sendActionBar(Component.text("Growing crops...", NamedTextColor.GREEN));
         }
-        
-        // Walk-in fridge entrance - apply slowness when entering
-        else if (blockType == Material.IRON_DOOR || blockType == Material.IRON_TRAPDOOR) {
-            // Check if player is entering a cold area (you can customize this based on location)
-            new BukkitRunnable() {
-                @Override
-                public void run() {
-                    if (isInFridge(player.getLocation())) {
-                        player.addPotionEffect(new PotionEffect(PotionEffectType.SLOWNESS, 100, 1, false, false));
-                    }
+    }
+    
+    /**
+     * Walk-in fridge entrance - apply slowness when entering
+     */
+    private void enterFridge(DishDashInteractions.Interaction interaction) {
+        Player player = interaction.player();
+        // Check if player is entering a cold area (you can customize this based on location)
+        new BukkitRunnable() {
+            @Override
+            public void run() {
+                if (isInFridge(player.getLocation())) {
+                    player.addPotionEffect(new PotionEffect(PotionEffectType.SLOWNESS, 100, 1, false, false));
                 }
-            }.runTaskLater(plugin, 5L);
-        }
-        
-        // Target block in fridge - hit with trident to get meat
-        else if (blockType == Material.TARGET) {
-            // This will be handled by projectile hit event
-        }
+            }
+        }.runTaskLater(plugin, 5L);
     }
     
     /**
@@ -1231,14 +1578,11 @@ public class DishDashManager implements Listener {
                 
                 // Show message to player if they tried to kill it another way
                 if (event.getDamager() instanceof Player player) {
-                    UUID playerId = player.getUniqueId();
-                    long currentTime = System.currentTimeMillis();
+                    PlayerSession session = plugin.getOnlinePlayerIndex().getSession(player);
                     
                     // Only show message if cooldown has passed (3 seconds)
-                    if (!playerRatMessageCooldowns.containsKey(playerId) || 
-                        currentTime - playerRatMessageCooldowns.get(playerId) >= 3000) {
+                    if (session != null && session.tryCooldown(RAT_MESSAGE_COOLDOWN, 3000)) {
                         player.sendActionBar(Component.text("You need to throw a trident to kill rats!", NamedTextColor.RED));
-                        playerRatMessageCooldowns.put(playerId, currentTime);
                     }
                 }
             }
@@ -1248,15 +1592,23 @@ public class DishDashManager implements Listener {
     /**
      * Announce message to all players on a team
      */
-    private void announceToTeam(Team team, Component message) {
-        for (String entry : team.getEntries()) {
-            Player player = Bukkit.getPlayer(entry);
-            if (player != null && player.isOnline()) {
-                player.sendMessage(message);
+    private void announceToTeam(String teamName, Component message) {
+        for (PlayerSession session : plugin.getOnlinePlayerIndex().getSessions()) {
+            if (teamName.equals(session.getTeamName())) {
+                session.getPlayer().sendMessage(message);
             }
         }
     }
     
+    /**
+     * Gets the player's team data from their session
+     * @return The data, or null if the player's team is not in the game
+     */
+    private DishDashTeamData getTeamData(Player player) {
+        PlayerSession session = plugin.getOnlinePlayerIndex().getSession(player);
+        return session != null ? session.getGameContext(DishDashTeamData.class) : null;
+    }
+    
     /**
      * Start monitoring players in fridges
      */
@@ -1307,10 +1659,7 @@ public class DishDashManager implements Listener {
         if (!gameActive) return;
         
         Player player = event.getPlayer();
-        Team team = plugin.getScoreboard().getPlayerTeam(player);
-        if (team == null) return;
-        
-        DishDashTeamData teamData = teamDataMap.get(team.getName());
+        DishDashTeamData teamData = getTeamData(player);
         if (teamData == null) return;
         
         // Keep inventory
@@ -1378,25 +1727,19 @@ public class DishDashManager implements Listener {
     private void setupScoreboard() {
         Scoreboard scoreboard = plugin.getScoreboard();
         
-        // Remove existing objective if it exists
+        // Remove the objective older versions left on the main scoreboard
         Objective existingObjective = scoreboard.getObjective("dishdash_points");
         if (existingObjective != null) {
             existingObjective.unregister();
         }
         
-        // Create objective for tab list
-        pointsObjective = scoreboard.registerNewObjective("dishdash_points", "dummy", 
+        // Tab list column on every viewer's own board
+        plugin.getScoreboardManager().showPlayerList("dishdash_points",
             Component.text("Points", NamedTextColor.GOLD));
-        pointsObjective.setDisplaySlot(DisplaySlot.PLAYER_LIST);
         
         // Initialize all team scores to 0
         for (String teamName : teamDataMap.keySet()) {
-            pointsObjective.getScore(teamName).setScore(0);
-        }
-        
-        // Ensure all players have the scoreboard assigned
-        for (Player player : Bukkit.getOnlinePlayers()) {
-            player.setScoreboard(scoreboard);
+            plugin.getScoreboardManager().setPlayerListScore(teamName, 0);
         }
     }
     
@@ -1404,17 +1747,17 @@ public class DishDashManager implements Listener {
      * Update scoreboard with current points
      */
     private void updateScoreboard() {
-        if (pointsObjective == null) {
-            plugin.getLogger().warning("Cannot update scoreboard - pointsObjective is null!");
-            return;
-        }
-        
         plugin.getLogger().info("Updating scoreboard...");
         for (Map.Entry<String, DishDashTeamData> entry : teamDataMap.entrySet()) {
             int points = entry.getValue().getPoints();
-            pointsObjective.getScore(entry.getKey()).setScore(points);
+            plugin.getScoreboardManager().setPlayerListScore(entry.getKey(), points);
             plugin.getLogger().info("Team " + entry.getKey() + ": " + points + " points");
         }
+        
+        // Sidebar lines showing team progress
+        plugin.getScoreboardManager().invalidateLine("dishdash-team-points");
+        plugin.getScoreboardManager().invalidateLine("dishdash-customers");
+        plugin.getHudRefresher().markSidebarsDirty();
     }
     
     /**
@@ -97,6 +97,10 @@ public class DishDashTeamData {
         this.customersServed++;
     }
     
+    public void setCustomersServed(int customersServed) {
+        this.customersServed = customersServed;
+    }
+    
     public boolean isFinished() {
         return finished;
     }
@@ -0,0 +1,225 @@
+package com.zskv.minecraftRivals;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PointsLedgerTest {
+
+    // Magic and version in front of the first record
+    private static final int FIRST_RECORD = 8;
+
+    private static final Logger LOGGER = Logger.getLogger("PointsLedgerTest");
+
+    @TempDir
+    Path dir;
+
+    private final List<PointsLedger> opened = new ArrayList<>();
+
+    @AfterEach
+    void closeLedgers() {
+        for (PointsLedger ledger : opened) {
+            ledger.close();
+        }
+    }
+
+    private File file() {
+        return dir.resolve("points.ledger").toFile();
+    }
+
+    private PointsLedger open() throws IOException {
+        PointsLedger ledger = new PointsLedger(file(), LOGGER);
+        opened.add(ledger);
+        ledger.open();
+        return ledger;
+    }
+
+    private List<PointsLedger.Record> reopen() throws IOException {
+        PointsLedger ledger = new PointsLedger(file(), LOGGER);
+        opened.add(ledger);
+        return ledger.open();
+    }
+
+    private static int lengthAt(RandomAccessFile raf, long position) throws IOException {
+        raf.seek(position);
+        return raf.readInt();
+    }
+
+    @Test
+    void recordsSurviveReopening() throws IOException {
+        PointsLedger ledger = open();
+        UUID player = UUID.randomUUID();
+        PointsLedger.Record first = ledger.append(PointsLedger.Scope.EVENT, -1, player, "Steve", "Red", 1, 25, "serve");
+        PointsLedger.Record second = ledger.append(PointsLedger.Scope.GAME, -1, null, "Alex", null, 2, -10, "penalty");
+        ledger.close();
+
+        List<PointsLedger.Record> records = reopen();
+        assertEquals(List.of(first, second), records);
+        assertEquals(0, records.get(0).sequence());
+        assertEquals(1, records.get(1).sequence());
+        assertNull(records.get(1).player());
+        assertNull(records.get(1).team());
+    }
+
+    @Test
+    void appendsContinueAfterReopening() throws IOException {
+        PointsLedger ledger = open();
+        ledger.append(PointsLedger.Scope.EVENT, -1, null, "Steve", "Red", 1, 5, "first");
+        ledger.close();
+
+        PointsLedger reopened = open();
+        PointsLedger.Record next = reopened.append(PointsLedger.Scope.EVENT, -1, null, "Steve", "Red", 1, 7, "second");
+        assertEquals(1, next.sequence());
+        reopened.close();
+
+        List<PointsLedger.Record> records = reopen();
+        assertEquals(2, records.size());
+        assertEquals("second", records.get(1).reason());
+    }
+
+    @Test
+    void growsPastTheInitialMapping() throws IOException {
+        PointsLedger ledger = open();
+        String reason = "x".repeat(1000);
+        for (int i = 0; i < 2000; i++) {
+            ledger.append(PointsLedger.Scope.EVENT, -1, null, "Steve", "Red", 1, 1, reason);
+        }
+        ledger.close();
+
+        List<PointsLedger.Record> records = reopen();
+        assertEquals(2000, records.size());
+        assertEquals(1999, records.get(1999).sequence());
+    }
+
+    @Test
+    void damagedRecordDropsTheRest() throws IOException {
+        PointsLedger ledger = open();
+        ledger.append(PointsLedger.Scope.EVENT, -1, null, "Steve", "Red", 1, 1, "kept");
+        ledger.append(PointsLedger.Scope.EVENT, -1, null, "Alex", "Blue", 1, 2, "damaged");
+        ledger.append(PointsLedger.Scope.EVENT, -1, null, "Notch", "Red", 1, 3, "after the damage");
+        ledger.close();
+
+        try (RandomAccessFile raf = new RandomAccessFile(file(), "rw")) {
+            int second = FIRST_RECORD + 8 + lengthAt(raf, FIRST_RECORD);
+            // Flip a byte in the second record's payload, its checksum no longer matches
+            long target = second + 8 + 3;
+            raf.seek(target);
+            int b = raf.read();
+            raf.seek(target);
+            raf.write(b ^ 0xFF);
+        }
+
+        List<PointsLedger.Record> records = reopen();
+        assertEquals(1, records.size());
+        assertEquals("kept", records.get(0).reason());
+    }
+
+    @Test
+    void tornTailIsCutOffAndOverwritten() throws IOException {
+        PointsLedger ledger = open();
+        ledger.append(PointsLedger.Scope.EVENT, -1, null, "Steve", "Red", 1, 1, "kept");
+        ledger.close();
+
+        try (RandomAccessFile raf = new RandomAccessFile(file(), "rw")) {
+            int tail = FIRST_RECORD + 8 + lengthAt(raf, FIRST_RECORD);
+            // A length was written but the checksum and payload never made it
+            raf.seek(tail);
+            raf.writeInt(40);
+        }
+
+        PointsLedger recovered = open();
+        assertEquals(1, recovered.size());
+        recovered.append(PointsLedger.Scope.EVENT, -1, null, "Alex", "Blue", 1, 2, "after recovery");
+        recovered.close();
+
+        List<PointsLedger.Record> records = reopen();
+        assertEquals(2, records.size());
+        assertEquals("after recovery", records.get(1).reason());
+    }
+
+    @Test
+    void lengthPastTheEndIsTreatedAsDamage() throws IOException {
+        PointsLedger ledger = open();
+        ledger.append(PointsLedger.Scope.EVENT, -1, null, "Steve", "Red", 1, 1, "kept");
+        ledger.close();
+
+        try (RandomAccessFile raf = new RandomAccessFile(file(), "rw")) {
+            int tail = FIRST_RECORD + 8 + lengthAt(raf, FIRST_RECORD);
+            raf.seek(tail);
+            raf.writeInt(Integer.MAX_VALUE);
+        }
+
+        assertEquals(1, reopen().size());
+    }
+
+    @Test
+    void rejectsOtherFiles() throws IOException {
+        try (RandomAccessFile raf = new RandomAccessFile(file(), "rw")) {
+            raf.writeInt(0x12345678);
+            raf.writeInt(1);
+        }
+
+        assertThrows(IOException.class, this::reopen);
+    }
+
+    @Test
+    void undoSkipsGamePointsUndosAndUndoneRecords() throws IOException {
+        PointsLedger ledger = open();
+        PointsLedger.Record first = ledger.append(PointsLedger.Scope.EVENT, -1, null, "Steve", "Red", 1, 10, "first");
+        ledger.append(PointsLedger.Scope.GAME, -1, null, "Steve", "Red", 1, 4, "game points");
+        PointsLedger.Record second = ledger.append(PointsLedger.Scope.EVENT, -1, null, "Alex", "Blue", 1, 20, "second");
+
+        assertEquals(second, ledger.findUndoable());
+        PointsLedger.Record undo = ledger.append(PointsLedger.Scope.EVENT, second.sequence(), null, "Alex", "Blue",
+            1, -20, "undo");
+        assertTrue(undo.isUndo());
+        assertTrue(ledger.isUndone(second));
+        assertFalse(ledger.isUndone(first));
+
+        assertEquals(first, ledger.findUndoable());
+        ledger.append(PointsLedger.Scope.EVENT, first.sequence(), null, "Steve", "Red", 1, -10, "undo");
+        assertNull(ledger.findUndoable());
+    }
+
+    @Test
+    void undoneRecordsAreReplayed() throws IOException {
+        PointsLedger ledger = open();
+        PointsLedger.Record first = ledger.append(PointsLedger.Scope.EVENT, -1, null, "Steve", "Red", 1, 10, "first");
+        PointsLedger.Record second = ledger.append(PointsLedger.Scope.EVENT, -1, null, "Alex", "Blue", 1, 20, "second");
+        ledger.append(PointsLedger.Scope.EVENT, second.sequence(), null, "Alex", "Blue", 1, -20, "undo");
+        ledger.close();
+
+        PointsLedger reopened = open();
+        assertEquals(first, reopened.findUndoable());
+        assertTrue(reopened.isUndone(second));
+    }
+
+    @Test
+    void recentRecordsAreNewestFirst() throws IOException {
+        PointsLedger ledger = open();
+        for (int i = 0; i < 5; i++) {
+            ledger.append(PointsLedger.Scope.EVENT, -1, null, "Steve", "Red", 1, i, "change " + i);
+        }
+
+        List<PointsLedger.Record> recent = ledger.getRecent(3);
+        assertEquals(3, recent.size());
+        assertEquals(4, recent.get(0).sequence());
+        assertEquals(2, recent.get(2).sequence());
+        assertEquals(5, ledger.getRecent(10).size());
+    }
+}
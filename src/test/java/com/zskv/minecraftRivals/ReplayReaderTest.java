@@ -0,0 +1,183 @@
+package com.zskv.minecraftRivals;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReplayReaderTest {
+
+    private static final UUID STEVE = new UUID(1, 2);
+    private static final UUID ALEX = new UUID(3, 4);
+
+    @TempDir
+    Path dir;
+
+    /**
+     * Builds replay files with {@link ReplayRecorder}'s own encoders
+     */
+    private static final class ReplayWriter {
+        private final ByteBuffer buffer = ByteBuffer.allocate(4096);
+
+        ReplayWriter(String name, long startedAt) {
+            buffer.put(ReplayRecorder.header(name, startedAt));
+        }
+
+        ReplayWriter player(int tick, int id, UUID uuid, String name) {
+            ReplayRecorder.putPlayer(buffer, tick, (short) id, uuid, name.getBytes(StandardCharsets.UTF_8));
+            return this;
+        }
+
+        ReplayWriter string(int tick, int id, String value) {
+            ReplayRecorder.putString(buffer, tick, (short) id, value.getBytes(StandardCharsets.UTF_8));
+            return this;
+        }
+
+        ReplayWriter position(int tick, int player, int world, float x, float y, float z, float yaw) {
+            ReplayRecorder.putPosition(buffer, tick, (short) player, (short) world, x, y, z, yaw);
+            return this;
+        }
+
+        ReplayWriter serve(int tick, int player, int team, int points, int dish) {
+            ReplayRecorder.putServe(buffer, tick, (short) player, (short) team, points, (short) dish);
+            return this;
+        }
+
+        ReplayWriter vote(int tick, int player, int game) {
+            ReplayRecorder.putVote(buffer, tick, (short) player, (short) game);
+            return this;
+        }
+
+        ReplayWriter phase(int tick, int phase) {
+            ReplayRecorder.putPhase(buffer, tick, (short) phase);
+            return this;
+        }
+
+        ReplayWriter end(int tick) {
+            ReplayRecorder.putEnd(buffer, tick);
+            return this;
+        }
+
+        ReplayWriter raw(int type, int tick) {
+            ReplayRecorder.startRecord(buffer, (byte) type, tick);
+            return this;
+        }
+
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer.array(), buffer.position());
+        }
+    }
+
+    private static byte[] sampleRound() {
+        return new ReplayWriter("dishdash", 1234L)
+            .player(0, 0, STEVE, "Steve")
+            .string(0, 0, "world")
+            .position(0, 0, 0, 1.5f, 64f, -3.25f, 90f)
+            .string(5, 1, "Red")
+            .string(5, 2, "Golden Stew")
+            .serve(5, 0, 1, 40, 2)
+            .player(7, 1, ALEX, "Alex")
+            .position(10, 1, 0, 0f, 70f, 0f, -45f)
+            .string(12, 3, "final countdown")
+            .phase(12, 3)
+            .vote(15, 1, 1)
+            .end(20)
+            .toByteArray();
+    }
+
+    private File write(String name, byte[] data) throws IOException {
+        File file = dir.resolve(name).toFile();
+        Files.write(file.toPath(), data);
+        return file;
+    }
+
+    @Test
+    void readsACompleteRound() throws IOException {
+        ReplayReader.Replay replay = ReplayReader.read(write("round.mcrr", sampleRound()));
+
+        assertEquals("dishdash", replay.name());
+        assertEquals(1234L, replay.startedAt());
+        assertEquals(20, replay.duration());
+        assertTrue(replay.complete());
+        assertEquals("Steve", replay.players().get(STEVE));
+        assertEquals("Alex", replay.players().get(ALEX));
+
+        assertEquals(List.of(
+            new ReplayReader.Frame(0, STEVE, "world", 1.5f, 64f, -3.25f, 90f),
+            new ReplayReader.Frame(10, ALEX, "world", 0f, 70f, 0f, -45f)), replay.frames());
+        assertEquals(List.of(
+            new ReplayReader.Event(5, ReplayRecorder.SERVE, STEVE, "Red", 40, "Golden Stew"),
+            new ReplayReader.Event(12, ReplayRecorder.PHASE, null, "final countdown", 0, null),
+            new ReplayReader.Event(15, ReplayRecorder.VOTE, ALEX, "Red", 0, null)), replay.events());
+    }
+
+    @Test
+    void truncatedFilesKeepEveryCompleteRecord() throws IOException {
+        byte[] full = sampleRound();
+        ReplayReader.Replay complete = ReplayReader.read(write("full.mcrr", full));
+        int header = 18 + "dishdash".length();
+
+        // Every cut after the header, including ones inside a record or a string
+        for (int length = header; length < full.length; length++) {
+            ReplayReader.Replay replay = ReplayReader.read(write("cut.mcrr", Arrays.copyOf(full, length)));
+
+            assertFalse(replay.complete(), "cut at " + length);
+            assertEquals("dishdash", replay.name());
+            assertEquals(complete.frames().subList(0, replay.frames().size()), replay.frames());
+            assertEquals(complete.events().subList(0, replay.events().size()), replay.events());
+            assertTrue(replay.duration() <= complete.duration());
+        }
+    }
+
+    @Test
+    void cutInsideTheHeaderIsAnError() throws IOException {
+        byte[] full = sampleRound();
+        for (int length = 0; length < 18 + "dishdash".length(); length++) {
+            File file = write("cut.mcrr", Arrays.copyOf(full, length));
+            assertThrows(IOException.class, () -> ReplayReader.read(file), "cut at " + length);
+        }
+    }
+
+    @Test
+    void rejectsOtherFiles() throws IOException {
+        byte[] data = sampleRound();
+        data[0] ^= 0x7F;
+
+        File file = write("other.mcrr", data);
+        assertThrows(IOException.class, () -> ReplayReader.read(file));
+    }
+
+    @Test
+    void rejectsUnknownRecordTypes() throws IOException {
+        byte[] data = new ReplayWriter("dishdash", 0L)
+            .raw(99, 0)
+            .toByteArray();
+
+        File file = write("unknown.mcrr", data);
+        assertThrows(IOException.class, () -> ReplayReader.read(file));
+    }
+
+    @Test
+    void listsReplaysNewestFirst() throws IOException {
+        write("2026-01-01_12-00-00_dishdash" + ReplayRecorder.FILE_EXTENSION, sampleRound());
+        write("2026-01-02_12-00-00_voting" + ReplayRecorder.FILE_EXTENSION, sampleRound());
+        write("notes.txt", new byte[0]);
+
+        List<File> files = ReplayReader.list(dir.toFile());
+        assertEquals(2, files.size());
+        assertEquals("2026-01-02_12-00-00_voting" + ReplayRecorder.FILE_EXTENSION, files.get(0).getName());
+    }
+}
@@ -0,0 +1,264 @@
+package com.zskv.minecraftRivals;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StandingsHistoryTest {
+
+    // Magic and version in front of the first block
+    private static final int FIRST_BLOCK = 8;
+    // Length, team mask and checksum in front of every block
+    private static final int BLOCK_HEADER = 16;
+
+    private static final Logger LOGGER = Logger.getLogger("StandingsHistoryTest");
+
+    @TempDir
+    Path dir;
+
+    private File file() {
+        return dir.resolve("standings.history").toFile();
+    }
+
+    private StandingsHistory history() {
+        StandingsHistory history = new StandingsHistory(file(), LOGGER);
+        history.load();
+        return history;
+    }
+
+    // Two spilled blocks, Red at 10 and then 20
+    private void spillTwoBlocks() {
+        StandingsHistory history = history();
+        history.record("Red", 10, 1, 1);
+        history.flush();
+        history.record("Red", 20, 1, 2);
+        history.flush();
+    }
+
+    private static long secondBlock(RandomAccessFile raf) throws IOException {
+        raf.seek(FIRST_BLOCK);
+        return FIRST_BLOCK + BLOCK_HEADER + raf.readInt();
+    }
+
+    @Test
+    void curveDecodesNegativeDeltas() {
+        StandingsHistory history = history();
+        List<StandingsHistory.Sample> expected = List.of(
+            new StandingsHistory.Sample("Red", 1, 100, 50),
+            new StandingsHistory.Sample("Red", 1, 90, 20),
+            new StandingsHistory.Sample("Red", 0, 5000, -300),
+            new StandingsHistory.Sample("Red", 3, 70000, 1_000_000));
+        for (StandingsHistory.Sample sample : expected) {
+            history.record(sample.team(), sample.points(), sample.game(), sample.tick());
+        }
+
+        assertEquals(expected, history.getCurve("Red"));
+    }
+
+    @Test
+    void curveSurvivesExtremeValues() {
+        StandingsHistory history = history();
+        List<StandingsHistory.Sample> expected = List.of(
+            new StandingsHistory.Sample("Red", 1, 0, Integer.MAX_VALUE),
+            new StandingsHistory.Sample("Red", 1, Integer.MAX_VALUE, Integer.MIN_VALUE),
+            new StandingsHistory.Sample("Red", Integer.MIN_VALUE, -1, 0),
+            new StandingsHistory.Sample("Red", Integer.MAX_VALUE, 0, -1));
+        for (StandingsHistory.Sample sample : expected) {
+            history.record(sample.team(), sample.points(), sample.game(), sample.tick());
+        }
+
+        assertEquals(expected, history.getCurve("Red"));
+        history.flush();
+        assertEquals(expected, history().getCurve("Red"));
+    }
+
+    @Test
+    void unchangedTotalsAreSkipped() {
+        StandingsHistory history = history();
+        history.record("Red", 10, 1, 1);
+        history.record("Red", 10, 1, 2);
+        history.record("Red", 12, 1, 3);
+
+        assertEquals(2, history.getCurve("Red").size());
+    }
+
+    @Test
+    void curvesOnlyHoldTheirTeam() {
+        StandingsHistory history = history();
+        history.record("Red", 10, 1, 1);
+        history.record("Blue", 20, 1, 2);
+        history.record("Red", 15, 1, 3);
+
+        assertEquals(List.of(
+            new StandingsHistory.Sample("Red", 1, 1, 10),
+            new StandingsHistory.Sample("Red", 1, 3, 15)), history.getCurve("Red"));
+        assertEquals(List.of(new StandingsHistory.Sample("Blue", 1, 2, 20)), history.getCurve("Blue"));
+        assertTrue(history.getCurve("Green").isEmpty());
+    }
+
+    @Test
+    void teamsSharingTheLastMaskBitStaySeparate() {
+        StandingsHistory history = history();
+        for (int team = 0; team < 70; team++) {
+            history.record("Team " + team, team + 1, 1, team);
+        }
+
+        assertEquals(List.of(new StandingsHistory.Sample("Team 65", 1, 65, 66)), history.getCurve("Team 65"));
+        assertEquals(List.of(new StandingsHistory.Sample("Team 69", 1, 69, 70)), history.getCurve("Team 69"));
+    }
+
+    @Test
+    void ringSpillsToTheFileAndCurvesReadBoth() {
+        StandingsHistory history = history();
+        List<StandingsHistory.Sample> red = new ArrayList<>();
+        // Far more than the ring holds, so the oldest blocks are spilled while recording
+        for (int i = 1; i <= 20000; i++) {
+            String team = i % 2 == 0 ? "Red" : "Blue";
+            history.record(team, i, 1 + i / 5000, i * 3);
+            if (team.equals("Red")) {
+                red.add(new StandingsHistory.Sample("Red", 1 + i / 5000, i * 3, i));
+            }
+        }
+
+        assertTrue(file().exists());
+        assertEquals(red, history.getCurve("Red"));
+        assertEquals(10000, history.getCurve("Blue").size());
+
+        history.flush();
+        assertEquals(red, history().getCurve("Red"));
+    }
+
+    @Test
+    void nothingIsWrittenBeforeTheRingFills() {
+        StandingsHistory history = history();
+        history.record("Red", 10, 1, 1);
+
+        assertFalse(file().exists());
+        history.flush();
+        assertTrue(file().exists());
+    }
+
+    @Test
+    void leadChangesFollowTheTopTeam() {
+        StandingsHistory history = history();
+        assertNull(history.getLeader());
+
+        history.record("Red", 10, 1, 1);
+        history.record("Blue", 5, 1, 2);
+        history.record("Blue", 15, 1, 3);
+        // A tie keeps the lead where it is
+        history.record("Red", 15, 2, 4);
+        // The leader dropping back hands the lead on
+        history.record("Blue", 5, 2, 5);
+
+        assertEquals(List.of(
+            new StandingsHistory.LeadChange(1, 1, "Red", null),
+            new StandingsHistory.LeadChange(1, 3, "Blue", "Red"),
+            new StandingsHistory.LeadChange(2, 5, "Red", "Blue")), history.getLeadChanges(0));
+        assertEquals(List.of(new StandingsHistory.LeadChange(2, 5, "Red", "Blue")), history.getLeadChanges(2));
+        assertEquals("Red", history.getLeader());
+    }
+
+    @Test
+    void loadRestoresLeaderAndLastTotals() {
+        StandingsHistory history = history();
+        history.record("Red", 10, 1, 1);
+        history.record("Blue", 20, 1, 2);
+        history.flush();
+
+        StandingsHistory loaded = history();
+        assertEquals("Blue", loaded.getLeader());
+        assertEquals(2, loaded.getLeadChanges(0).size());
+
+        // Same total as before the restart, so nothing new is stored
+        loaded.record("Blue", 20, 1, 3);
+        assertEquals(1, loaded.getCurve("Blue").size());
+        loaded.record("Red", 30, 1, 4);
+        assertEquals(new StandingsHistory.LeadChange(1, 4, "Red", "Blue"), loaded.getLeadChanges(0).get(2));
+    }
+
+    @Test
+    void tornTailIsCutOffAndLaterSpillsStayReadable() throws IOException {
+        spillTwoBlocks();
+        long intact = file().length();
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file(), true))) {
+            // A spill that stopped after its header and a few bytes of data
+            out.writeInt(100);
+            out.writeLong(1);
+            out.writeInt(12345);
+            out.write(new byte[10]);
+        }
+
+        StandingsHistory recovered = history();
+        assertEquals(intact, file().length());
+        assertEquals(2, recovered.getCurve("Red").size());
+        recovered.record("Red", 30, 1, 3);
+        recovered.flush();
+
+        assertEquals(List.of(
+            new StandingsHistory.Sample("Red", 1, 1, 10),
+            new StandingsHistory.Sample("Red", 1, 2, 20),
+            new StandingsHistory.Sample("Red", 1, 3, 30)), history().getCurve("Red"));
+    }
+
+    @Test
+    void damagedBlockDropsTheRest() throws IOException {
+        spillTwoBlocks();
+        long second;
+        try (RandomAccessFile raf = new RandomAccessFile(file(), "rw")) {
+            second = secondBlock(raf);
+            // Flip the last data byte, the block's checksum no longer matches
+            raf.seek(raf.length() - 1);
+            int b = raf.read();
+            raf.seek(raf.length() - 1);
+            raf.write(b ^ 0xFF);
+        }
+
+        StandingsHistory recovered = history();
+        assertEquals(second, file().length());
+        assertEquals(List.of(new StandingsHistory.Sample("Red", 1, 1, 10)), recovered.getCurve("Red"));
+        assertEquals("Red", recovered.getLeader());
+    }
+
+    @Test
+    void bogusLengthIsTreatedAsDamage() throws IOException {
+        spillTwoBlocks();
+        try (RandomAccessFile raf = new RandomAccessFile(file(), "rw")) {
+            raf.seek(secondBlock(raf));
+            raf.writeInt(-7);
+        }
+
+        assertEquals(1, history().getCurve("Red").size());
+    }
+
+    @Test
+    void olderFilesAreSetAside() throws IOException {
+        try (DataOutputStream out = new DataOutputStream(new FileOutputStream(file()))) {
+            // Blocks without a file header or checksums
+            out.writeInt(3);
+            out.writeLong(1);
+            out.write(new byte[] {1, 2, 3});
+        }
+
+        StandingsHistory history = history();
+        assertTrue(new File(file().getPath() + ".old").exists());
+        assertNull(history.getLeader());
+        history.record("Red", 10, 1, 1);
+        history.flush();
+        assertEquals(1, history().getCurve("Red").size());
+    }
+}